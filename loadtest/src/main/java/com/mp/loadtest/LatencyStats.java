@@ -0,0 +1,94 @@
+package com.mp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end latency histograms (microseconds) shared by all simulated players.
+ */
+public class LatencyStats {
+
+    private static final long MAX_TRACKABLE_US = TimeUnit.MINUTES.toMicros(5);
+
+    /** question frame (or "go" frame) reaching a player, vs. server/host send time */
+    final Histogram questionDelivery = newHistogram();
+
+    /** answer sent until the player's own entry shows up answered on a scoreboard */
+    final Histogram answerAck = newHistogram();
+
+    /** answer sent by any player until the observer player sees it on a scoreboard */
+    final Histogram scoreboardPropagation = newHistogram();
+
+    final LongAdder joined = new LongAdder();
+    final LongAdder joinFailures = new LongAdder();
+    final LongAdder connectFailures = new LongAdder();
+    final LongAdder transportErrors = new LongAdder();
+    final LongAdder questionsReceived = new LongAdder();
+    final LongAdder answersSent = new LongAdder();
+    final LongAdder answersAcked = new LongAdder();
+    final LongAdder scoreboardFrames = new LongAdder();
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(MAX_TRACKABLE_US, 3);
+    }
+
+    static void record(Histogram h, long micros) {
+        h.recordValue(Math.max(0, Math.min(micros, MAX_TRACKABLE_US)));
+    }
+
+    void print(PrintStream out) {
+
+        out.println();
+        out.println("=== Pool load test ===");
+        out.printf("joined=%d joinFailures=%d connectFailures=%d transportErrors=%d%n",
+                joined.sum(), joinFailures.sum(), connectFailures.sum(), transportErrors.sum());
+        out.printf("questionsReceived=%d answersSent=%d answersAcked=%d scoreboardFrames=%d%n",
+                questionsReceived.sum(), answersSent.sum(), answersAcked.sum(), scoreboardFrames.sum());
+        out.println();
+        out.printf("%-24s %8s %9s %9s %9s %9s %9s%n",
+                "latency (ms)", "count", "p50", "p90", "p99", "p99.9", "max");
+
+        for (Map.Entry<String, Histogram> e : histograms().entrySet()) {
+            Histogram h = e.getValue();
+            out.printf("%-24s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    e.getKey(),
+                    h.getTotalCount(),
+                    h.getValueAtPercentile(50) / 1000.0,
+                    h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0,
+                    h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        }
+    }
+
+    void writeCsv(Path path) throws IOException {
+
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(path))) {
+            w.println("metric,percentile,millis");
+            for (Map.Entry<String, Histogram> e : histograms().entrySet()) {
+                for (double p : new double[] {50, 75, 90, 95, 99, 99.9, 100}) {
+                    w.printf("%s,%s,%.3f%n", e.getKey(), p,
+                            e.getValue().getValueAtPercentile(p) / 1000.0);
+                }
+            }
+        }
+    }
+
+    private Map<String, Histogram> histograms() {
+        Map<String, Histogram> m = new LinkedHashMap<>();
+        m.put("questionDelivery", questionDelivery);
+        m.put("answerAck", answerAck);
+        m.put("scoreboardPropagation", scoreboardPropagation);
+        return m;
+    }
+}
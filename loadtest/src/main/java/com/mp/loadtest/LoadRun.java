@@ -0,0 +1,112 @@
+package com.mp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * State shared by every simulated player of one run.
+ */
+class LoadRun {
+
+    final LoadTestConfig config;
+    final LatencyStats stats = new LatencyStats();
+    final ObjectMapper mapper = new ObjectMapper();
+
+    final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // Delayed answers; players never sleep on STOMP threads
+    final ScheduledExecutorService answerScheduler =
+            Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+
+    // questionId -> first local receive (nanoTime), used when no server timestamp exists
+    final Map<Long, Long> firstSeen = new ConcurrentHashMap<>();
+
+    // nickname -> answer send time (nanoTime), drained by the observer player
+    final Map<String, Long> unseenAnswers = new ConcurrentHashMap<>();
+
+    // Set by the hosting client right before /app/pool/next-question
+    volatile long hostSendNanos;
+
+    final CountDownLatch ended = new CountDownLatch(1);
+
+    volatile String gamePin;
+
+    LoadRun(LoadTestConfig config) {
+        this.config = config;
+        this.gamePin = config.gamePin;
+    }
+
+    String wsUrl() {
+        return config.baseUrl + "/ws";
+    }
+
+    // POST /api/pool/join
+    boolean join(String nickname) {
+
+        try {
+            String body = mapper.writeValueAsString(Map.of(
+                    "gamePin", gamePin,
+                    "nickname", nickname
+            ));
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(config.baseUrl + "/api/pool/join"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+
+            HttpResponse<String> response =
+                    http.send(request, HttpResponse.BodyHandlers.ofString());
+
+            return response.statusCode() == 200;
+
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // POST /api/pool/start/{quizId} as POOL_USER host
+    String startGame() throws IOException, InterruptedException {
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(config.baseUrl + "/api/pool/start/" + config.quizId
+                        + "?autoAdvance=" + config.autoAdvance))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + config.hostToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        HttpResponse<String> response =
+                http.send(request, HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(
+                    "Start game failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+
+        JsonNode json = mapper.readTree(response.body());
+        return json.get("gamePin").asText();
+    }
+
+    void shutdown() {
+        answerScheduler.shutdownNow();
+    }
+}
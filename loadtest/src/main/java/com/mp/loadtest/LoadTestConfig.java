@@ -0,0 +1,72 @@
+package com.mp.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all in --key=value form.
+ *
+ *   --url=http://localhost:8080     server base URL (REST + /ws)
+ *   --pin=123456                    join an existing game, or
+ *   --quiz-id=42 --host-token=JWT   start a game as POOL_USER host and drive it
+ *   --auto-advance=true             server-paced game when hosting
+ *   --players=1000                  simulated players
+ *   --ramp-ms=5                     delay between player connects
+ *   --connect-threads=64            parallel join/connect workers
+ *   --think=uniform:500:8000        answer timing distribution (see ThinkTime)
+ *   --answer-rate=0.95              fraction of questions a player answers at all
+ *   --timeout-s=900                 give up if the game does not end
+ *   --csv=latency.csv               optional percentile dump
+ */
+public class LoadTestConfig {
+
+    String baseUrl = "http://localhost:8080";
+    String gamePin;
+    Long quizId;
+    String hostToken;
+    boolean autoAdvance = true;
+    int players = 100;
+    long rampMillis = 5;
+    int connectThreads = 64;
+    ThinkTime thinkTime = ThinkTime.parse("uniform:500:8000");
+    double answerRate = 0.95;
+    long timeoutSeconds = 900;
+    String csvPath;
+
+    static LoadTestConfig parse(String[] args) {
+
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestConfig c = new LoadTestConfig();
+        c.baseUrl = opts.getOrDefault("url", c.baseUrl).replaceAll("/+$", "");
+        c.gamePin = opts.get("pin");
+        c.quizId = opts.containsKey("quiz-id") ? Long.valueOf(opts.get("quiz-id")) : null;
+        c.hostToken = opts.get("host-token");
+        c.autoAdvance = Boolean.parseBoolean(opts.getOrDefault("auto-advance", "true"));
+        c.players = Integer.parseInt(opts.getOrDefault("players", String.valueOf(c.players)));
+        c.rampMillis = Long.parseLong(opts.getOrDefault("ramp-ms", String.valueOf(c.rampMillis)));
+        c.connectThreads = Integer.parseInt(opts.getOrDefault("connect-threads", String.valueOf(c.connectThreads)));
+        if (opts.containsKey("think")) {
+            c.thinkTime = ThinkTime.parse(opts.get("think"));
+        }
+        c.answerRate = Double.parseDouble(opts.getOrDefault("answer-rate", String.valueOf(c.answerRate)));
+        c.timeoutSeconds = Long.parseLong(opts.getOrDefault("timeout-s", String.valueOf(c.timeoutSeconds)));
+        c.csvPath = opts.get("csv");
+
+        if (c.gamePin == null && (c.quizId == null || c.hostToken == null)) {
+            throw new IllegalArgumentException("Either --pin or --quiz-id with --host-token is required");
+        }
+        return c;
+    }
+
+    boolean isHosting() {
+        return gamePin == null;
+    }
+}
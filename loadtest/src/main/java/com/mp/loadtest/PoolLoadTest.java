@@ -0,0 +1,200 @@
+package com.mp.loadtest;
+
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-day load generator for live pool games.
+ *
+ * Opens N SockJS/STOMP clients against /ws, joins each one through
+ * /api/pool/join, subscribes to /topic/pool/{pin}/*, and answers on
+ * /app/pool/answer. Records question delivery, answer acknowledgement and
+ * scoreboard propagation latency. Only meant to run against a local server.
+ *
+ * Example (hosted, server-paced game):
+ *   mvn -f loadtest/pom.xml compile exec:java \
+ *     -Dexec.args="--quiz-id=42 --host-token=$JWT --players=2000 --think=exp:3000"
+ */
+public class PoolLoadTest {
+
+    public static void main(String[] args) throws Exception {
+
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LoadRun run = new LoadRun(config);
+
+        if (config.isHosting()) {
+            run.gamePin = run.startGame();
+            System.out.println("Started game " + run.gamePin);
+        }
+
+        ThreadPoolTaskScheduler heartbeat = new ThreadPoolTaskScheduler();
+        heartbeat.setPoolSize(4);
+        heartbeat.setThreadNamePrefix("stomp-hb-");
+        heartbeat.initialize();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())))
+        );
+        stompClient.setMessageConverter(new ByteArrayMessageConverter());
+        stompClient.setTaskScheduler(heartbeat);
+        stompClient.setInboundMessageSizeLimit(4 * 1024 * 1024);
+
+        ConcurrentLinkedQueue<SimulatedPlayer> players = connectPlayers(stompClient, run);
+
+        System.out.printf("Connected %d/%d players%n", players.size(), config.players);
+
+        StompSession host = null;
+        if (config.isHosting()) {
+            host = connectHost(stompClient, run);
+            sendNextQuestion(host, run);
+        }
+
+        boolean finished = run.ended.await(config.timeoutSeconds, TimeUnit.SECONDS);
+        if (!finished) {
+            System.out.println("Timed out waiting for /end");
+        }
+
+        run.stats.print(System.out);
+        if (config.csvPath != null) {
+            run.stats.writeCsv(Path.of(config.csvPath));
+        }
+
+        players.forEach(SimulatedPlayer::disconnect);
+        if (host != null && host.isConnected()) {
+            host.disconnect();
+        }
+        run.shutdown();
+        stompClient.stop();
+        heartbeat.shutdown();
+    }
+
+    private static ConcurrentLinkedQueue<SimulatedPlayer> connectPlayers(
+            WebSocketStompClient stompClient,
+            LoadRun run
+    ) throws InterruptedException {
+
+        LoadTestConfig config = run.config;
+        ConcurrentLinkedQueue<SimulatedPlayer> connected = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(config.players);
+        ExecutorService workers = Executors.newFixedThreadPool(config.connectThreads);
+
+        for (int i = 0; i < config.players; i++) {
+
+            // Player 0 also observes scoreboard propagation for everybody
+            SimulatedPlayer player = new SimulatedPlayer(
+                    run, "lt-" + i, i == 0, 0x5eedL * 31 + i
+            );
+
+            workers.execute(() -> {
+                try {
+                    // Subscribe first so no lobby/question frame is missed
+                    stompClient.connectAsync(run.wsUrl(), player)
+                            .get(30, TimeUnit.SECONDS);
+
+                    if (run.join(player.nickname())) {
+                        run.stats.joined.increment();
+                        connected.add(player);
+                    } else {
+                        run.stats.joinFailures.increment();
+                        player.disconnect();
+                    }
+                } catch (Exception e) {
+                    run.stats.connectFailures.increment();
+                } finally {
+                    done.countDown();
+                }
+            });
+
+            if (config.rampMillis > 0) {
+                Thread.sleep(config.rampMillis);
+            }
+        }
+
+        done.await();
+        workers.shutdown();
+        return connected;
+    }
+
+    private static StompSession connectHost(WebSocketStompClient stompClient, LoadRun run)
+            throws Exception {
+
+        HostHandler handler = new HostHandler(run);
+        return stompClient.connectAsync(run.wsUrl(), handler).get(30, TimeUnit.SECONDS);
+    }
+
+    static void sendNextQuestion(StompSession host, LoadRun run) {
+
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination("/app/pool/next-question");
+        headers.setContentType(MimeTypeUtils.TEXT_PLAIN);
+
+        run.hostSendNanos = System.nanoTime();
+        host.send(headers, run.gamePin.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Host client. With auto-advance the server paces the game after the first
+     * question; otherwise the host advances a moment after each scoreboard.
+     */
+    private static class HostHandler extends StompSessionHandlerAdapter {
+
+        private final LoadRun run;
+        private volatile boolean revealed;
+
+        HostHandler(LoadRun run) {
+            this.run = run;
+        }
+
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+
+            if (run.config.autoAdvance) return;
+
+            String topic = "/topic/pool/" + run.gamePin;
+
+            session.subscribe(topic + "/result", frame(() -> revealed = true));
+            session.subscribe(topic + "/scoreboard", frame(() -> {
+                if (!revealed) return; // per-answer update, not the phase scoreboard
+                revealed = false;
+                run.answerScheduler.schedule(
+                        () -> sendNextQuestion(session, run),
+                        2,
+                        TimeUnit.SECONDS
+                );
+            }));
+        }
+
+        private static StompFrameHandler frame(Runnable r) {
+            return new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    r.run();
+                }
+            };
+        }
+    }
+}
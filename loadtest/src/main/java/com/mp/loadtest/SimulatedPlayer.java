@@ -0,0 +1,247 @@
+package com.mp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One player: subscribes to the pool topics like the browser client does and
+ * answers every question after a think time drawn from the configured distribution.
+ */
+class SimulatedPlayer extends StompSessionHandlerAdapter {
+
+    private final LoadRun run;
+    private final String nickname;
+    private final boolean observer;
+    private final SplittableRandom random;
+
+    private volatile StompSession session;
+
+    // Question pre-pushed on /prefetch, opened by the matching /go frame
+    private volatile JsonNode prefetched;
+
+    // nanoTime of the last answer still waiting for its scoreboard ack, 0 if none
+    private volatile long pendingAckNanos;
+
+    SimulatedPlayer(LoadRun run, String nickname, boolean observer, long seed) {
+        this.run = run;
+        this.nickname = nickname;
+        this.observer = observer;
+        this.random = new SplittableRandom(seed);
+    }
+
+    String nickname() {
+        return nickname;
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+
+        this.session = session;
+        String topic = "/topic/pool/" + run.gamePin;
+
+        session.subscribe(topic + "/question", handler(this::onQuestion));
+        session.subscribe(topic + "/prefetch", handler(json -> prefetched = json));
+        session.subscribe(topic + "/go", handler(this::onGo));
+        session.subscribe(topic + "/scoreboard", handler(this::onScoreboard));
+        session.subscribe(topic + "/end", raw(payload -> onEnd()));
+
+        // Same fan-out as a real client, payload ignored
+        session.subscribe(topic + "/timer", raw(payload -> { }));
+        session.subscribe(topic + "/result", raw(payload -> { }));
+    }
+
+    @Override
+    public void handleException(StompSession s, StompCommand command, StompHeaders headers,
+                                byte[] payload, Throwable exception) {
+        run.stats.transportErrors.increment();
+    }
+
+    @Override
+    public void handleTransportError(StompSession s, Throwable exception) {
+        run.stats.transportErrors.increment();
+    }
+
+    void disconnect() {
+        StompSession s = session;
+        if (s != null && s.isConnected()) {
+            s.disconnect();
+        }
+    }
+
+    // =====================================================
+    // FRAMES
+    // =====================================================
+
+    private void onQuestion(JsonNode question) {
+
+        long now = System.nanoTime();
+        long questionId = question.get("questionId").asLong();
+
+        run.stats.questionsReceived.increment();
+
+        // Reference: host send time if we drive the game, else the first receiver
+        long reference = run.hostSendNanos;
+        if (reference == 0 || reference > now) {
+            reference = run.firstSeen.computeIfAbsent(questionId, k -> now);
+        }
+        LatencyStats.record(run.stats.questionDelivery,
+                TimeUnit.NANOSECONDS.toMicros(now - reference));
+
+        scheduleAnswer(question, 0);
+    }
+
+    private void onGo(JsonNode go) {
+
+        long nowMillis = System.currentTimeMillis();
+
+        run.stats.questionsReceived.increment();
+
+        // Local server → same clock, serverTime is the frame's send time
+        LatencyStats.record(run.stats.questionDelivery,
+                (nowMillis - go.get("serverTime").asLong()) * 1000);
+
+        JsonNode question = prefetched;
+        if (question == null ||
+                question.get("questionId").asLong() != go.get("questionId").asLong()) {
+            return; // missed the pre-push, nothing to answer with
+        }
+
+        long untilOpen = Math.max(0, go.get("openAt").asLong() - nowMillis);
+        scheduleAnswer(question, untilOpen);
+    }
+
+    private void scheduleAnswer(JsonNode question, long extraDelayMillis) {
+
+        if (random.nextDouble() >= run.config.answerRate) {
+            return;
+        }
+
+        JsonNode options = question.get("options");
+        if (options == null || options.size() == 0) {
+            return;
+        }
+
+        String selected = options.get(random.nextInt(options.size())).asText();
+        long questionId = question.get("questionId").asLong();
+        long delay = extraDelayMillis + run.config.thinkTime.nextDelayMillis(random);
+
+        run.answerScheduler.schedule(
+                () -> sendAnswer(questionId, selected),
+                delay,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    private void sendAnswer(long questionId, String selected) {
+
+        StompSession s = session;
+        if (s == null || !s.isConnected()) return;
+
+        try {
+            byte[] body = run.mapper.writeValueAsBytes(Map.of(
+                    "gamePin", run.gamePin,
+                    "nickname", nickname,
+                    "questionId", questionId,
+                    "selectedAnswer", selected
+            ));
+
+            StompHeaders headers = new StompHeaders();
+            headers.setDestination("/app/pool/answer");
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+
+            long now = System.nanoTime();
+            pendingAckNanos = now;
+            run.unseenAnswers.put(nickname, now);
+
+            s.send(headers, body);
+            run.stats.answersSent.increment();
+
+        } catch (Exception e) {
+            run.stats.transportErrors.increment();
+        }
+    }
+
+    private void onScoreboard(JsonNode scoreboard) {
+
+        run.stats.scoreboardFrames.increment();
+
+        long since = pendingAckNanos;
+        if (since == 0 && !observer) {
+            return; // nothing to measure, skip the walk
+        }
+
+        long now = System.nanoTime();
+        JsonNode players = scoreboard.get("players");
+        if (players == null) return;
+
+        for (Iterator<JsonNode> it = players.elements(); it.hasNext(); ) {
+
+            JsonNode p = it.next();
+            if (!p.path("answered").asBoolean()) continue;
+
+            String name = p.path("nickname").asText();
+
+            if (since != 0 && nickname.equals(name)) {
+                run.stats.answersAcked.increment();
+                LatencyStats.record(run.stats.answerAck,
+                        TimeUnit.NANOSECONDS.toMicros(now - since));
+                pendingAckNanos = 0;
+                since = 0;
+            }
+
+            if (observer) {
+                Long sent = run.unseenAnswers.remove(name);
+                if (sent != null) {
+                    LatencyStats.record(run.stats.scoreboardPropagation,
+                            TimeUnit.NANOSECONDS.toMicros(now - sent));
+                }
+            }
+        }
+    }
+
+    private void onEnd() {
+        if (observer) {
+            run.ended.countDown();
+        }
+    }
+
+    // =====================================================
+    // HANDLERS
+    // =====================================================
+
+    private StompFrameHandler handler(Consumer<JsonNode> consumer) {
+        return raw(payload -> {
+            try {
+                consumer.accept(run.mapper.readTree(payload));
+            } catch (Exception e) {
+                run.stats.transportErrors.increment();
+            }
+        });
+    }
+
+    private static StompFrameHandler raw(Consumer<byte[]> consumer) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                consumer.accept((byte[]) payload);
+            }
+        };
+    }
+}
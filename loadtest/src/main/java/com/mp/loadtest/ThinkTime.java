@@ -0,0 +1,52 @@
+package com.mp.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Delay between a question opening and a simulated player answering.
+ *
+ * Spec formats (milliseconds):
+ *   fixed:1500
+ *   uniform:500:8000
+ *   exp:2500            (exponential, mean)
+ *   normal:4000:1500    (gaussian, mean:stddev, clamped at 0)
+ */
+public interface ThinkTime {
+
+    long nextDelayMillis(SplittableRandom random);
+
+    static ThinkTime parse(String spec) {
+
+        String[] p = spec.trim().toLowerCase().split(":");
+
+        switch (p[0]) {
+            case "fixed": {
+                long ms = Long.parseLong(p[1]);
+                return r -> ms;
+            }
+            case "uniform": {
+                long min = Long.parseLong(p[1]);
+                long max = Long.parseLong(p[2]);
+                return r -> min + (max > min ? r.nextLong(max - min + 1) : 0);
+            }
+            case "exp": {
+                double mean = Double.parseDouble(p[1]);
+                return r -> (long) (-mean * Math.log(1.0 - r.nextDouble()));
+            }
+            case "normal": {
+                double mean = Double.parseDouble(p[1]);
+                double sd = Double.parseDouble(p[2]);
+                return r -> Math.max(0, Math.round(mean + sd * gaussian(r)));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown think-time spec: " + spec);
+        }
+    }
+
+    private static double gaussian(SplittableRandom r) {
+        // Box-Muller
+        double u1 = 1.0 - r.nextDouble();
+        double u2 = r.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
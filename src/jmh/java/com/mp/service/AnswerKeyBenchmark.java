@@ -0,0 +1,91 @@
+package com.mp.service;
+
+import com.mp.entity.Question;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading one answer sheet (every question answered, about half right):
+ *
+ *   entityScan  - the old submit loop: every Question, type check, equals
+ *   mapLookup   - per-question HashMap of correct answers (case-sensitive)
+ *   answerKey   - compiled {@link AnswerKey} (trimmed, case-insensitive)
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="AnswerKeyBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnswerKeyBenchmark {
+
+    @Param({"20", "100", "500"})
+    public int questions;
+
+    private List<Question> entities;
+    private Map<Long, String> correctById;
+    private AnswerKey key;
+    private Map<Long, String> sheet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        Random random = new Random(42);
+
+        entities = new ArrayList<>(questions);
+        correctById = new HashMap<>();
+        sheet = new HashMap<>();
+
+        for (int i = 0; i < questions; i++) {
+            Question q = new Question();
+            q.setId(1_000L + i);
+            q.setType(i % 10 == 9 ? "CODING" : "MCQ");
+            q.setContent("Question " + i);
+            q.setOptions(List.of("Alpha " + i, "Beta " + i, "Gamma " + i, "Delta " + i));
+            q.setCorrectAnswer("Gamma " + i);
+            entities.add(q);
+
+            if ("MCQ".equals(q.getType())) correctById.put(q.getId(), q.getCorrectAnswer());
+            sheet.put(q.getId(), random.nextBoolean() ? "Gamma " + i : "Beta " + i);
+        }
+
+        key = new QuestionPaper(1L, 1L, entities).answerKey();
+    }
+
+    @Benchmark
+    public int entityScan() {
+
+        int score = 0;
+        for (Question q : entities) {
+            if ("MCQ".equals(q.getType())) {
+                String given = sheet.get(q.getId());
+                if (given != null && q.getCorrectAnswer().equals(given)) score++;
+            }
+        }
+        return score;
+    }
+
+    @Benchmark
+    public int mapLookup() {
+
+        int score = 0;
+        for (Map.Entry<Long, String> e : sheet.entrySet()) {
+            String correct = correctById.get(e.getKey());
+            if (correct != null && correct.equals(e.getValue())) score++;
+        }
+        return score;
+    }
+
+    @Benchmark
+    public int answerKey() {
+        return key.score(sheet);
+    }
+}
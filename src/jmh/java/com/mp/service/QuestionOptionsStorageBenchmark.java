@@ -0,0 +1,189 @@
+package com.mp.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one quiz's questions with their options, 100 and 1,000 questions
+ * of 4 options each, in the two storage layouts:
+ *
+ *   eagerCollection  questions, then one options select per question
+ *                    (what @ElementCollection(fetch = EAGER) did for a list)
+ *   joinedCollection questions left join question_options, one query
+ *   jsonColumn       questions.options jsonb, one query, no join
+ *
+ * Row counts are printed at setup (1 + 4 rows per question vs 1).
+ * Needs a Postgres database; tables are created in schema bench_options:
+ *
+ *   BENCH_JDBC_URL=jdbc:postgresql://localhost/quiz BENCH_JDBC_USER=.. BENCH_JDBC_PASSWORD=.. \
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="QuestionOptionsStorageBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuestionOptionsStorageBenchmark {
+
+    private static final long QUIZ_ID = 1L;
+    private static final TypeReference<List<String>> STRINGS = new TypeReference<>() { };
+
+    @Param({"100", "1000"})
+    public int questions;
+
+    private Connection connection;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+
+        String url = System.getenv("BENCH_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("Set BENCH_JDBC_URL (and BENCH_JDBC_USER / BENCH_JDBC_PASSWORD)");
+        }
+        connection = DriverManager.getConnection(
+                url, System.getenv("BENCH_JDBC_USER"), System.getenv("BENCH_JDBC_PASSWORD")
+        );
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("drop schema if exists bench_options cascade");
+            st.execute("create schema bench_options");
+            st.execute("create table bench_options.questions (id bigint primary key, content varchar(5000),"
+                    + " type varchar(255), correct_answer varchar(255), quiz_id bigint, options jsonb)");
+            st.execute("create index on bench_options.questions (quiz_id)");
+            st.execute("create table bench_options.question_options (question_id bigint not null, options varchar(255))");
+            st.execute("create index on bench_options.question_options (question_id)");
+        }
+
+        try (PreparedStatement q = connection.prepareStatement(
+                "insert into bench_options.questions values (?, ?, 'MCQ', ?, ?, cast(? as jsonb))");
+             PreparedStatement o = connection.prepareStatement(
+                     "insert into bench_options.question_options values (?, ?)")) {
+
+            for (int i = 1; i <= questions; i++) {
+                List<String> options = List.of("Alpha " + i, "Beta " + i, "Gamma " + i, "Delta " + i);
+
+                q.setLong(1, i);
+                q.setString(2, "What is the answer to question " + i + "?");
+                q.setString(3, options.get(1));
+                q.setLong(4, QUIZ_ID);
+                q.setString(5, objectMapper.writeValueAsString(options));
+                q.addBatch();
+
+                for (String option : options) {
+                    o.setLong(1, i);
+                    o.setString(2, option);
+                    o.addBatch();
+                }
+            }
+            q.executeBatch();
+            o.executeBatch();
+
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("analyze bench_options.questions");
+            st.execute("analyze bench_options.question_options");
+        }
+
+        System.out.printf("%n%d questions: collection layout %d rows, json layout %d rows%n",
+                questions, questions + questions * 4L, (long) questions);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("drop schema if exists bench_options cascade");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void eagerCollection(Blackhole bh) throws SQLException {
+
+        List<Long> ids = new ArrayList<>(questions);
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "select id, content, correct_answer from bench_options.questions where quiz_id = ? order by id")) {
+            ps.setLong(1, QUIZ_ID);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                    bh.consume(rs.getString(2));
+                    bh.consume(rs.getString(3));
+                }
+            }
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "select options from bench_options.question_options where question_id = ?")) {
+            for (Long id : ids) {
+                ps.setLong(1, id);
+                List<String> options = new ArrayList<>(4);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) options.add(rs.getString(1));
+                }
+                bh.consume(options);
+            }
+        }
+    }
+
+    @Benchmark
+    public void joinedCollection(Blackhole bh) throws SQLException {
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "select q.id, q.content, q.correct_answer, o.options from bench_options.questions q"
+                        + " left join bench_options.question_options o on o.question_id = q.id"
+                        + " where q.quiz_id = ? order by q.id")) {
+            ps.setLong(1, QUIZ_ID);
+            try (ResultSet rs = ps.executeQuery()) {
+                long current = -1;
+                List<String> options = null;
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    if (id != current) {
+                        if (options != null) bh.consume(options);
+                        current = id;
+                        options = new ArrayList<>(4);
+                        bh.consume(rs.getString(2));
+                        bh.consume(rs.getString(3));
+                    }
+                    options.add(rs.getString(4));
+                }
+                if (options != null) bh.consume(options);
+            }
+        }
+    }
+
+    @Benchmark
+    public void jsonColumn(Blackhole bh) throws Exception {
+
+        try (PreparedStatement ps = connection.prepareStatement(
+                "select id, content, correct_answer, options from bench_options.questions where quiz_id = ? order by id")) {
+            ps.setLong(1, QUIZ_ID);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    bh.consume(rs.getLong(1));
+                    bh.consume(rs.getString(2));
+                    bh.consume(rs.getString(3));
+                    bh.consume(objectMapper.readValue(rs.getString(4), STRINGS));
+                }
+            }
+        }
+    }
+}
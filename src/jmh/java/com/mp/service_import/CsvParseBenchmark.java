@@ -0,0 +1,91 @@
+package com.mp.service_import;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Question CSV parsing on a 100k-row file held in memory:
+ * the old readLine + split(",") loop against the streaming RFC 4180 reader.
+ *
+ * "plain" rows have no quotes; "quoted" puts every tenth row in quotes with
+ * commas inside (the split loop mis-parses those, it only shows the cost).
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="CsvParseBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvParseBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"plain", "quoted"})
+    public String shape;
+
+    private byte[] file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        StringBuilder sb = new StringBuilder(ROWS * 80);
+        sb.append("question,option1,option2,option3,option4,correctAnswer\r\n");
+
+        for (int i = 0; i < ROWS; i++) {
+            if ("quoted".equals(shape) && i % 10 == 0) {
+                sb.append("\"Which of these, if any, is number ").append(i).append("?\",")
+                        .append("\"").append(i).append(", maybe\",B,C,D,")
+                        .append("\"").append(i).append(", maybe\"\r\n");
+            } else {
+                sb.append("What is the answer to question number ").append(i).append("?,")
+                        .append("Option A,Option B,Option C,Option D,Option B\r\n");
+            }
+        }
+        file = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void splitBased(Blackhole bh) throws IOException {
+
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(file), StandardCharsets.UTF_8)
+        );
+
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            if (++lineNo == 1 || line.isBlank()) continue;
+
+            String[] parts = line.split(",", -1);
+            if (parts.length < 6) continue;
+            for (int i = 0; i < 6; i++) bh.consume(parts[i].trim());
+        }
+    }
+
+    @Benchmark
+    public void rfc4180Reader(Blackhole bh) throws IOException {
+
+        CsvReader reader = new CsvReader(
+                new InputStreamReader(new ByteArrayInputStream(file), StandardCharsets.UTF_8)
+        );
+
+        boolean header = true;
+        while (reader.next()) {
+            if (header) {
+                header = false;
+                continue;
+            }
+            if (reader.isBlankRecord() || reader.fieldCount() < 6) continue;
+            for (int i = 0; i < 6; i++) bh.consume(reader.field(i));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.mp.service_pool;
+
+import com.mp.entity.Question;
+import com.mp.entity.Quiz;
+import com.mp.entity_pool.PoolLivePlayer;
+import com.mp.entity_pool.PoolLiveQuizSession;
+import com.mp.repository.QuestionRepository;
+import com.mp.repository.QuizRepository;
+import com.mp.repository_pool.PoolAnswerRepository;
+import com.mp.repository_pool.PoolPlayerRepository;
+import com.mp.repository_pool.PoolSessionRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Map-backed stand-ins for the repositories used by the pool game services.
+ * Only the derived queries the services actually call are implemented; any
+ * other repository method throws, so a new DB call in a hot path shows up
+ * immediately instead of silently benchmarking nothing.
+ */
+final class InMemoryPoolRepositories {
+
+    final Map<String, PoolLiveQuizSession> sessions = new ConcurrentHashMap<>();
+    final Map<String, Map<String, PoolLivePlayer>> players = new ConcurrentHashMap<>();
+    final Map<Long, Question> questions = new HashMap<>();
+    final Map<Long, List<Question>> questionsByQuiz = new HashMap<>();
+    final Map<Long, Quiz> quizzes = new HashMap<>();
+
+    // Answers are counted, not kept: the benchmark would otherwise grow the heap
+    final LongAdder answersSaved = new LongAdder();
+
+    final PoolSessionRepository sessionRepository = proxy(PoolSessionRepository.class, (p, m, a) ->
+            switch (m.getName()) {
+                case "findByGamePin" -> Optional.ofNullable(sessions.get((String) a[0]));
+                case "existsByGamePin" -> sessions.containsKey((String) a[0]);
+                case "findAll" -> new ArrayList<>(sessions.values());
+                case "save" -> {
+                    PoolLiveQuizSession s = (PoolLiveQuizSession) a[0];
+                    sessions.put(s.getGamePin(), s);
+                    yield s;
+                }
+                case "delete" -> {
+                    sessions.remove(((PoolLiveQuizSession) a[0]).getGamePin());
+                    yield null;
+                }
+                default -> objectMethod(p, m.getName(), a);
+            });
+
+    final PoolPlayerRepository playerRepository = proxy(PoolPlayerRepository.class, (p, m, a) ->
+            switch (m.getName()) {
+                case "findByGamePin" -> new ArrayList<>(roster((String) a[0]).values());
+                case "findByGamePinAndNickname" ->
+                        Optional.ofNullable(roster((String) a[0]).get((String) a[1]));
+                case "existsByGamePinAndNickname" -> roster((String) a[0]).containsKey((String) a[1]);
+                case "save" -> {
+                    PoolLivePlayer pl = (PoolLivePlayer) a[0];
+                    roster(pl.getGamePin()).put(pl.getNickname(), pl);
+                    yield pl;
+                }
+                case "saveAll" -> {
+                    List<PoolLivePlayer> saved = new ArrayList<>();
+                    for (Object o : (Iterable<?>) a[0]) {
+                        PoolLivePlayer pl = (PoolLivePlayer) o;
+                        roster(pl.getGamePin()).put(pl.getNickname(), pl);
+                        saved.add(pl);
+                    }
+                    yield saved;
+                }
+                case "deleteByGamePin" -> {
+                    players.remove((String) a[0]);
+                    yield null;
+                }
+                default -> objectMethod(p, m.getName(), a);
+            });
+
+    final PoolAnswerRepository answerRepository = proxy(PoolAnswerRepository.class, (p, m, a) ->
+            switch (m.getName()) {
+                case "save" -> {
+                    answersSaved.increment();
+                    yield a[0];
+                }
+                case "deleteByGamePin" -> null;
+                default -> objectMethod(p, m.getName(), a);
+            });
+
+    final QuestionRepository questionRepository = proxy(QuestionRepository.class, (p, m, a) ->
+            switch (m.getName()) {
+                case "findById" -> Optional.ofNullable(questions.get((Long) a[0]));
+                case "findByQuizId", "findPaperByQuizId" ->
+                        new ArrayList<>(questionsByQuiz.getOrDefault((Long) a[0], List.of()));
+                default -> objectMethod(p, m.getName(), a);
+            });
+
+    final QuizRepository quizRepository = proxy(QuizRepository.class, (p, m, a) ->
+            switch (m.getName()) {
+                case "findById", "findByIdWithCreator" -> Optional.ofNullable(quizzes.get((Long) a[0]));
+                default -> objectMethod(p, m.getName(), a);
+            });
+
+    private Map<String, PoolLivePlayer> roster(String gamePin) {
+        // insertion order, like the table scan the real query returns
+        return players.computeIfAbsent(gamePin, k -> Collections.synchronizedMap(new LinkedHashMap<>()));
+    }
+
+    void addQuestions(long quizId, int count) {
+
+        List<Question> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Question q = new Question();
+            q.setId(quizId * 10_000 + i);
+            q.setType("MCQ");
+            q.setContent("Question " + i + " of the benchmark quiz?");
+            q.setOptions(List.of("Alpha " + i, "Beta " + i, "Gamma " + i, "Delta " + i));
+            q.setCorrectAnswer("Gamma " + i);
+            questions.put(q.getId(), q);
+            list.add(q);
+        }
+        questionsByQuiz.put(quizId, list);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        return switch (name) {
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemory" + proxy.getClass().getInterfaces()[0].getSimpleName();
+            default -> throw new UnsupportedOperationException(name + " is not stubbed for benchmarks");
+        };
+    }
+}
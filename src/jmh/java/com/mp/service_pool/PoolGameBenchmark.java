@@ -0,0 +1,145 @@
+package com.mp.service_pool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mp.dto_pool.PoolScoreboardDTO;
+import com.mp.entity_pool.PoolGameStatus;
+import com.mp.entity_pool.PoolLivePlayer;
+import com.mp.entity_pool.PoolLiveQuizSession;
+import com.mp.service.QuestionPaperCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of a live pool game at 10 / 100 / 1,000 / 10,000 players,
+ * running against in-memory repository stand-ins (no DB, no broker).
+ *
+ *   mvn -Pjmh test-compile exec:exec -Djmh.args="PoolGameBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PoolGameBenchmark {
+
+    private static final String PIN = "424242";
+    private static final long QUIZ_ID = 1L;
+    private static final int QUESTIONS = 20;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int players;
+
+    private InMemoryPoolRepositories repos;
+    private PoolGameService gameService;
+    private PoolTimerService timerService;
+    private ObjectMapper objectMapper;
+
+    private List<PoolLivePlayer> roster;
+    private long questionId;
+    private String correctAnswer;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        repos = new InMemoryPoolRepositories();
+        repos.addQuestions(QUIZ_ID, QUESTIONS);
+
+        PoolMetrics metrics = new PoolMetrics(new SimpleMeterRegistry());
+
+        gameService = new PoolGameService(
+                repos.sessionRepository,
+                repos.playerRepository,
+                repos.answerRepository,
+                repos.quizRepository,
+                new QuestionPaperCache(repos.questionRepository, 100),
+                metrics,
+                new PoolTeamService(),
+                new PoolEventLeaderboard()
+        );
+
+        // Broker-less template; Jackson conversion is what the real broker pays
+        SimpMessagingTemplate template =
+                new SimpMessagingTemplate(new ExecutorSubscribableChannel());
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+
+        timerService = new PoolTimerService(
+                repos.sessionRepository,
+                gameService,
+                template,
+                metrics,
+                new PoolSpectatorService(
+                        repos.sessionRepository, repos.playerRepository, template, metrics, 1000, 10
+                ),
+                new PoolAnswerGate(5, 2),
+                null, // no game is ended during measurement
+                true,
+                300
+        );
+
+        objectMapper = new ObjectMapper();
+
+        PoolLiveQuizSession session = new PoolLiveQuizSession(PIN, QUIZ_ID);
+        session.setStatus(PoolGameStatus.LIVE);
+        session.setCurrentQuestionIndex(1);
+        // long window so no answer is ever "too late" during measurement
+        session.setQuestionDuration(1_000_000);
+        session.setQuestionStartedAt(LocalDateTime.now());
+        repos.sessionRepository.save(session);
+
+        for (int i = 0; i < players; i++) {
+            repos.playerRepository.save(new PoolLivePlayer(PIN, "player-" + i));
+        }
+
+        roster = repos.playerRepository.findByGamePin(PIN);
+        questionId = repos.questionsByQuiz.get(QUIZ_ID).get(0).getId();
+        correctAnswer = repos.questions.get(questionId).getCorrectAnswer();
+
+        // extra sessions so the PIN generator sees a populated table
+        for (int i = 0; i < players; i++) {
+            repos.sessions.put(String.valueOf(100000 + i * 7), new PoolLiveQuizSession());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        timerService.shutdown();
+    }
+
+    // grading + speed scoring + answered flag + all-answered scan
+    @Benchmark
+    public PoolGameService.AnswerOutcome submitAnswer() {
+
+        PoolLivePlayer player = roster.get(next++ % roster.size());
+        player.setAnswered(false);
+
+        return gameService.submitAnswer(PIN, player.getNickname(), questionId, correctAnswer);
+    }
+
+    // what every /scoreboard frame costs before it reaches the broker
+    @Benchmark
+    public byte[] scoreboardSerialization() throws Exception {
+        return objectMapper.writeValueAsBytes(
+                new PoolScoreboardDTO(gameService.getPlayers(PIN))
+        );
+    }
+
+    @Benchmark
+    public String generateGamePin() {
+        return gameService.generateGamePin();
+    }
+
+    // one timer broadcast: session lookup, remaining time, JSON conversion, send
+    @Benchmark
+    public void timerTick() {
+        timerService.tick(PIN);
+    }
+}
@@ -0,0 +1,92 @@
+package com.mp.config;
+
+import com.mp.entity.Question;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashes questions saved before content hashes existed, so they take part
+ * in the import duplicate check. Questions saved since then get their hash
+ * from the entity (or the import writer), so this only ever finds old rows.
+ *
+ * Runs at startup after {@link QuestionOptionsMigration} (the hash covers
+ * the options), in batches committed one by one; once every row has a hash
+ * it costs a single query.
+ */
+@Component
+@Order(2)
+public class QuestionHashBackfill implements CommandLineRunner {
+
+    private static final int BATCH = 2000;
+
+    // one row per option, grouped by question, options in order
+    private static final String UNHASHED_BATCH =
+            "select q.id, q.content, q.correct_answer, o.value from questions q "
+                    + "left join lateral jsonb_array_elements_text(q.options) with ordinality o(value, n) on true "
+                    + "where q.id in (select id from questions where content_hash is null order by id limit ?) "
+                    + "order by q.id, o.n";
+
+    private static final String SET_HASH =
+            "update questions set content_hash = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuestionHashBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+
+        int total = 0;
+        List<Object[]> updates;
+
+        do {
+            updates = nextBatch();
+            if (!updates.isEmpty()) jdbcTemplate.batchUpdate(SET_HASH, updates);
+            total += updates.size();
+        } while (!updates.isEmpty());
+
+        if (total > 0) {
+            System.out.println("Hashed " + total + " questions saved before content hashes");
+        }
+    }
+
+    private List<Object[]> nextBatch() {
+
+        List<Object[]> updates = new ArrayList<>();
+
+        class Current {
+            Long id;
+            String content;
+            String answer;
+            final List<String> options = new ArrayList<>(4);
+
+            void finish() {
+                if (id != null) updates.add(new Object[]{Question.contentHash(content, options, answer), id});
+                options.clear();
+            }
+        }
+        Current current = new Current();
+
+        jdbcTemplate.query(UNHASHED_BATCH, rs -> {
+            long id = rs.getLong(1);
+            if (current.id == null || current.id != id) {
+                current.finish();
+                current.id = id;
+                current.content = rs.getString(2);
+                current.answer = rs.getString(3);
+            }
+            String option = rs.getString(4);
+            if (option != null) current.options.add(option);
+        }, BATCH);
+
+        current.finish();
+        return updates;
+    }
+}
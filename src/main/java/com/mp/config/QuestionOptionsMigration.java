@@ -0,0 +1,69 @@
+package com.mp.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies options of questions saved before options moved onto the question
+ * row (questions.options, jsonb) out of the old question_options table.
+ *
+ * Runs at startup, in batches, each batch committed on its own, and only
+ * touches rows whose options column is still empty, so an interrupted run
+ * just continues next time and a finished one costs a single query.
+ * Once every question has been copied, question_options is dropped: nothing
+ * maps it any more, and its foreign key to questions would otherwise block
+ * deleting a migrated question (and, through the cascade, its quiz).
+ */
+@Component
+@Order(1)
+public class QuestionOptionsMigration implements CommandLineRunner {
+
+    private static final int BATCH = 2000;
+
+    private static final String LEGACY_TABLE_EXISTS =
+            "select to_regclass('question_options') is not null";
+
+    // ctid keeps the rows' physical (insertion) order, as the element collection read them
+    private static final String COPY_BATCH =
+            "update questions q set options = ("
+                    + "  select jsonb_agg(o.options order by o.ctid) from question_options o where o.question_id = q.id"
+                    + ") where q.id in ("
+                    + "  select q2.id from questions q2 where q2.options is null"
+                    + "  and exists (select 1 from question_options o2 where o2.question_id = q2.id)"
+                    + "  limit ?"
+                    + ")";
+
+    private static final String DROP_LEGACY_TABLE =
+            "drop table if exists question_options";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuestionOptionsMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+
+        Boolean legacy = jdbcTemplate.queryForObject(LEGACY_TABLE_EXISTS, Boolean.class);
+        if (!Boolean.TRUE.equals(legacy)) return;
+
+        int total = 0;
+        int updated;
+
+        do {
+            updated = jdbcTemplate.update(COPY_BATCH, BATCH);
+            total += updated;
+        } while (updated > 0);
+
+        if (total > 0) {
+            System.out.println("Moved options of " + total + " questions to questions.options");
+        }
+
+        // all copied (an interrupted run never gets here)
+        jdbcTemplate.execute(DROP_LEGACY_TABLE);
+        System.out.println("Dropped legacy table question_options");
+    }
+}
@@ -114,6 +114,10 @@ public class SecurityConfig {
             	    .requestMatchers("/api/proctor/**").authenticated()
 
             	    .requestMatchers("/h2-console/**").permitAll()
+
+            	    // 📈 Actuator: health public, metrics/live-game drill-down admin only
+            	    .requestMatchers("/actuator/health/**").permitAll()
+            	    .requestMatchers("/actuator/**").hasRole("ADMIN")
             	    
             	    
             	    
@@ -127,6 +131,9 @@ public class SecurityConfig {
             	 // Players (NO LOGIN)
             	 .requestMatchers(HttpMethod.POST, "/api/pool/join").permitAll()
             	 .requestMatchers(HttpMethod.GET, "/api/pool/players/**").permitAll()
+            	 .requestMatchers(HttpMethod.GET, "/api/pool/spectate/**").permitAll()
+            	 .requestMatchers(HttpMethod.GET, "/api/pool/teams/**").permitAll()
+            	 .requestMatchers(HttpMethod.GET, "/api/pool/events/*/leaderboard").permitAll()
 
             	 // 🔐 POOL HOST ONLY
             	 .requestMatchers("/api/pool/start/**").hasRole("POOL_USER")
@@ -0,0 +1,83 @@
+package com.mp.controller;
+
+import com.mp.dto.AttemptDTO;
+import com.mp.dto.QuizByCodeDTO;
+import com.mp.exception.AttemptRejectedException;
+import com.mp.service.QuizCodeCache;
+import com.mp.service_attempt.AttemptService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/attempts")
+public class AttemptController {
+
+	private final AttemptService attemptService;
+	private final QuizCodeCache quizCodeCache;
+
+	public AttemptController(AttemptService attemptService, QuizCodeCache quizCodeCache) {
+		this.attemptService = attemptService;
+		this.quizCodeCache = quizCodeCache;
+	}
+
+	// ============================================================
+	// 1. START ATTEMPT (Student) → server deadline
+	// ============================================================
+	@PostMapping("/start/{quizCode}")
+	public ResponseEntity<?> start(@PathVariable String quizCode, Principal principal) {
+		if (principal == null) {
+			return ResponseEntity.status(401).build();
+		}
+
+		try {
+			return ResponseEntity.ok(AttemptDTO.of(attemptService.start(quizCode, principal.getName())));
+		} catch (AttemptRejectedException e) {
+			return ResponseEntity.status(403).body(Map.of("reason", e.getReason(), "message", e.getMessage()));
+		}
+	}
+
+	// ============================================================
+	// 2. CURRENT ATTEMPT (timer resync after reload)
+	// ============================================================
+	@GetMapping("/current/{quizCode}")
+	public ResponseEntity<?> current(@PathVariable String quizCode, Principal principal) {
+		if (principal == null) {
+			return ResponseEntity.status(401).build();
+		}
+
+		QuizByCodeDTO quiz = quizCodeCache.get(quizCode).orElse(null);
+		if (quiz == null) {
+			return ResponseEntity.status(404).body(Map.of("message", "Quiz not found. Check the code."));
+		}
+
+		return ResponseEntity.ok(AttemptDTO.of(attemptService.current(quiz.id(), principal.getName())));
+	}
+
+	// ============================================================
+	// 3. AUTOSAVE (partial answers; buffered, flushed in batches)
+	// ============================================================
+	@PutMapping("/answers/{quizCode}")
+	public ResponseEntity<?> autosave(@PathVariable String quizCode, @RequestBody Map<Long, String> answers,
+			Principal principal) {
+		if (principal == null) {
+			return ResponseEntity.status(401).build();
+		}
+
+		QuizByCodeDTO quiz = quizCodeCache.get(quizCode).orElse(null);
+		if (quiz == null) {
+			return ResponseEntity.status(404).body(Map.of("message", "Quiz not found. Check the code."));
+		}
+
+		try {
+			int saved = attemptService.autosave(quiz, principal.getName(), answers);
+			return ResponseEntity.ok(Map.of("saved", saved, "serverTime", LocalDateTime.now()));
+		} catch (AttemptRejectedException e) {
+			return ResponseEntity.status(403).body(Map.of("reason", e.getReason(), "message", e.getMessage()));
+		}
+	}
+}
@@ -4,9 +4,13 @@ import com.mp.entity.Question;
 import com.mp.entity.Quiz;
 import com.mp.repository.QuestionRepository;
 import com.mp.repository.QuizRepository;
+import com.mp.service.QuestionPaper;
+import com.mp.service.QuestionPaperCache;
+import com.mp.service.QuizCodeCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -15,22 +19,33 @@ public class QuestionController {
 
     private final QuestionRepository questionRepository;
     private final QuizRepository quizRepository;
+    private final QuizCodeCache quizCodeCache;
+    private final QuestionPaperCache questionPaperCache;
 
-    public QuestionController(QuestionRepository questionRepository, QuizRepository quizRepository) {
+    public QuestionController(QuestionRepository questionRepository, QuizRepository quizRepository,
+            QuizCodeCache quizCodeCache, QuestionPaperCache questionPaperCache) {
         this.questionRepository = questionRepository;
         this.quizRepository = quizRepository;
+        this.quizCodeCache = quizCodeCache;
+        this.questionPaperCache = questionPaperCache;
     }
 
     // Get questions for a specific quiz
     @GetMapping("/quiz/{quizId}")
-    public ResponseEntity<List<Question>> getQuestionsByQuiz(@PathVariable Long quizId) {
+    public ResponseEntity<List<QuestionPaper.PaperQuestion>> getQuestionsByQuiz(@PathVariable Long quizId,
+            Principal principal) {
 
         // Ensure quiz exists
-        quizRepository.findById(quizId)
+        Quiz quiz = quizRepository.findByIdWithCreator(quizId)
             .orElseThrow(() -> new RuntimeException("Quiz not found"));
 
-        List<Question> questions = questionRepository.findByQuizId(quizId);
-        return ResponseEntity.ok(questions);
+        // Players get their own order; the creator edits the stored order
+        String email = principal == null ? null : principal.getName();
+        boolean creator = email != null && email.equals(quiz.getCreatedBy().getEmail());
+
+        return ResponseEntity.ok(
+                questionPaperCache.questionsFor(quizId, quiz.isShuffleQuestions() && !creator, email)
+        );
     }
 
 
@@ -44,7 +59,9 @@ public class QuestionController {
             // Update quiz question count
             quiz.setQuestionsCount(quiz.getQuestionsCount() + 1);
             quizRepository.save(quiz);
-            
+            quizCodeCache.evict(quiz.getCode());
+            questionPaperCache.evict(quizId);
+
             return ResponseEntity.ok(saved);
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -52,7 +69,12 @@ public class QuestionController {
     // Delete a question
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteQuestion(@PathVariable Long id) {
+        Long quizId = questionRepository.findById(id)
+                .map(q -> q.getQuiz() == null ? null : q.getQuiz().getId())
+                .orElse(null);
+
         questionRepository.deleteById(id);
+        questionPaperCache.evict(quizId);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -8,7 +8,12 @@ import com.mp.entity.User;
 import com.mp.repository.QuizRepository;
 import com.mp.repository.QuizResultRepository;
 import com.mp.repository.UserRepository;
+import com.mp.service.QuestionPaperCache;
+import com.mp.service.QuizCodeCache;
 import com.mp.service.QuizService;
+import com.mp.service_import.ImportJobService;
+import com.mp.dto.ImportJobDTO;
+import com.mp.dto.QuizByCodeDTO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,13 +31,20 @@ public class QuizController {
 	private final QuizRepository repository;
 	private final UserRepository userRepository;
 	private final QuizResultRepository resultRepository;
+	private final ImportJobService importJobService;
+	private final QuizCodeCache quizCodeCache;
+	private final QuestionPaperCache questionPaperCache;
 
 	public QuizController(QuizService service, QuizRepository repository, UserRepository userRepository,
-			QuizResultRepository resultRepository) {
+			QuizResultRepository resultRepository, ImportJobService importJobService, QuizCodeCache quizCodeCache,
+			QuestionPaperCache questionPaperCache) {
 		this.service = service;
 		this.repository = repository;
 		this.userRepository = userRepository;
 		this.resultRepository = resultRepository;
+		this.importJobService = importJobService;
+		this.quizCodeCache = quizCodeCache;
+		this.questionPaperCache = questionPaperCache;
 	}
 
 	@GetMapping
@@ -61,15 +73,15 @@ public class QuizController {
 			return ResponseEntity.status(401).body(Map.of("message", "Session expired. Please login again."));
 		}
 
-		Optional<Quiz> quizOpt = repository.findByCode(code);
+		Optional<QuizByCodeDTO> quizOpt = quizCodeCache.get(code);
 		if (quizOpt.isEmpty()) {
 			return ResponseEntity.status(404).body(Map.of("message", "Quiz not found. Check the code."));
 		}
 
-		Quiz quiz = quizOpt.get();
+		QuizByCodeDTO quiz = quizOpt.get();
 
 		// ❌ Block inactive quiz
-		if (!quiz.isActive()) {
+		if (!quiz.active()) {
 			return ResponseEntity.status(403)
 					.body(Map.of("reason", "DEACTIVATED", "message", "This quiz has been deactivated by the creator."));
 		}
@@ -80,12 +92,12 @@ public class QuizController {
 		}
 
 		// ❌ BLOCK CREATOR FROM PLAYING OWN QUIZ
-		if (quiz.getCreatedBy().getEmail().equals(student.getEmail())) {
+		if (quiz.createdBy().email().equals(student.getEmail())) {
 			return ResponseEntity.status(403)
 					.body(Map.of("reason", "CREATOR_CANNOT_PLAY", "message", "You cannot play a quiz you created."));
 		}
 
-		String quizCreatorType = String.valueOf(quiz.getCreatedBy().getUserType());
+		String quizCreatorType = String.valueOf(quiz.createdBy().userType());
 		String playerUserType = String.valueOf(student.getUserType());
 
 
@@ -118,7 +130,7 @@ public class QuizController {
 		// ================= STRICT ROLE BASED ACCESS CONTROL =================
 
 		// CASE 1: GENERAL QUIZ → ONLY GENERAL USERS
-		if (quiz.getCreatedBy().getInstitution() == null) {
+		if (quiz.createdBy().institutionId() == null) {
 
 		    if (!"GENERAL".equalsIgnoreCase(playerUserType)) {
 		        return ResponseEntity.status(403).body(
@@ -131,7 +143,7 @@ public class QuizController {
 		}
 
 		// CASE 2: INSTITUTE QUIZ → ONLY STUDENT OF SAME INSTITUTION
-		if (quiz.getCreatedBy().getInstitution() != null) {
+		if (quiz.createdBy().institutionId() != null) {
 
 		    // Must be STUDENT
 		    if (!"STUDENT".equalsIgnoreCase(playerUserType)) {
@@ -154,7 +166,7 @@ public class QuizController {
 		    }
 
 		    Long studentInstId = student.getInstitution().getId();
-		    Long quizInstId = quiz.getCreatedBy().getInstitution().getId();
+		    Long quizInstId = quiz.createdBy().institutionId();
 
 		    if (!studentInstId.equals(quizInstId)) {
 		        return ResponseEntity.status(403).body(
@@ -173,7 +185,7 @@ public class QuizController {
 
 		QuizResult existing =
 		    resultRepository.findByQuiz_IdAndUser_Email(
-		        quiz.getId(),
+		        quiz.id(),
 		        student.getEmail()
 		    ).orElse(null);
 
@@ -217,6 +229,8 @@ Quiz quiz = repository.findByIdWithCreator(id).orElseThrow(() -> new RuntimeExce
 		}
 
 		service.deleteQuiz(id);
+		quizCodeCache.evict(quiz.getCode());
+		questionPaperCache.evict(id);
 		return ResponseEntity.ok().build();
 	}
 
@@ -255,6 +269,7 @@ Quiz quiz = repository.findByIdWithCreator(id).orElseThrow(() -> new RuntimeExce
 		// Unbox Boolean to primitive boolean (Quiz.active is primitive)
 		quiz.setActive(active);
 		repository.save(quiz);
+		quizCodeCache.evict(quiz.getCode());
 
 		return ResponseEntity.ok(quiz);
 	}
@@ -270,13 +285,12 @@ Quiz quiz = repository.findByIdWithCreator(id).orElseThrow(() -> new RuntimeExce
 	 */
 	@GetMapping("/code/{code}/creator-type")
 	public ResponseEntity<?> getCreatorType(@PathVariable String code) {
-		Optional<Quiz> quizOpt = repository.findByCode(code);
+		Optional<QuizByCodeDTO> quizOpt = quizCodeCache.get(code);
 		if (quizOpt.isEmpty()) {
 			return ResponseEntity.status(404).body(Map.of("message", "Quiz not found"));
 		}
 
-		Quiz quiz = quizOpt.get();
-		User creator = quiz.getCreatedBy();
+		QuizByCodeDTO.Creator creator = quizOpt.get().createdBy();
 
 		// Safety: if no creator info, treat as GENERAL (you may change fallback to
 		// INSTITUTE)
@@ -285,32 +299,24 @@ Quiz quiz = repository.findByIdWithCreator(id).orElseThrow(() -> new RuntimeExce
 		}
 
 		// If the creator explicitly has GENERAL_USER role -> GENERAL
-		if (creator.getRoles() != null) {
-			boolean isGeneral = creator.getRoles().stream()
-					.anyMatch(r -> r != null && r.name().equalsIgnoreCase("GENERAL_USER"));
-			if (isGeneral) {
-				return ResponseEntity.ok(Map.of("creatorType", "GENERAL"));
-			}
+		if (creator.hasRole("GENERAL_USER")) {
+			return ResponseEntity.ok(Map.of("creatorType", "GENERAL"));
 		}
 
 		// If creator has an associated institution -> INSTITUTE (faculty-created)
-		if (creator.getInstitution() != null) {
+		if (creator.institutionId() != null) {
 			return ResponseEntity.ok(Map.of("creatorType", "INSTITUTE", "institutionId",
-					creator.getInstitution().getId(), "institutionName", creator.getInstitution().getInstituteName()));
+					creator.institutionId(), "institutionName", creator.institutionName()));
 		}
 
 		// Optionally use userType
-		if (creator.getUserType() != null && creator.getUserType().equalsIgnoreCase("GENERAL")) {
+		if (creator.userType() != null && creator.userType().equalsIgnoreCase("GENERAL")) {
 			return ResponseEntity.ok(Map.of("creatorType", "GENERAL"));
 		}
 
 		// If creator has TEACHER role, treat as institute
-		if (creator.getRoles() != null) {
-			boolean isTeacher = creator.getRoles().stream()
-					.anyMatch(r -> r != null && r.name().equalsIgnoreCase("TEACHER"));
-			if (isTeacher) {
-				return ResponseEntity.ok(Map.of("creatorType", "INSTITUTE"));
-			}
+		if (creator.hasRole("TEACHER")) {
+			return ResponseEntity.ok(Map.of("creatorType", "INSTITUTE"));
 		}
 
 		// Final fallback
@@ -371,6 +377,7 @@ return ResponseEntity.status(403)
 			quiz.setQuizMode((String) body.get("quizMode"));
 
 		repository.save(quiz);
+		quizCodeCache.evict(quiz.getCode());
 		return ResponseEntity.ok(Map.of("message", "Quiz updated successfully"));
 	}
 
@@ -433,12 +440,43 @@ return ResponseEntity.status(403)
 	    	);
 
 	    // 🧠 Optional import
+	    // 🧠 Optional import → runs in the background, poll the job
 	    if (file != null && !file.isEmpty()) {
-	        service.importQuestionsFromFile(quiz, file);
+	        ImportJobDTO job = importJobService.submit(quiz, file, principal.getName());
+	        return ResponseEntity.accepted().body(Map.of("quiz", quiz, "importJob", job));
 	    }
 
 	    return ResponseEntity.ok(quiz);
 	}
+
+
+	// 📥 Import into an existing quiz → job id (report when DONE)
+	@PostMapping(value = "/{id}/import", consumes = "multipart/form-data")
+	public ResponseEntity<?> importQuestions(
+	        @PathVariable Long id,
+	        @RequestPart MultipartFile file,
+	        Principal principal
+	) {
+	    Quiz quiz = repository.findByIdWithCreator(id)
+	            .orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+	    if (principal == null || !quiz.getCreatedBy().getEmail().equals(principal.getName())) {
+	        return ResponseEntity.status(403).body("Not authorized");
+	    }
+
+	    return ResponseEntity.accepted().body(importJobService.submit(quiz, file, principal.getName()));
+	}
+
+
+	// 📊 Import progress (or subscribe to /topic/import/{jobId})
+	@GetMapping("/imports/{jobId}")
+	public ResponseEntity<?> getImportJob(@PathVariable String jobId, Principal principal) {
+
+	    if (principal == null) {
+	        return ResponseEntity.status(401).body("Unauthorized");
+	    }
+	    return ResponseEntity.ok(importJobService.get(jobId, principal.getName()));
+	}
 	
 	
 	@GetMapping("/templates/{type}")
@@ -472,6 +510,14 @@ return ResponseEntity.status(403)
 	              + "4\n"
 	              + "ANSWER: 4\n";
 	    }
+	    else if ("json".equalsIgnoreCase(type)) {
+	        filename = "quiz-question-template.json";
+	        content =
+	                "[\n"
+	              + "  {\"question\": \"What is Java?\", \"options\": [\"Language\", \"OS\", \"Browser\", \"Database\"], \"answer\": \"Language\"},\n"
+	              + "  {\"question\": \"2 + 2 = ?\", \"options\": [\"1\", \"2\", \"3\", \"4\"], \"answer\": \"4\"}\n"
+	              + "]\n";
+	    }
 	    else {
 	        return ResponseEntity.badRequest().build();
 	    }
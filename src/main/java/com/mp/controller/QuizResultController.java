@@ -1,16 +1,22 @@
 package com.mp.controller;
 
 import com.mp.dto.ParticipantReportDTO;
+import com.mp.dto.QuizByCodeDTO;
 import com.mp.dto.ReviewQuestionDTO;
-import com.mp.entity.Question;
+import com.mp.dto.SubmissionReceiptDTO;
 import com.mp.entity.Quiz;
 import com.mp.entity.QuizResult;
-import com.mp.entity.User;
-import com.mp.repository.QuestionRepository;
+import com.mp.exception.AttemptRejectedException;
 import com.mp.repository.QuizRepository;
 import com.mp.repository.QuizResultRepository;
-import com.mp.repository.UserRepository;
 import com.mp.service.PdfReportService;
+import com.mp.service.QuestionPaper;
+import com.mp.service.QuestionPaperCache;
+import com.mp.service.QuizCodeCache;
+import com.mp.service.QuizStatsService;
+import com.mp.service.ResultExportService;
+import com.mp.service_attempt.AttemptService;
+import com.mp.service_attempt.SubmissionQueue;
 
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -18,14 +24,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.security.Principal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import org.springframework.transaction.annotation.Transactional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/results")
@@ -33,104 +39,74 @@ public class QuizResultController {
 
 	private final QuizResultRepository resultRepository;
 	private final QuizRepository quizRepository;
-	private final UserRepository userRepository;
-	private final QuestionRepository questionRepository;
 	private final PdfReportService pdfService;
+	private final QuizCodeCache quizCodeCache;
+	private final QuestionPaperCache questionPaperCache;
+	private final AttemptService attemptService;
+	private final SubmissionQueue submissionQueue;
+	private final QuizStatsService statsService;
+	private final ResultExportService exportService;
 
 	public QuizResultController(QuizResultRepository resultRepository, QuizRepository quizRepository,
-			UserRepository userRepository, QuestionRepository questionRepository, PdfReportService pdfService) {
+			PdfReportService pdfService,
+			QuizCodeCache quizCodeCache, QuestionPaperCache questionPaperCache, AttemptService attemptService,
+			SubmissionQueue submissionQueue, QuizStatsService statsService, ResultExportService exportService) {
 		this.resultRepository = resultRepository;
 		this.quizRepository = quizRepository;
-		this.userRepository = userRepository;
-		this.questionRepository = questionRepository;
 		this.pdfService = pdfService;
+		this.quizCodeCache = quizCodeCache;
+		this.questionPaperCache = questionPaperCache;
+		this.attemptService = attemptService;
+		this.submissionQueue = submissionQueue;
+		this.statsService = statsService;
+		this.exportService = exportService;
 	}
 
 	// ============================================================
 	// 1. SUBMIT QUIZ (Student)
+	// Graded by QuizSubmissionService; refused after the attempt's deadline.
+	// Queued mode: 202 + receipt, graded by SubmissionQueue workers
 	// ============================================================
-	@Transactional
 	@PostMapping("/submit/{quizCode}")
 	public ResponseEntity<?> submitQuiz(@PathVariable String quizCode, @RequestBody Map<Long, String> studentAnswers,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
 			Principal principal) {
 		if (principal == null) {
 			return ResponseEntity.status(401).build();
 		}
 
-		User student = userRepository.findByEmail(principal.getName()).orElse(null);
-		Quiz quiz = quizRepository.findByCode(quizCode).orElse(null);
+		QuizByCodeDTO quiz = quizCodeCache.get(quizCode).orElse(null);
 
-		if (student == null || quiz == null) {
+		if (quiz == null) {
 			return ResponseEntity.badRequest().body("Invalid request");
 		}
 
-		// ================= RETAKE LOGIC =================
-		QuizResult existing =
-		    resultRepository.findByQuiz_IdAndUser_Email(
-		        quiz.getId(),
-		        student.getEmail()
-		    ).orElse(null);
-
-		int attemptNumber = 1;
-
-		if (existing != null) {
+		try {
+			if (submissionQueue.isEnabled()) {
+				return ResponseEntity.status(202)
+						.body(submissionQueue.enqueue(quiz, principal.getName(), studentAnswers, idempotencyKey));
+			}
 
-		    if (!existing.isRetakeAllowed()) {
-		        return ResponseEntity.status(403).body(
-		            Map.of(
-		                "reason", "RETAKE_NOT_ALLOWED",
-		                "message", "Retake not allowed yet"
-		            )
-		        );
-		    }
+			QuizResult result = attemptService.submit(quiz, principal.getName(), studentAnswers);
 
-		    attemptNumber = existing.getAttemptNumber() + 1;
+			return ResponseEntity.ok(Map.of("message", "Quiz submitted successfully", "attempt",
+					result.getAttemptNumber(), "score", result.getScore()));
 
-		    // 🔥 hard delete all old attempts
-		    resultRepository.deleteByQuiz_IdAndUser_Email(
-		        quiz.getId(),
-		        student.getEmail()
-		    );
+		} catch (AttemptRejectedException e) {
+			return ResponseEntity.status(403).body(Map.of("reason", e.getReason(), "message", e.getMessage()));
 		}
+	}
 
-		/* =================================================
-		   ✅ ADD THIS BLOCK HERE (VERY IMPORTANT)
-		   ================================================= */
-		studentAnswers.entrySet().removeIf(
-		    e -> e.getValue() == null || e.getValue().isBlank()
-		);
-
-		/* ================= SCORE CALCULATION ================= */
-		List<Question> questions = questionRepository.findByQuizId(quiz.getId());
-
-		int score = 0;
-		for (Question q : questions) {
-		    if ("MCQ".equals(q.getType())) {
-		        String selected = studentAnswers.get(q.getId());
-		        if (selected != null && selected.equals(q.getCorrectAnswer())) {
-		            score++;
-		        }
-		    }
+	// ============================================================
+	// 1.1 SUBMISSION RECEIPT (queued mode: poll until DONE)
+	// ============================================================
+	@GetMapping("/submissions/{receiptId}")
+	public ResponseEntity<SubmissionReceiptDTO> getSubmission(@PathVariable Long receiptId, Principal principal) {
+		if (principal == null) {
+			return ResponseEntity.status(401).build();
 		}
 
-
-		QuizResult result = new QuizResult();
-		result.setUser(student);
-		result.setQuiz(quiz);
-		result.setScore(score);
-		result.setTotalQuestions(questions.size());
-		result.setAttemptDate(LocalDateTime.now());
-		result.setStatus(score >= (questions.size() / 2.0) ? "Pass" : "Fail");
-		result.setAnswers(studentAnswers);
-		result.setAttemptNumber(attemptNumber);
-		result.setRetakeAllowed(false);
-		result.setMaxAttempts(999);
-
-		resultRepository.save(result); // ✅ REQUIRED
-
-		return ResponseEntity
-				.ok(Map.of("message", "Quiz submitted successfully", "attempt", attemptNumber, "score", score));
-
+		return ResponseEntity.ok(submissionQueue.receipt(receiptId, principal.getName()));
 	}
 
 	// ============================================================
@@ -249,15 +225,42 @@ public class QuizResultController {
 		return ResponseEntity.ok(response);
 	}
 
+	// ============================================================
+	// 3.1.1 ANALYTICS SUMMARY (Teacher Dashboard)
+	// One quiz_stats row, kept current by the submit path
+	// ============================================================
+	@GetMapping("/analytics/{quizId}/summary")
+	public ResponseEntity<?> analyticsSummary(@PathVariable Long quizId, Principal principal) {
+		Quiz quiz = quizRepository.findByIdWithCreator(quizId).orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+		if (principal == null || !quiz.getCreatedBy().getEmail().equals(principal.getName())) {
+			return ResponseEntity.status(403).body("Not authorized");
+		}
+
+		return ResponseEntity.ok(statsService.summary(quizId));
+	}
+
+	// Recompute the summary from all results (after question edits)
+	@PostMapping("/analytics/{quizId}/summary/rebuild")
+	public ResponseEntity<?> rebuildAnalyticsSummary(@PathVariable Long quizId, Principal principal) {
+		Quiz quiz = quizRepository.findByIdWithCreator(quizId).orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+		if (principal == null || !quiz.getCreatedBy().getEmail().equals(principal.getName())) {
+			return ResponseEntity.status(403).body("Not authorized");
+		}
+
+		return ResponseEntity.ok(statsService.rebuild(quizId));
+	}
+
 //============================================================
 //3.2 DOWNLOAD ANALYTICS REPORT (CSV)
 //============================================================
 	@GetMapping("/analytics/{quizId}/download")
 	public void downloadReport(@PathVariable Long quizId, @RequestParam(required = false) String from,
-			@RequestParam(required = false) String to, HttpServletResponse response, Principal principal)
-			throws IOException {
+			@RequestParam(required = false) String to, @RequestParam(defaultValue = "false") boolean gzip,
+			HttpServletResponse response, Principal principal) throws IOException {
 
-		Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new RuntimeException("Quiz not found"));
+		Quiz quiz = quizRepository.findByIdWithCreator(quizId).orElseThrow(() -> new RuntimeException("Quiz not found"));
 
 		if (principal == null || !quiz.getCreatedBy().getEmail().equals(principal.getName())) {
 			response.sendError(HttpServletResponse.SC_FORBIDDEN);
@@ -274,27 +277,30 @@ public class QuizResultController {
 			toDate = LocalDate.parse(to).atTime(23, 59, 59);
 		}
 
-		List<QuizResult> results = (fromDate != null && toDate != null)
-				? resultRepository.findByQuizIdAndAttemptDateBetween(quizId, fromDate, toDate)
-				: resultRepository.findByQuizIdOrderByAttemptDateDesc(quizId);
-
-		response.setContentType("text/csv");
-		String safeTitle = quiz.getTitle().replaceAll("[^a-zA-Z0-9_-]", "_");
-
-		response.setHeader("Content-Disposition",
-				"attachment; filename=" + safeTitle + "_totalStudents(" + results.size() + ").csv");
-
-		PrintWriter writer = response.getWriter();
-		writer.println("Name,Email,Score,Total,Percentage,Status,Attempted On");
+		// both dates or none, as before
+		if (fromDate == null || toDate == null) {
+			fromDate = null;
+			toDate = null;
+		}
 
-		for (QuizResult r : results) {
-			int percentage = (int) Math.round((r.getScore() * 100.0) / r.getTotalQuestions());
+		long total = exportService.count(quizId, fromDate, toDate);
 
-			writer.printf("%s,%s,%d,%d,%d%%,%s,%s%n", r.getUser().getName(), r.getUser().getEmail(), r.getScore(),
-					r.getTotalQuestions(), percentage, r.getStatus(), r.getAttemptDate());
+		String safeTitle = quiz.getTitle().replaceAll("[^a-zA-Z0-9_-]", "_");
+		String filename = safeTitle + "_totalStudents(" + total + ").csv" + (gzip ? ".gz" : "");
+
+		response.setContentType(gzip ? "application/gzip" : "text/csv");
+		response.setHeader("Content-Disposition", "attachment; filename=" + filename);
+
+		// 📤 streamed from a DB cursor, never held in memory
+		OutputStream out = response.getOutputStream();
+		if (gzip) {
+			GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024);
+			exportService.writeCsv(quizId, fromDate, toDate, zip);
+			zip.finish();
+		} else {
+			exportService.writeCsv(quizId, fromDate, toDate, out);
 		}
-
-		writer.flush();
+		out.flush();
 	}
 
 	// ============================================================
@@ -428,16 +434,20 @@ public class QuizResultController {
 
 
 	    // ✅ MAP QUESTIONS SAFELY
-	    List<Question> questions =
-	        questionRepository.findByQuizId(result.getQuiz().getId());
+	    // same order the student was shown
+	    List<QuestionPaper.PaperQuestion> questions = questionPaperCache.questionsFor(
+	        result.getQuiz().getId(),
+	        result.getQuiz().isShuffleQuestions(),
+	        result.getUser().getEmail()
+	    );
 
 	    dto.questions = questions.stream().map(q -> {
 	        ReviewQuestionDTO rq = new ReviewQuestionDTO();
-	        rq.id = q.getId();
-	        rq.content = q.getContent();
-	        rq.type = q.getType();           // 🔥 THIS FIXES EVERYTHING
-	        rq.options = q.getOptions();
-	        rq.correctAnswer = q.getCorrectAnswer();
+	        rq.id = q.id();
+	        rq.content = q.content();
+	        rq.type = q.type();           // 🔥 THIS FIXES EVERYTHING
+	        rq.options = q.options();
+	        rq.correctAnswer = q.correctAnswer();
 
 	        return rq;
 	    }).collect(Collectors.toList());
@@ -11,7 +11,12 @@ import com.mp.entity_pool.PoolLiveQuizSession;
 import com.mp.repository.QuizRepository;
 import com.mp.repository.UserRepository;
 import com.mp.service.QuizService;
+import com.mp.service_import.ImportJobService;
+import com.mp.dto.ImportJobDTO;
+import com.mp.entity_pool.PoolGameArchive;
+import com.mp.service_pool.PoolArchiveService;
 import com.mp.service_pool.PoolGameService;
+import com.mp.service_pool.PoolSpectatorService;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,6 +35,9 @@ public class PoolController {
     private final QuizRepository quizRepository;
     private final QuizService quizService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ImportJobService importJobService;
+    private final PoolArchiveService archiveService;
+    private final PoolSpectatorService spectators;
 
 
     public PoolController(
@@ -37,13 +45,19 @@ public class PoolController {
             UserRepository userRepository,
             QuizRepository quizRepository,
             QuizService quizService,
-            SimpMessagingTemplate messagingTemplate
+            SimpMessagingTemplate messagingTemplate,
+            ImportJobService importJobService,
+            PoolArchiveService archiveService,
+            PoolSpectatorService spectators
     ) {
         this.poolGameService = poolGameService;
         this.userRepository = userRepository;
         this.quizRepository = quizRepository;
         this.quizService = quizService;
         this.messagingTemplate = messagingTemplate;
+        this.importJobService = importJobService;
+        this.archiveService = archiveService;
+        this.spectators = spectators;
     }
 
 
@@ -51,14 +65,32 @@ public class PoolController {
     // 1️⃣ Start Live Game (Host)
     // ===============================
     @PostMapping("/start/{quizId}")
-    public ResponseEntity<?> startGame(@PathVariable Long quizId) {
+    public ResponseEntity<?> startGame(
+            @PathVariable Long quizId,
+            @RequestParam(defaultValue = "false") boolean autoAdvance,
+            @RequestParam(required = false) Integer revealSeconds,
+            @RequestParam(required = false) Integer scoreboardSeconds,
+            @RequestParam(defaultValue = "false") boolean teamMode
+    ) {
+
+        PoolLiveQuizSession session = poolGameService.startGame(
+                quizId,
+                autoAdvance,
+                revealSeconds,
+                scoreboardSeconds,
+                teamMode
+        );
 
-        PoolLiveQuizSession session = poolGameService.startGame(quizId);
+        spectators.track(session.getGamePin());
 
         return ResponseEntity.ok(
                 Map.of(
                         "gamePin", session.getGamePin(),
-                        "status", session.getStatus()
+                        "status", session.getStatus(),
+                        "autoAdvance", session.isAutoAdvance(),
+                        "revealSeconds", session.getRevealSeconds(),
+                        "scoreboardSeconds", session.getScoreboardSeconds(),
+                        "teamMode", session.isTeamMode()
                 )
         );
     }
@@ -70,7 +102,13 @@ public class PoolController {
     public ResponseEntity<?> joinGame(@RequestBody PoolJoinGameRequest request) {
 
         PoolLivePlayer player =
-                poolGameService.joinGame(request.getGamePin(), request.getNickname());
+                poolGameService.joinGame(
+                        request.getGamePin(),
+                        request.getNickname(),
+                        request.getTeam()
+                );
+
+        spectators.playersChanged(request.getGamePin());
 
         // 🔥 Get updated players list
         List<PoolLivePlayer> players =
@@ -82,10 +120,18 @@ public class PoolController {
                 new PoolScoreboardDTO(players)
         );
 
+        if (player.getTeamName() != null) {
+            messagingTemplate.convertAndSend(
+                    "/topic/pool/" + request.getGamePin() + "/teams",
+                    poolGameService.getTeamStandings(request.getGamePin())
+            );
+        }
+
         return ResponseEntity.ok(
                 Map.of(
                         "nickname", player.getNickname(),
-                        "score", player.getScore()
+                        "score", player.getScore(),
+                        "team", player.getTeamName() == null ? "" : player.getTeamName()
                 )
         );
     }
@@ -102,6 +148,30 @@ public class PoolController {
         );
     }
 
+    // ===============================
+    // 👥 Team Leaderboard
+    // ===============================
+    @GetMapping("/teams/{gamePin}")
+    public ResponseEntity<?> getTeams(@PathVariable String gamePin) {
+
+        return ResponseEntity.ok(
+                poolGameService.getTeamStandings(gamePin)
+        );
+    }
+
+    // ===============================
+    // 📺 Spectator snapshot (then follow /topic/pool/{pin}/spectate)
+    // ===============================
+    @GetMapping("/spectate/{gamePin}")
+    public ResponseEntity<?> spectate(@PathVariable String gamePin) {
+
+        var frame = spectators.snapshot(gamePin);
+        if (frame == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(frame);
+    }
+
     // ===============================
     // 4️⃣ Get My Pool Quizzes
     // ===============================
@@ -141,12 +211,50 @@ public class PoolController {
              "POOL"
      );
 
+     // Import runs in the background (GET /api/quizzes/imports/{jobId})
      if (file != null && !file.isEmpty()) {
-         quizService.importQuestionsFromFile(quiz, file);
+         ImportJobDTO job = importJobService.submit(quiz, file, principal.getName());
+         return ResponseEntity.accepted().body(Map.of("quiz", quiz, "importJob", job));
      }
 
      return ResponseEntity.ok(quiz);
  }
 
 
+ // ===============================
+ // 6️⃣ Archived Games (host only)
+ // ===============================
+ @GetMapping("/archive/quiz/{quizId}")
+ public ResponseEntity<?> getArchives(@PathVariable Long quizId, Principal principal) {
+
+     if (!ownsQuiz(quizId, principal)) {
+         return ResponseEntity.status(403).body("Forbidden");
+     }
+
+     return ResponseEntity.ok(archiveService.getArchives(quizId));
+ }
+
+ @GetMapping("/archive/{archiveId}")
+ public ResponseEntity<?> getArchive(@PathVariable Long archiveId, Principal principal) {
+
+     PoolGameArchive archive = archiveService.getArchive(archiveId);
+
+     if (!ownsQuiz(archive.getQuizId(), principal)) {
+         return ResponseEntity.status(403).body("Forbidden");
+     }
+
+     return ResponseEntity.ok(archiveService.readArchive(archive));
+ }
+
+ private boolean ownsQuiz(Long quizId, Principal principal) {
+
+     if (principal == null) return false;
+
+     return quizRepository.findById(quizId)
+             .map(q -> q.getCreatedBy() != null
+                     && principal.getName().equals(q.getCreatedBy().getEmail()))
+             .orElse(false);
+ }
+
+
 }
@@ -0,0 +1,120 @@
+package com.mp.controller_pool;
+
+import com.mp.entity.Quiz;
+import com.mp.entity_pool.PoolEvent;
+import com.mp.entity_pool.PoolLiveQuizSession;
+import com.mp.repository.QuizRepository;
+import com.mp.service_pool.PoolEventService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pool/events")
+public class PoolEventController {
+
+    private final PoolEventService eventService;
+    private final QuizRepository quizRepository;
+
+    public PoolEventController(
+            PoolEventService eventService,
+            QuizRepository quizRepository
+    ) {
+        this.eventService = eventService;
+        this.quizRepository = quizRepository;
+    }
+
+
+    // ===============================
+    // 1️⃣ Create Event (Host) → one PIN per room
+    // ===============================
+    @PostMapping("/start/{quizId}")
+    public ResponseEntity<?> createEvent(
+            @PathVariable Long quizId,
+            @RequestParam int rooms,
+            @RequestParam(required = false) Integer revealSeconds,
+            @RequestParam(defaultValue = "false") boolean teamMode,
+            Principal principal
+    ) {
+
+        Quiz quiz = quizRepository.findByIdWithCreator(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+        if (principal == null || quiz.getCreatedBy() == null
+                || !principal.getName().equals(quiz.getCreatedBy().getEmail())) {
+            return ResponseEntity.status(403).body("Forbidden");
+        }
+
+        PoolEvent event = eventService.createEvent(
+                quizId,
+                rooms,
+                revealSeconds,
+                teamMode,
+                principal.getName()
+        );
+
+        return ResponseEntity.ok(
+                Map.of(
+                        "eventCode", event.getEventCode(),
+                        "rooms", pins(event.getEventCode())
+                )
+        );
+    }
+
+    // ===============================
+    // 2️⃣ Add Room (lobby only)
+    // ===============================
+    @PostMapping("/{eventCode}/rooms")
+    public ResponseEntity<?> addRoom(@PathVariable String eventCode, Principal principal) {
+
+        PoolLiveQuizSession room = eventService.addRoom(eventCode, principal.getName());
+
+        return ResponseEntity.ok(Map.of("gamePin", room.getGamePin()));
+    }
+
+    // ===============================
+    // 3️⃣ Rooms of an Event
+    // ===============================
+    @GetMapping("/{eventCode}/rooms")
+    public ResponseEntity<?> getRooms(@PathVariable String eventCode) {
+        return ResponseEntity.ok(pins(eventCode));
+    }
+
+    // ===============================
+    // 4️⃣ Next Question in Every Room
+    // ===============================
+    @PostMapping("/{eventCode}/next")
+    public ResponseEntity<?> next(@PathVariable String eventCode, Principal principal) {
+
+        long openAt = eventService.next(eventCode, principal.getName());
+
+        return ResponseEntity.ok(Map.of("openAt", openAt));
+    }
+
+    // ===============================
+    // 5️⃣ End Event
+    // ===============================
+    @PostMapping("/{eventCode}/end")
+    public ResponseEntity<?> end(@PathVariable String eventCode, Principal principal) {
+        return ResponseEntity.ok(eventService.end(eventCode, principal.getName()));
+    }
+
+    // ===============================
+    // 6️⃣ Global Leaderboard (public, then follow
+    //    /topic/pool/event/{code}/leaderboard)
+    // ===============================
+    @GetMapping("/{eventCode}/leaderboard")
+    public ResponseEntity<?> leaderboard(@PathVariable String eventCode) {
+        return ResponseEntity.ok(eventService.getLeaderboard(eventCode));
+    }
+
+    private List<String> pins(String eventCode) {
+        return eventService.getRooms(eventCode).stream()
+                .map(PoolLiveQuizSession::getGamePin)
+                .toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.mp.controller_pool;
+
+import com.mp.service_pool.PoolMetrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /actuator/poolgames        → every live game, worst answer latency first
+ * GET /actuator/poolgames/{pin}  → one game
+ */
+@Component
+@Endpoint(id = "poolgames")
+public class PoolGamesEndpoint {
+
+    // Spring Data repository timer (auto-configured by actuator)
+    private static final String REPOSITORY_TIMER = "spring.data.repository.invocations";
+
+    private final PoolMetrics metrics;
+
+    public PoolGamesEndpoint(PoolMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> games() {
+
+        List<Map<String, Object>> games = metrics.games().stream()
+                .map(PoolMetrics.GameStats::toMap)
+                .sorted(Comparator.comparingDouble(
+                        (Map<String, Object> g) -> ((Number) g.get("answerAckAvgMs")).doubleValue()
+                ).reversed())
+                .toList();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("activeGames", games.size());
+        response.put("games", games);
+        response.put("poolRepositoryDbTimeMs", poolRepositoryTime());
+        return response;
+    }
+
+    @ReadOperation
+    public Map<String, Object> game(@Selector String pin) {
+
+        PoolMetrics.GameStats game = metrics.game(pin);
+        if (game == null) {
+            return null; // → 404
+        }
+        return game.toMap();
+    }
+
+    // Total DB time spent in the pool repositories, per repository
+    private Map<String, Double> poolRepositoryTime() {
+
+        Map<String, Double> byRepository = new TreeMap<>();
+
+        for (Timer t : metrics.registry().find(REPOSITORY_TIMER).timers()) {
+            String repository = t.getId().getTag("repository");
+            if (repository != null && repository.startsWith("Pool")) {
+                byRepository.merge(repository, t.totalTime(TimeUnit.MILLISECONDS), Double::sum);
+            }
+        }
+        return byRepository;
+    }
+}
@@ -3,9 +3,13 @@ package com.mp.controller_pool;
 import com.mp.dto_pool.PoolPlayerAnswerDTO;
 import com.mp.dto_pool.PoolScoreboardDTO;
 import com.mp.entity_pool.PoolLivePlayer;
+import com.mp.service_pool.PoolAnswerGate;
 import com.mp.service_pool.PoolGameService;
+import com.mp.service_pool.PoolMetrics;
+import com.mp.service_pool.PoolSpectatorService;
 import com.mp.service_pool.PoolTimerService;
 
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -19,16 +23,25 @@ public class PoolWebSocketController {
     private final PoolGameService poolGameService;
     private final SimpMessagingTemplate messagingTemplate;
     private final PoolTimerService timerService;
+    private final PoolMetrics metrics;
+    private final PoolSpectatorService spectators;
+    private final PoolAnswerGate answerGate;
 
 
     public PoolWebSocketController(
             PoolGameService poolGameService,
             SimpMessagingTemplate messagingTemplate,
-            PoolTimerService timerService
+            PoolTimerService timerService,
+            PoolMetrics metrics,
+            PoolSpectatorService spectators,
+            PoolAnswerGate answerGate
     ) {
         this.poolGameService = poolGameService;
         this.messagingTemplate = messagingTemplate;
         this.timerService = timerService;
+        this.metrics = metrics;
+        this.spectators = spectators;
+        this.answerGate = answerGate;
     }
 
 
@@ -36,44 +49,71 @@ public class PoolWebSocketController {
     // 1️⃣ PLAYER SUBMITS ANSWER
     // =====================================================
     @MessageMapping("/pool/answer")
-    public void submitAnswer(@Payload PoolPlayerAnswerDTO dto) {
-
-        boolean allAnswered =
-                poolGameService.submitAnswer(
-                        dto.getGamePin(),
-                        dto.getNickname(),
-                        dto.getQuestionId(),
-                        dto.getSelectedAnswer()
-                );
-
-        // Always update scoreboard
-        List<PoolLivePlayer> players =
-                poolGameService.getPlayers(dto.getGamePin());
-
-        PoolScoreboardDTO scoreboard =
-                new PoolScoreboardDTO(players);
-
-        messagingTemplate.convertAndSend(
-                "/topic/pool/" + dto.getGamePin() + "/scoreboard",
-                scoreboard
+    public void submitAnswer(
+            @Payload PoolPlayerAnswerDTO dto,
+            @Header(name = "simpSessionId", required = false) String connectionId
+    ) {
+
+        // 🚦 Flood / duplicate guard: no service or DB work for these
+        PoolAnswerGate.Verdict verdict = answerGate.check(
+                connectionId,
+                dto.getGamePin(),
+                dto.getNickname(),
+                dto.getQuestionId()
         );
+        if (verdict != PoolAnswerGate.Verdict.PASS) {
+            metrics.answerDropped(dto.getGamePin(), verdict.name());
+            return;
+        }
 
-        // 🔥 If ALL answered → move to RESULT phase
-//        if (allAnswered) {
-//
-//            // 🛑 STOP TIMER
-//            timerService.stopTimer(dto.getGamePin());
-//
-//            // ✅ Get correct answer
-//            String correctAnswer =
-//                    poolGameService.getCorrectAnswer(dto.getQuestionId());
-//
-//            // 📢 Broadcast result to all players
-//            messagingTemplate.convertAndSend(
-//                    "/topic/pool/" + dto.getGamePin() + "/result",
-//                    correctAnswer
-//            );
-//        }
+        long received = metrics.answerReceived(dto.getGamePin());
+        boolean accepted = false;
+
+        try {
+            PoolGameService.AnswerOutcome outcome =
+                    poolGameService.submitAnswer(
+                            dto.getGamePin(),
+                            dto.getNickname(),
+                            dto.getQuestionId(),
+                            dto.getSelectedAnswer()
+                    );
+
+            accepted = outcome != PoolGameService.AnswerOutcome.REJECTED;
+
+            // Spectators get it on the next sample, not per answer
+            if (accepted) {
+                answerGate.answered(dto.getGamePin(), dto.getNickname(), dto.getQuestionId());
+                spectators.answerAccepted(dto.getGamePin(), dto.getQuestionId(), dto.getSelectedAnswer());
+            }
+
+            // Always update scoreboard
+            List<PoolLivePlayer> players =
+                    poolGameService.getPlayers(dto.getGamePin());
+
+            PoolScoreboardDTO scoreboard =
+                    new PoolScoreboardDTO(players);
+
+            metrics.broadcast(dto.getGamePin(), () -> messagingTemplate.convertAndSend(
+                    "/topic/pool/" + dto.getGamePin() + "/scoreboard",
+                    scoreboard
+            ));
+
+            // 👥 Team leaderboard alongside the individual one
+            if (accepted && poolGameService.isTeamGame(dto.getGamePin())) {
+                var teams = poolGameService.getTeamStandings(dto.getGamePin());
+                metrics.broadcast(dto.getGamePin(), () -> messagingTemplate.convertAndSend(
+                        "/topic/pool/" + dto.getGamePin() + "/teams",
+                        teams
+                ));
+            }
+
+            // 🔥 If ALL answered → close early (LIVE -> CLOSED -> RESULT)
+            if (outcome == PoolGameService.AnswerOutcome.ALL_ANSWERED) {
+                timerService.closeQuestion(dto.getGamePin());
+            }
+        } finally {
+            metrics.answerDone(dto.getGamePin(), received, accepted);
+        }
     }
 
 
@@ -87,32 +127,8 @@ public class PoolWebSocketController {
     @MessageMapping("/pool/next-question")
     public void nextQuestion(@Payload String gamePin) {
 
-        poolGameService.prepareNextQuestion(gamePin);
-
-        var question =
-                poolGameService.getNextQuestion(gamePin);
-
-        if (question == null) {
-
-            timerService.stopTimer(gamePin);
-
-            messagingTemplate.convertAndSend(
-                    "/topic/pool/" + gamePin + "/end",
-                    "END"
-            );
-
-            return;
-        }
-
-        messagingTemplate.convertAndSend(
-                "/topic/pool/" + gamePin + "/question",
-                question
-        );
-
-        timerService.startTimer(gamePin);
-
-        // 🔥 AFTER sending question → increment index
-        poolGameService.moveToNextIndex(gamePin);
+        // State machine + scheduler own the flow (also used by auto-advance)
+        timerService.advance(gamePin);
     }
 
 
@@ -126,34 +142,9 @@ public class PoolWebSocketController {
 //=====================================================
 @MessageMapping("/pool/end")
 public void endGame(@Payload String gamePin) {
-	
-	  // 🛑 STOP TIMER
-	  timerService.stopTimer(gamePin);
-
-  // 1️⃣ End game in DB
-	  poolGameService.endGame(gamePin);
-
-	// 🔥 DESTROY SESSION COMPLETELY
-	poolGameService.destroySession(gamePin);
-
-  // 2️⃣ Final scoreboard
-  List<PoolLivePlayer> players =
-          poolGameService.getPlayers(gamePin);
-
-  PoolScoreboardDTO scoreboard =
-          new PoolScoreboardDTO(players);
-
-  // 3️⃣ Broadcast FINAL scoreboard
-  messagingTemplate.convertAndSend(
-          "/topic/pool/" + gamePin + "/scoreboard",
-          scoreboard
-  );
-
-  // 4️⃣ Notify clients game ended
-  messagingTemplate.convertAndSend(
-          "/topic/pool/" + gamePin + "/end",
-          "END"
-  );
+
+	  // 🛑 Stop timers, archive, drop live rows, send final frames
+	  timerService.endGame(gamePin);
 }
 
 
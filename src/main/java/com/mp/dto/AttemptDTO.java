@@ -0,0 +1,41 @@
+package com.mp.dto;
+
+import com.mp.entity.QuizAttempt;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Attempt as the play page sees it. remainingSeconds is computed on the
+ * server, so the client timer does not depend on the device clock.
+ */
+public record AttemptDTO(
+        Long attemptId,
+        Long quizId,
+        String status,
+        LocalDateTime startedAt,
+        LocalDateTime deadline,
+        LocalDateTime serverTime,
+        Long remainingSeconds,
+        boolean autoSubmit
+) {
+
+    public static AttemptDTO of(QuizAttempt a) {
+
+        LocalDateTime now = LocalDateTime.now();
+        Long remaining = a.getDeadline() == null
+                ? null
+                : Math.max(0, Duration.between(now, a.getDeadline()).getSeconds());
+
+        return new AttemptDTO(
+                a.getId(),
+                a.getQuizId(),
+                a.getStatus(),
+                a.getStartedAt(),
+                a.getDeadline(),
+                now,
+                remaining,
+                a.isAutoSubmit()
+        );
+    }
+}
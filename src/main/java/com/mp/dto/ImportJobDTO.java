@@ -0,0 +1,31 @@
+package com.mp.dto;
+
+import java.time.LocalDateTime;
+
+public class ImportJobDTO {
+
+    public String jobId;
+    public Long quizId;
+    public String fileName;
+
+    // QUEUED | RUNNING | DONE | FAILED
+    public String status;
+
+    // Progress
+    public long totalBytes;
+    public long bytesRead;
+    public int percent;
+    public int imported;
+    public int rejected;
+    public int duplicates;
+    public double rowsPerSecond;
+
+    public LocalDateTime createdAt;
+    public LocalDateTime startedAt;
+    public LocalDateTime finishedAt;
+
+    public String error;
+
+    // Full report once the job is DONE
+    public ImportReportDTO report;
+}
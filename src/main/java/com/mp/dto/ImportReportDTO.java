@@ -0,0 +1,34 @@
+package com.mp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReportDTO {
+
+    public Long quizId;
+    public String fileName;
+
+    public int imported;
+    public int rejected;
+    // Valid rows the quiz already had (not written again)
+    public int duplicates;
+
+    // First rejected rows (capped so huge bad files stay small)
+    public List<RowError> errors = new ArrayList<>();
+    public boolean errorsTruncated;
+
+    public long durationMs;
+
+    public static class RowError {
+        public int line;
+        public String message;
+
+        public RowError() {
+        }
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.mp.entity.Quiz;
+import com.mp.entity.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of a quiz and its creator, as resolved from a quiz code.
+ * Serialises like the Quiz entity did on /api/quizzes/code/{code}; the
+ * creator's roles and institution are kept for the access checks only.
+ */
+public record QuizByCodeDTO(
+        Long id,
+        String title,
+        String description,
+        String code,
+        boolean active,
+        int questionsCount,
+        LocalDate createdDate,
+        Integer totalTimeMinutes,
+        Integer perQuestionTimeSeconds,
+        boolean autoSubmit,
+        boolean shuffleQuestions,
+        boolean proctoringEnabled,
+        String quizMode,
+        String creatorType,
+        Creator createdBy
+) {
+
+    public record Creator(
+            Long id,
+            String email,
+            String name,
+            String userType,
+            boolean active,
+            boolean emailVerified,
+            String phone,
+            String profileImageUrl,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            @JsonIgnore Set<String> roles,
+            @JsonIgnore Long institutionId,
+            @JsonIgnore String institutionName
+    ) {
+
+        public boolean hasRole(String role) {
+            return roles.stream().anyMatch(r -> r.equalsIgnoreCase(role));
+        }
+    }
+
+    // Creator (with roles and institution) must already be loaded
+    public static QuizByCodeDTO of(Quiz quiz) {
+
+        User u = quiz.getCreatedBy();
+        Creator creator = u == null ? null : new Creator(
+                u.getId(),
+                u.getEmail(),
+                u.getName(),
+                u.getUserType(),
+                u.isActive(),
+                u.isEmailVerified(),
+                u.getPhone(),
+                u.getProfileImageUrl(),
+                u.getCreatedAt(),
+                u.getUpdatedAt(),
+                u.getRoles() == null ? Set.of()
+                        : u.getRoles().stream().filter(r -> r != null).map(Enum::name).collect(Collectors.toUnmodifiableSet()),
+                u.getInstitution() == null ? null : u.getInstitution().getId(),
+                u.getInstitution() == null ? null : u.getInstitution().getInstituteName()
+        );
+
+        return new QuizByCodeDTO(
+                quiz.getId(),
+                quiz.getTitle(),
+                quiz.getDescription(),
+                quiz.getCode(),
+                quiz.isActive(),
+                quiz.getQuestionsCount(),
+                quiz.getCreatedDate(),
+                quiz.getTotalTimeMinutes(),
+                quiz.getPerQuestionTimeSeconds(),
+                quiz.isAutoSubmit(),
+                quiz.isShuffleQuestions(),
+                quiz.isProctoringEnabled(),
+                quiz.getQuizMode(),
+                quiz.getCreatorType(),
+                creator
+        );
+    }
+}
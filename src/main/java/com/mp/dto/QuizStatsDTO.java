@@ -0,0 +1,28 @@
+package com.mp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dashboard summary of a quiz, read from its quiz_stats row.
+ */
+public record QuizStatsDTO(
+        Long quizId,
+        long attempts,
+        long passes,
+        double passRate,
+        double averageScore,
+        double averagePercentage,
+        List<Bucket> histogram,
+        List<QuestionStat> questions,
+        LocalDateTime updatedAt,
+        LocalDateTime rebuiltAt
+) {
+
+    // percentage range, e.g. "40-49"
+    public record Bucket(String range, long count) {
+    }
+
+    public record QuestionStat(Long questionId, long answered, long correct, double correctRate) {
+    }
+}
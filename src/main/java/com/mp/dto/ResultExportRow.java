@@ -0,0 +1,17 @@
+package com.mp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the results CSV, selected straight from the query
+ * (no QuizResult / User entities are loaded).
+ */
+public record ResultExportRow(
+        String name,
+        String email,
+        int score,
+        int totalQuestions,
+        String status,
+        LocalDateTime attemptDate
+) {
+}
@@ -0,0 +1,36 @@
+package com.mp.dto;
+
+import com.mp.entity.QuizSubmission;
+
+import java.time.LocalDateTime;
+
+/**
+ * Receipt of a queued submit. status QUEUED / PROCESSING until graded, then
+ * DONE (score filled) or REJECTED / FAILED (reason, message).
+ */
+public record SubmissionReceiptDTO(
+        Long receiptId,
+        String status,
+        LocalDateTime receivedAt,
+        LocalDateTime processedAt,
+        Integer score,
+        Integer totalQuestions,
+        Integer attempt,
+        String reason,
+        String message
+) {
+
+    public static SubmissionReceiptDTO of(QuizSubmission s) {
+        return new SubmissionReceiptDTO(
+                s.getId(),
+                s.getStatus(),
+                s.getReceivedAt(),
+                s.getProcessedAt(),
+                s.getScore(),
+                s.getTotalQuestions(),
+                s.getAttemptNumber(),
+                s.getReason(),
+                s.getMessage()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.mp.dto_pool;
+
+import java.util.List;
+
+// Decoded post-game archive file
+public record PoolArchivedGameDTO(
+        String gamePin,
+        Long quizId,
+        List<Player> players,
+        List<Long> questionIds,
+        List<Answer> answers
+) {
+
+    public record Player(
+            String nickname,
+            int score,
+            int rank
+    ) {}
+
+    public record Answer(
+            String nickname,
+            Long questionId,
+            int questionNumber,
+            String selectedAnswer,
+            boolean correct,
+            long submittedAt,     // epoch millis
+            long responseTime,    // seconds
+            int awardedPoints
+    ) {}
+}
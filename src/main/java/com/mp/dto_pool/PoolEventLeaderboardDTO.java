@@ -0,0 +1,18 @@
+package com.mp.dto_pool;
+
+import java.util.List;
+
+/**
+ * Global leaderboard of a multi-room event
+ * (/topic/pool/event/{code}/leaderboard).
+ */
+public record PoolEventLeaderboardDTO(
+        String eventCode,
+        int rooms,
+        int players,
+        List<Entry> top
+) {
+
+    public record Entry(int rank, String nickname, String gamePin, int score) {
+    }
+}
@@ -5,6 +5,9 @@ public class PoolJoinGameRequest {
     private String gamePin;
     private String nickname;
 
+    // Required when the game runs in team mode
+    private String team;
+
     public PoolJoinGameRequest() {
         // default constructor required by Spring
     }
@@ -24,4 +27,12 @@ public class PoolJoinGameRequest {
     public void setNickname(String nickname) {
         this.nickname = nickname;
     }
+
+    public String getTeam() {
+        return team;
+    }
+
+    public void setTeam(String team) {
+        this.team = team;
+    }
 }
@@ -0,0 +1,37 @@
+package com.mp.dto_pool;
+
+public class PoolQuestionGoDTO {
+
+    // Question that was pre-pushed on /prefetch during the reveal phase
+    private Long questionId;
+    private int questionNumber;
+
+    // Server epoch millis at which clients reveal the question
+    private long openAt;
+
+    // Server epoch millis when this frame was sent (client clock offset)
+    private long serverTime;
+
+    // Answer window (seconds), counted from openAt
+    private int duration;
+
+    public PoolQuestionGoDTO(
+            Long questionId,
+            int questionNumber,
+            long openAt,
+            long serverTime,
+            int duration
+    ) {
+        this.questionId = questionId;
+        this.questionNumber = questionNumber;
+        this.openAt = openAt;
+        this.serverTime = serverTime;
+        this.duration = duration;
+    }
+
+    public Long getQuestionId() { return questionId; }
+    public int getQuestionNumber() { return questionNumber; }
+    public long getOpenAt() { return openAt; }
+    public long getServerTime() { return serverTime; }
+    public int getDuration() { return duration; }
+}
@@ -0,0 +1,33 @@
+package com.mp.dto_pool;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sampled game state for projectors / spectators (/topic/pool/{pin}/spectate).
+ * Sent at a fixed low rate, never per answer.
+ */
+public record PoolSpectatorFrameDTO(
+        String gamePin,
+        long seq,
+        String status,
+        Long questionId,
+        int questionNumber,
+
+        // Server epoch millis when the open question closes (0 if none)
+        long deadline,
+
+        // Server epoch millis when this frame was built (client clock offset)
+        long serverTime,
+
+        int playerCount,
+        int answeredCount,
+        List<Leader> leaders,
+
+        // selectedAnswer -> count, for the current question
+        Map<String, Long> histogram
+) {
+
+    public record Leader(int rank, String nickname, int score) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.mp.dto_pool;
+
+import java.util.List;
+
+/**
+ * Team leaderboard, published on /topic/pool/{pin}/teams in team mode.
+ */
+public record PoolTeamScoreboardDTO(List<Team> teams) {
+
+    public record Team(
+            int rank,
+            String name,
+            int members,
+            long totalScore,
+            double averageScore,
+            long correctAnswers
+    ) {
+    }
+}
@@ -4,10 +4,22 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "questions")
+@Table(
+        name = "questions",
+        indexes = @Index(name = "idx_questions_quiz_hash", columnList = "quiz_id, content_hash")
+)
 @Data
 @NoArgsConstructor
 public class Question {
@@ -21,7 +33,11 @@ public class Question {
     private String type; // "MCQ" or "CODING"
 
     // --- MCQ FIELDS ---
-    @ElementCollection(fetch = FetchType.EAGER)
+    // One jsonb array on the question row, read with it (no join, no extra
+    // select per question). Older rows are copied over from the former
+    // question_options table by QuestionOptionsMigration.
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "options")
     private List<String> options;
 
     
@@ -38,4 +54,44 @@ public class Question {
     @JoinColumn(name = "quiz_id")
     @JsonIgnore // Prevent infinite recursion when fetching quiz answers
     private Quiz quiz;
+
+    // Duplicate detection on import (see contentHash below)
+    @Column(name = "content_hash", length = 64)
+    @JsonIgnore
+    private String contentHash;
+
+    @PrePersist
+    @PreUpdate
+    void updateContentHash() {
+        contentHash = contentHash(content, options, correctAnswer);
+    }
+
+    /**
+     * SHA-256 (hex) of the normalised question: trimmed, whitespace collapsed,
+     * lower-cased; options sorted, so a re-ordered copy is still a duplicate.
+     * Bulk imports compute the same value outside JPA.
+     */
+    public static String contentHash(String content, List<String> options, String correctAnswer) {
+
+        List<String> sortedOptions = new ArrayList<>();
+        if (options != null) {
+            for (String option : options) sortedOptions.add(normalise(option));
+        }
+        sortedOptions.sort(null);
+
+        StringBuilder sb = new StringBuilder(normalise(content));
+        for (String option : sortedOptions) sb.append('\u001F').append(option);
+        sb.append('\u001E').append(normalise(correctAnswer));
+
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalise(String s) {
+        return s == null ? "" : s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.mp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One timed sitting of a quiz by a student, from "start" until it is
+ * submitted (by the student or automatically) or runs out.
+ */
+@Entity
+@Table(
+        name = "quiz_attempts",
+        indexes = {
+                @Index(name = "idx_quiz_attempt_user", columnList = "quizId, userEmail"),
+                @Index(name = "idx_quiz_attempt_status", columnList = "status")
+        }
+)
+@Data
+@NoArgsConstructor
+public class QuizAttempt {
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String SUBMITTING = "SUBMITTING";
+    public static final String SUBMITTED = "SUBMITTED";
+    public static final String EXPIRED = "EXPIRED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long quizId;
+
+    @Column(nullable = false, length = 150)
+    private String userEmail;
+
+    // IN_PROGRESS | SUBMITTING (queued) | SUBMITTED | EXPIRED
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    private LocalDateTime startedAt;
+
+    // Server deadline; null when the quiz has no time limit
+    private LocalDateTime deadline;
+
+    // Copied from the quiz at start
+    private boolean autoSubmit;
+
+    // Answers held for this attempt (QuestionID -> SelectedOption), graded on auto-submit
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<Long, String> answers = new HashMap<>();
+
+    private LocalDateTime finishedAt;
+
+    private Long resultId;
+}
@@ -0,0 +1,53 @@
+package com.mp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals of a quiz's results, one row per quiz, kept up to date by
+ * the submit path (see QuizStatsService). Counts only the current result of
+ * each student, like quiz_results itself.
+ */
+@Entity
+@Table(name = "quiz_stats")
+@Data
+@NoArgsConstructor
+public class QuizStats {
+
+    // 0-9%, 10-19%, ... 90-100%
+    public static final int BUCKETS = 10;
+
+    @Id
+    private Long quizId;
+
+    private long attempts;
+    private long passes;
+    private long scoreSum;
+
+    // sum of rounded percentages (average percentage = percentSum / attempts)
+    private long percentSum;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private long[] histogram = new long[BUCKETS];
+
+    // questionId -> results that answered it / answered it correctly
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<Long, Long> questionAnswered = new HashMap<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<Long, Long> questionCorrect = new HashMap<>();
+
+    private LocalDateTime updatedAt;
+    private LocalDateTime rebuiltAt;
+
+    public QuizStats(Long quizId) {
+        this.quizId = quizId;
+    }
+}
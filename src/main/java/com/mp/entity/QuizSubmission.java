@@ -0,0 +1,73 @@
+package com.mp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A submitted answer sheet waiting to be graded (queued submit path).
+ * The row is the receipt the student polls; idempotencyKey makes a repeated
+ * submit of the same attempt return the same receipt.
+ */
+@Entity
+@Table(
+        name = "quiz_submissions",
+        indexes = @Index(name = "idx_quiz_submission_status", columnList = "status, id")
+)
+@Data
+@NoArgsConstructor
+public class QuizSubmission {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String DONE = "DONE";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 200)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Long quizId;
+
+    @Column(nullable = false, length = 150)
+    private String userEmail;
+
+    // null for submits without a started attempt
+    private Long attemptId;
+
+    // QuestionID -> SelectedOption, final (draft already merged)
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<Long, String> answers = new HashMap<>();
+
+    // QUEUED | PROCESSING | DONE | REJECTED | FAILED
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    private int tries;
+
+    private LocalDateTime receivedAt;
+    private LocalDateTime claimedAt;
+    private LocalDateTime processedAt;
+
+    private Long resultId;
+    private Integer score;
+    private Integer totalQuestions;
+    private Integer attemptNumber;
+
+    @Column(length = 40)
+    private String reason;
+
+    @Column(length = 500)
+    private String message;
+}
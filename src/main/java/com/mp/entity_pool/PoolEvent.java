@@ -0,0 +1,91 @@
+package com.mp.entity_pool;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One host quiz running in many rooms (game PINs) in lockstep.
+ * Rooms are PoolLiveQuizSession rows carrying this eventCode.
+ */
+@Entity
+@Table(name = "pool_event")
+public class PoolEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 16)
+    private String eventCode;
+
+    @Column(nullable = false)
+    private Long quizId;
+
+    // Host who created the event (only they can drive it)
+    @Column(nullable = false)
+    private String hostEmail;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    // ---------------- CONSTRUCTORS ----------------
+
+    public PoolEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public PoolEvent(String eventCode, Long quizId, String hostEmail) {
+        this();
+        this.eventCode = eventCode;
+        this.quizId = quizId;
+        this.hostEmail = hostEmail;
+    }
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventCode() {
+        return eventCode;
+    }
+
+    public void setEventCode(String eventCode) {
+        this.eventCode = eventCode;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public String getHostEmail() {
+        return hostEmail;
+    }
+
+    public void setHostEmail(String hostEmail) {
+        this.hostEmail = hostEmail;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+}
@@ -0,0 +1,174 @@
+package com.mp.entity_pool;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One row per finished live game. Per-player / per-answer detail lives in a
+ * compressed columnar file (see PoolArchiveCodec) so the live tables can be
+ * emptied as soon as the game ends.
+ */
+@Entity
+@Table(
+        name = "pool_game_archive",
+        indexes = @Index(name = "idx_pool_archive_quiz", columnList = "quizId")
+)
+public class PoolGameArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String gamePin;
+
+    @Column(nullable = false)
+    private Long quizId;
+
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime finishedAt;
+
+    @Column(nullable = false)
+    private int playerCount;
+
+    @Column(nullable = false)
+    private int questionCount;
+
+    @Column(nullable = false)
+    private int answerCount;
+
+    @Column(nullable = false)
+    private int correctCount;
+
+    private String winnerNickname;
+
+    @Column(nullable = false)
+    private int winnerScore;
+
+    @Column(nullable = false)
+    private double averageScore;
+
+    // Columnar per-game file, relative to pool.archive.dir
+    @Column(nullable = false, length = 500)
+    private String filePath;
+
+    @Column(nullable = false)
+    private long fileSize;
+
+    // ---------------- CONSTRUCTORS ----------------
+
+    public PoolGameArchive() {
+    }
+
+    // ---------------- GETTERS & SETTERS ----------------
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getGamePin() {
+        return gamePin;
+    }
+
+    public void setGamePin(String gamePin) {
+        this.gamePin = gamePin;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public void setPlayerCount(int playerCount) {
+        this.playerCount = playerCount;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(int questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public int getAnswerCount() {
+        return answerCount;
+    }
+
+    public void setAnswerCount(int answerCount) {
+        this.answerCount = answerCount;
+    }
+
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    public void setCorrectCount(int correctCount) {
+        this.correctCount = correctCount;
+    }
+
+    public String getWinnerNickname() {
+        return winnerNickname;
+    }
+
+    public void setWinnerNickname(String winnerNickname) {
+        this.winnerNickname = winnerNickname;
+    }
+
+    public int getWinnerScore() {
+        return winnerScore;
+    }
+
+    public void setWinnerScore(int winnerScore) {
+        this.winnerScore = winnerScore;
+    }
+
+    public double getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(double averageScore) {
+        this.averageScore = averageScore;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+}
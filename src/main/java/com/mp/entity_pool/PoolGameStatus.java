@@ -0,0 +1,40 @@
+package com.mp.entity_pool;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Live game state machine.
+ *
+ * WAITING -> LIVE -> CLOSED -> RESULT -> SCOREBOARD -> LIVE ... -> FINISHED
+ *
+ * LIVE      question open, answers accepted
+ * CLOSED    deadline reached or everybody answered
+ * RESULT    correct answer revealed
+ * SCOREBOARD scoreboard shown, waiting for next question
+ * FINISHED  terminal (reachable from every state)
+ */
+public enum PoolGameStatus {
+    WAITING,
+    LIVE,
+    CLOSED,
+    RESULT,
+    SCOREBOARD,
+    FINISHED;
+
+    public boolean canTransitionTo(PoolGameStatus next) {
+        return next == FINISHED || allowedNext().contains(next);
+    }
+
+    private Set<PoolGameStatus> allowedNext() {
+        return switch (this) {
+            case WAITING -> EnumSet.of(LIVE);
+            case LIVE -> EnumSet.of(CLOSED);
+            case CLOSED -> EnumSet.of(RESULT);
+            // host may skip the scoreboard and go straight to the next question
+            case RESULT -> EnumSet.of(SCOREBOARD, LIVE);
+            case SCOREBOARD -> EnumSet.of(LIVE);
+            case FINISHED -> EnumSet.noneOf(PoolGameStatus.class);
+        };
+    }
+}
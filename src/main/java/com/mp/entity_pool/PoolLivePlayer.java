@@ -26,6 +26,10 @@ public class PoolLivePlayer {
     @Column(nullable = false)
     private boolean answered;
 
+    // Team name in team mode (null in solo games)
+    @Column(length = 30)
+    private String teamName;
+
     // ---------------- CONSTRUCTORS ----------------
 
     public PoolLivePlayer() {
@@ -76,4 +80,12 @@ public class PoolLivePlayer {
     public void setAnswered(boolean answered) {
         this.answered = answered;
     }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
 }
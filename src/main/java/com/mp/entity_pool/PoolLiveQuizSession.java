@@ -1,6 +1,8 @@
 package com.mp.entity_pool;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 @Entity
@@ -19,9 +21,10 @@ public class PoolLiveQuizSession {
     @Column(nullable = false)
     private Long quizId;
 
-    // WAITING, LIVE, ENDED
+    // WAITING, LIVE, CLOSED, RESULT, SCOREBOARD, FINISHED
+    @Enumerated(EnumType.STRING)
     @Column(nullable = false)
-    private String status;
+    private PoolGameStatus status;
 
     // Which question is currently live
     @Column(nullable = false)
@@ -44,15 +47,43 @@ public class PoolLiveQuizSession {
     @Column(nullable = true)
     private LocalDateTime expiresAt;
 
+    // Server drives reveal -> scoreboard -> next question on its own
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean autoAdvance;
+
+    // Seconds the correct answer is shown before the scoreboard
+    @ColumnDefault("3")
+    @Column(nullable = false)
+    private int revealSeconds;
+
+    // Seconds the scoreboard is shown before auto-advancing
+    @ColumnDefault("5")
+    @Column(nullable = false)
+    private int scoreboardSeconds;
+
+    // Players join a team; team totals are published next to the scoreboard
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean teamMode;
+
+    // Set when this session is one room of a multi-room event
+    @Column(length = 16)
+    private String eventCode;
+
 
     // ---------------- CONSTRUCTORS ----------------
 
     public PoolLiveQuizSession() {
         this.createdAt = LocalDateTime.now();
         this.expiresAt = this.createdAt.plusMinutes(30); // ⏳ 30 min expiry
-        this.status = "WAITING";
+        this.status = PoolGameStatus.WAITING;
         this.currentQuestionIndex = 0;
         this.questionDuration = 15;
+        this.autoAdvance = false;
+        this.revealSeconds = 3;
+        this.scoreboardSeconds = 5;
+        this.teamMode = false;
     }
 
 
@@ -84,11 +115,11 @@ public class PoolLiveQuizSession {
         this.quizId = quizId;
     }
 
-    public String getStatus() {
+    public PoolGameStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(PoolGameStatus status) {
         this.status = status;
     }
 
@@ -128,6 +159,44 @@ public class PoolLiveQuizSession {
         this.expiresAt = expiresAt;
     }
 
+    public boolean isAutoAdvance() {
+        return autoAdvance;
+    }
+
+    public void setAutoAdvance(boolean autoAdvance) {
+        this.autoAdvance = autoAdvance;
+    }
+
+    public int getRevealSeconds() {
+        return revealSeconds;
+    }
+
+    public void setRevealSeconds(int revealSeconds) {
+        this.revealSeconds = revealSeconds;
+    }
+
+    public int getScoreboardSeconds() {
+        return scoreboardSeconds;
+    }
+
+    public void setScoreboardSeconds(int scoreboardSeconds) {
+        this.scoreboardSeconds = scoreboardSeconds;
+    }
 
+    public boolean isTeamMode() {
+        return teamMode;
+    }
+
+    public void setTeamMode(boolean teamMode) {
+        this.teamMode = teamMode;
+    }
+
+    public String getEventCode() {
+        return eventCode;
+    }
+
+    public void setEventCode(String eventCode) {
+        this.eventCode = eventCode;
+    }
 
 }
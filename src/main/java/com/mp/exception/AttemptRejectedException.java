@@ -0,0 +1,19 @@
+package com.mp.exception;
+
+/**
+ * A quiz attempt or submission refused for a reason the client shows,
+ * e.g. RETAKE_NOT_ALLOWED, TIME_UP.
+ */
+public class AttemptRejectedException extends RuntimeException {
+
+    private final String reason;
+
+    public AttemptRejectedException(String reason, String msg) {
+        super(msg);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
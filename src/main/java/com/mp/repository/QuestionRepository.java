@@ -2,9 +2,15 @@ package com.mp.repository;
 
 import com.mp.entity.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByQuizId(Long quizId);
-    
-}
\ No newline at end of file
+
+    // Stable order (options are a column of the row)
+    @Query("SELECT q FROM Question q WHERE q.quiz.id = :quizId ORDER BY q.id")
+    List<Question> findPaperByQuizId(@Param("quizId") Long quizId);
+}
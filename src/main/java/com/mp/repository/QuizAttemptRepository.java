@@ -0,0 +1,43 @@
+package com.mp.repository;
+
+import com.mp.entity.QuizAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
+
+    Optional<QuizAttempt> findFirstByQuizIdAndUserEmailAndStatusOrderByIdDesc(
+            Long quizId,
+            String userEmail,
+            String status
+    );
+
+    List<QuizAttempt> findByStatus(String status);
+
+    // Only an open attempt can be closed (student submit vs. deadline sweep)
+    @Modifying
+    @Query("UPDATE QuizAttempt a SET a.status = :status, a.finishedAt = :finishedAt, a.resultId = :resultId "
+            + "WHERE a.id = :id AND a.status IN ('IN_PROGRESS', 'SUBMITTING')")
+    int close(
+            @Param("id") Long id,
+            @Param("status") String status,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("resultId") Long resultId
+    );
+
+    // Result of an attempt closed just before grading (same transaction)
+    @Modifying
+    @Query("UPDATE QuizAttempt a SET a.resultId = :resultId WHERE a.id = :id")
+    int attachResult(@Param("id") Long id, @Param("resultId") Long resultId);
+
+    // Queued submit: answers handed over, no more autosaves or deadline sweep
+    @Modifying
+    @Query("UPDATE QuizAttempt a SET a.status = 'SUBMITTING' WHERE a.id = :id AND a.status = 'IN_PROGRESS'")
+    int markSubmitting(@Param("id") Long id);
+}
@@ -4,6 +4,7 @@ import com.mp.entity.Quiz;
 import com.mp.entity.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -14,10 +15,19 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
 
     Optional<Quiz> findByCode(String code);
 
+    // Everything QuizByCodeDTO needs in one go (roles follow eagerly)
+    @Query("SELECT q FROM Quiz q JOIN FETCH q.createdBy c LEFT JOIN FETCH c.institution WHERE q.code = :code")
+    Optional<Quiz> findByCodeWithCreator(@Param("code") String code);
+
     List<Quiz> findByCreatedByEmail(String email);
 
     @Query("SELECT q FROM Quiz q JOIN FETCH q.createdBy WHERE q.id = :id")
     Optional<Quiz> findByIdWithCreator(@Param("id") Long id);
     List<Quiz> findByCreatedByAndCreatorType(User user, String creatorType);
 
+    // Atomic counter update (bulk imports write questions outside JPA)
+    @Modifying
+    @Query("UPDATE Quiz q SET q.questionsCount = q.questionsCount + :delta WHERE q.id = :id")
+    int addQuestionsCount(@Param("id") Long id, @Param("delta") int delta);
+
 }
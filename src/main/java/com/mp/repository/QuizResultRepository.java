@@ -1,11 +1,18 @@
 package com.mp.repository;
 
+import com.mp.dto.ResultExportRow;
 import com.mp.entity.QuizResult;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
 
@@ -27,4 +34,40 @@ public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
 	
 	Optional<QuizResult> findByQuiz_IdAndUser_Email(Long quizId, String email);
 
+	// CSV export: rows read through a cursor, fetchSize at a time (caller holds a read-only transaction)
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("SELECT new com.mp.dto.ResultExportRow(u.name, u.email, r.score, r.totalQuestions, r.status, r.attemptDate) "
+			+ "FROM QuizResult r JOIN r.user u "
+			+ "WHERE r.quiz.id = :quizId AND r.attemptDate BETWEEN :from AND :to "
+			+ "ORDER BY r.attemptDate DESC")
+	Stream<ResultExportRow> streamExportRows(
+			@Param("quizId") Long quizId,
+			@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to
+	);
+
+	@Query("SELECT count(r) FROM QuizResult r WHERE r.quiz.id = :quizId AND r.attemptDate BETWEEN :from AND :to")
+	long countExportRows(
+			@Param("quizId") Long quizId,
+			@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to
+	);
+
+	// No date range: every result, including ones without an attemptDate
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+		@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("SELECT new com.mp.dto.ResultExportRow(u.name, u.email, r.score, r.totalQuestions, r.status, r.attemptDate) "
+			+ "FROM QuizResult r JOIN r.user u "
+			+ "WHERE r.quiz.id = :quizId "
+			+ "ORDER BY r.attemptDate DESC")
+	Stream<ResultExportRow> streamAllExportRows(@Param("quizId") Long quizId);
+
+	@Query("SELECT count(r) FROM QuizResult r WHERE r.quiz.id = :quizId")
+	long countAllExportRows(@Param("quizId") Long quizId);
+
 }
@@ -0,0 +1,25 @@
+package com.mp.repository;
+
+import com.mp.entity.QuizStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface QuizStatsRepository extends JpaRepository<QuizStats, Long> {
+
+    // Submits of one quiz update its row one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM QuizStats s WHERE s.quizId = :quizId")
+    Optional<QuizStats> lockByQuizId(@Param("quizId") Long quizId);
+
+    // First submit of a quiz; concurrent first submits create it once
+    @Modifying
+    @Query(value = "INSERT INTO quiz_stats (quiz_id, attempts, passes, score_sum, percent_sum) "
+            + "VALUES (:quizId, 0, 0, 0, 0) ON CONFLICT (quiz_id) DO NOTHING", nativeQuery = true)
+    void createIfMissing(@Param("quizId") Long quizId);
+}
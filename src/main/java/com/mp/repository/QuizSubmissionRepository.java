@@ -0,0 +1,11 @@
+package com.mp.repository;
+
+import com.mp.entity.QuizSubmission;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission, Long> {
+
+    Optional<QuizSubmission> findByIdempotencyKey(String idempotencyKey);
+}
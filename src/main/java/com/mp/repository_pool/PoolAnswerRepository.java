@@ -16,6 +16,9 @@ public interface PoolAnswerRepository extends JpaRepository<PoolLiveAnswer, Long
             String gamePin, Long questionId, String nickname
     );
     
+    // Every answer of a game (post-game archive)
+    List<PoolLiveAnswer> findByGamePin(String gamePin);
+
     void deleteByGamePin(String gamePin);
 
 }
@@ -0,0 +1,12 @@
+package com.mp.repository_pool;
+
+import com.mp.entity_pool.PoolGameArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PoolArchiveRepository extends JpaRepository<PoolGameArchive, Long> {
+
+    // Finished games of a quiz, latest first
+    List<PoolGameArchive> findByQuizIdOrderByFinishedAtDesc(Long quizId);
+}
@@ -0,0 +1,13 @@
+package com.mp.repository_pool;
+
+import com.mp.entity_pool.PoolEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface PoolEventRepository extends JpaRepository<PoolEvent, Long> {
+
+    Optional<PoolEvent> findByEventCode(String eventCode);
+
+    boolean existsByEventCode(String eventCode);
+}
@@ -1,6 +1,7 @@
 package com.mp.repository_pool;
 
 import com.mp.entity_pool.PoolLivePlayer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -19,4 +20,9 @@ public interface PoolPlayerRepository extends JpaRepository<PoolLivePlayer, Long
     
     void deleteByGamePin(String gamePin);
 
+    // Leaderboard head (spectator view)
+    List<PoolLivePlayer> findByGamePinOrderByScoreDescNicknameAsc(String gamePin, Pageable pageable);
+
+    long countByGamePin(String gamePin);
+
 }
@@ -3,6 +3,7 @@ package com.mp.repository_pool;
 import com.mp.entity_pool.PoolLiveQuizSession;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PoolSessionRepository extends JpaRepository<PoolLiveQuizSession, Long> {
@@ -12,4 +13,7 @@ public interface PoolSessionRepository extends JpaRepository<PoolLiveQuizSession
 
     // Check if a Game PIN already exists (safety)
     boolean existsByGamePin(String gamePin);
+
+    // Rooms of a multi-room event
+    List<PoolLiveQuizSession> findByEventCode(String eventCode);
 }
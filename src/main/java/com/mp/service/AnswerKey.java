@@ -0,0 +1,141 @@
+package com.mp.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A quiz's answer key compiled for grading, shared by the classic submit
+ * and the pool game so both grade the same way: an answer is right when it
+ * names the correct option, ignoring surrounding spaces and case.
+ *
+ * Layout: question id -> question index (one hash lookup), then per index
+ * its options as normalised text (trim + lower case) and the ordinal of the
+ * correct one. An answer is graded by resolving its option ordinal and
+ * comparing it with correct[index]; callers that already hold an index and
+ * ordinal use {@link #isCorrect(int, int)}, a plain array read. Questions
+ * without a gradable answer (coding, no correct answer) have ordinal
+ * {@link #NOT_GRADED}.
+ */
+public final class AnswerKey {
+
+    public static final int NOT_GRADED = -1;
+
+    private final Map<Long, Integer> index;
+    private final String[][] options;
+    private final int[] correct;
+    private final int gradable;
+
+    AnswerKey(List<QuestionPaper.PaperQuestion> questions) {
+
+        int n = questions.size();
+        index = new HashMap<>(n * 2);
+        options = new String[n][];
+        correct = new int[n];
+
+        int graded = 0;
+
+        for (int i = 0; i < n; i++) {
+            QuestionPaper.PaperQuestion q = questions.get(i);
+            index.put(q.id(), i);
+
+            List<String> opts = q.options();
+            String answer = normalise(q.correctAnswer());
+
+            String[] compiled = new String[opts.size()];
+            int ordinal = NOT_GRADED;
+
+            for (int o = 0; o < compiled.length; o++) {
+                compiled[o] = normalise(opts.get(o));
+                if (ordinal == NOT_GRADED && compiled[o] != null && compiled[o].equals(answer)) ordinal = o;
+            }
+
+            // correct answer missing from the options (older rows): graded as one more option
+            if (ordinal == NOT_GRADED && answer != null && isMcq(q.type())) {
+                compiled = Arrays.copyOf(compiled, compiled.length + 1);
+                compiled[compiled.length - 1] = answer;
+                ordinal = compiled.length - 1;
+            }
+
+            options[i] = compiled;
+            correct[i] = isMcq(q.type()) ? ordinal : NOT_GRADED;
+            if (correct[i] != NOT_GRADED) graded++;
+        }
+
+        this.gradable = graded;
+    }
+
+    public boolean contains(long questionId) {
+        return index.containsKey(questionId);
+    }
+
+    /** Position of the question in this key, or -1. */
+    public int indexOf(long questionId) {
+        Integer i = index.get(questionId);
+        return i == null ? -1 : i;
+    }
+
+    /** Number of questions that score a point. */
+    public int gradable() {
+        return gradable;
+    }
+
+    /** Ordinal of the option the answer names, or -1. */
+    public int ordinal(long questionId, String answer) {
+
+        int i = indexOf(questionId);
+        if (i < 0) return -1;
+        return ordinalAt(i, normalise(answer));
+    }
+
+    public boolean isCorrect(long questionId, String answer) {
+
+        int i = indexOf(questionId);
+        if (i < 0 || correct[i] == NOT_GRADED) return false;
+        return isCorrect(i, ordinalAt(i, normalise(answer)));
+    }
+
+    public boolean isCorrect(int index, int ordinal) {
+        return ordinal >= 0 && correct[index] == ordinal;
+    }
+
+    // One point per gradable question answered with the correct option
+    public int score(Map<Long, String> answers) {
+
+        int score = 0;
+        for (Map.Entry<Long, String> e : answers.entrySet()) {
+            if (e.getKey() != null && isCorrect(e.getKey(), e.getValue())) score++;
+        }
+        return score;
+    }
+
+    /** Same comparison as grading, for display (answer sheet highlighting). */
+    public static boolean sameAnswer(String a, String b) {
+        String na = normalise(a);
+        return na != null && na.equals(normalise(b));
+    }
+
+    private int ordinalAt(int i, String normalised) {
+
+        if (normalised == null) return -1;
+
+        String[] opts = options[i];
+        for (int o = 0; o < opts.length; o++) {
+            if (normalised.equals(opts[o])) return o;
+        }
+        return -1;
+    }
+
+    static String normalise(String s) {
+        if (s == null) return null;
+        String t = s.trim();
+        return t.isEmpty() ? null : t.toLowerCase(Locale.ROOT);
+    }
+
+    // Questions saved without a type are MCQ (the pool grader always graded them)
+    static boolean isMcq(String type) {
+        return type == null || "MCQ".equalsIgnoreCase(type);
+    }
+}
@@ -0,0 +1,128 @@
+package com.mp.service;
+
+import com.mp.service.QuestionPaper.PaperQuestion;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+
+/**
+ * Per-student order of a {@link QuestionPaper}: questions and, within each
+ * question, options.
+ *
+ * The order is a pure function of (quiz, student), so play, review and the
+ * answer sheet PDF all show the same paper without storing it. Nothing is
+ * copied: the result is a view over the shared paper holding one int[] of
+ * question positions (Fisher-Yates, O(n)); option orders are derived per
+ * question on access. Grading is by question id and option text, so it does
+ * not care about the order.
+ */
+public final class PaperShuffle {
+
+    private PaperShuffle() {
+    }
+
+    public static List<PaperQuestion> forStudent(QuestionPaper paper, String studentEmail) {
+
+        long seed = seed(paper.quizId(), studentEmail);
+        List<PaperQuestion> questions = paper.questions();
+
+        return new ShuffledQuestions(
+                questions,
+                permutation(questions.size(), new SplittableRandom(seed)),
+                seed
+        );
+    }
+
+    // FNV-1a over the e-mail, mixed with the quiz id (SplittableRandom mixes further)
+    static long seed(Long quizId, String studentEmail) {
+
+        long h = 0xcbf29ce484222325L;
+        String key = studentEmail == null ? "" : studentEmail.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h ^ (quizId == null ? 0 : quizId * 0x9E3779B97F4A7C15L);
+    }
+
+    static int[] permutation(int n, SplittableRandom random) {
+
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) p[i] = i;
+
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        return p;
+    }
+
+
+    private static final class ShuffledQuestions extends AbstractList<PaperQuestion> implements RandomAccess {
+
+        private final List<PaperQuestion> source;
+        private final int[] order;
+        private final long seed;
+
+        ShuffledQuestions(List<PaperQuestion> source, int[] order, long seed) {
+            this.source = source;
+            this.order = order;
+            this.seed = seed;
+        }
+
+        @Override
+        public PaperQuestion get(int index) {
+
+            PaperQuestion q = source.get(order[index]);
+            if (q.options().size() < 2) return q;
+
+            // own stream per question, so the order of access does not matter
+            long questionSeed = seed ^ (q.id() == null ? index : q.id()) * 0xBF58476D1CE4E5B9L;
+
+            return new PaperQuestion(
+                    q.id(),
+                    q.content(),
+                    q.type(),
+                    new PermutedOptions(
+                            q.options(),
+                            permutation(q.options().size(), new SplittableRandom(questionSeed))
+                    ),
+                    q.correctAnswer(),
+                    q.allowedLanguage(),
+                    q.sampleInput(),
+                    q.sampleOutput()
+            );
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+    }
+
+    private static final class PermutedOptions extends AbstractList<String> implements RandomAccess {
+
+        private final List<String> source;
+        private final int[] order;
+
+        PermutedOptions(List<String> source, int[] order) {
+            this.source = source;
+            this.order = order;
+        }
+
+        @Override
+        public String get(int index) {
+            return source.get(order[index]);
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+    }
+}
@@ -2,9 +2,7 @@ package com.mp.service;
 
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
-import com.mp.entity.Question;
 import com.mp.entity.QuizResult;
-import com.mp.repository.QuestionRepository;
 import org.springframework.stereotype.Service;
 
 import java.io.OutputStream;
@@ -14,11 +12,11 @@ import java.util.Map;
 @Service
 public class PdfReportService {
 
-    private final QuestionRepository questionRepository;
+    private final QuestionPaperCache questionPaperCache;
 
-    // ✅ Inject repository
-    public PdfReportService(QuestionRepository questionRepository) {
-        this.questionRepository = questionRepository;
+    // ✅ Inject question papers
+    public PdfReportService(QuestionPaperCache questionPaperCache) {
+        this.questionPaperCache = questionPaperCache;
     }
 
     // =====================================================
@@ -74,41 +72,42 @@ public class PdfReportService {
         document.add(Chunk.NEWLINE);
 
         // ================= QUESTIONS =================
-        List<Question> questions =
-                questionRepository.findByQuizId(result.getQuiz().getId());
+        // same order the student was shown
+        List<QuestionPaper.PaperQuestion> questions = questionPaperCache.questionsFor(
+                result.getQuiz().getId(),
+                result.getQuiz().isShuffleQuestions(),
+                result.getUser().getEmail()
+        );
 
         Map<Long, String> userAnswers = result.getAnswers();
+        AnswerKey answerKey = questionPaperCache.get(result.getQuiz().getId()).answerKey();
 
         for (int i = 0; i < questions.size(); i++) {
-            Question q = questions.get(i);
+            QuestionPaper.PaperQuestion q = questions.get(i);
 
             document.add(new Paragraph(
-                    "Q" + (i + 1) + ". " + q.getContent(),
+                    "Q" + (i + 1) + ". " + q.content(),
                     questionFont
             ));
 
             String studentAnswer =
-                    userAnswers != null ? userAnswers.get(q.getId()) : null;
+                    userAnswers != null ? userAnswers.get(q.id()) : null;
 
-            String correctAnswer = q.getCorrectAnswer();
+            String correctAnswer = q.correctAnswer();
 
-            boolean correct =
-                    correctAnswer != null &&
-                    studentAnswer != null &&
-                    correctAnswer.equals(studentAnswer);
+            boolean correct = answerKey.isCorrect(q.id(), studentAnswer);
 
-            List<String> options = q.getOptions();
-            if (options == null) options = List.of();
+            List<String> options = q.options();
 
             for (String opt : options) {
 
-                if (correctAnswer != null && opt.equals(correctAnswer)) {
+                if (correctAnswer != null && AnswerKey.sameAnswer(opt, correctAnswer)) {
                     document.add(new Paragraph(
                             "✔ " + opt + " (Correct Answer)",
                             correctFont
                     ));
                 }
-                else if (studentAnswer != null && opt.equals(studentAnswer)) {
+                else if (studentAnswer != null && AnswerKey.sameAnswer(opt, studentAnswer)) {
                     document.add(new Paragraph(
                             "✖ " + opt + " (Your Answer)",
                             wrongFont
@@ -0,0 +1,100 @@
+package com.mp.service;
+
+import com.mp.entity.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of a quiz's questions, shared by the play page, grading,
+ * review and the answer sheet PDF. Built once per version by
+ * {@link QuestionPaperCache}; a change to the questions builds a new one.
+ * Grading goes through the compiled {@link AnswerKey}.
+ */
+public final class QuestionPaper {
+
+    public record PaperQuestion(
+            Long id,
+            String content,
+            String type,
+            List<String> options,
+            String correctAnswer,
+            String allowedLanguage,
+            String sampleInput,
+            String sampleOutput
+    ) {
+    }
+
+    private final Long quizId;
+    private final long version;
+    private final List<PaperQuestion> questions;
+
+    // question id -> correct option as stored, graded questions only (review / answer sheet)
+    private final Map<Long, String> correctAnswers;
+
+    private final AnswerKey answerKey;
+
+    QuestionPaper(Long quizId, long version, List<Question> source) {
+
+        List<PaperQuestion> list = new ArrayList<>(source.size());
+        Map<Long, String> key = new HashMap<>(source.size() * 2);
+
+        for (Question q : source) {
+            List<String> options = q.getOptions() == null
+                    ? List.of()
+                    : Collections.unmodifiableList(new ArrayList<>(q.getOptions()));
+
+            list.add(new PaperQuestion(
+                    q.getId(),
+                    q.getContent(),
+                    q.getType(),
+                    options,
+                    q.getCorrectAnswer(),
+                    q.getAllowedLanguage(),
+                    q.getSampleInput(),
+                    q.getSampleOutput()
+            ));
+
+            if (AnswerKey.isMcq(q.getType()) && q.getCorrectAnswer() != null) {
+                key.put(q.getId(), q.getCorrectAnswer());
+            }
+        }
+
+        this.quizId = quizId;
+        this.version = version;
+        this.questions = Collections.unmodifiableList(list);
+        this.correctAnswers = Collections.unmodifiableMap(key);
+        this.answerKey = new AnswerKey(this.questions);
+    }
+
+    public Long quizId() {
+        return quizId;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<PaperQuestion> questions() {
+        return questions;
+    }
+
+    public int size() {
+        return questions.size();
+    }
+
+    public String correctAnswer(Long questionId) {
+        return correctAnswers.get(questionId);
+    }
+
+    public AnswerKey answerKey() {
+        return answerKey;
+    }
+
+    public int score(Map<Long, String> answers) {
+        return answerKey.score(answers);
+    }
+}
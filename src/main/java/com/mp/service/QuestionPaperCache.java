@@ -0,0 +1,76 @@
+package com.mp.service;
+
+import com.mp.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * quizId -> {@link QuestionPaper}, built on first use with one query
+ * (options are a column of the question row) and kept until the questions change.
+ *
+ * Builds run inside computeIfAbsent: concurrent first readers of a quiz wait
+ * for the one build, and an evict issued during a build waits for it and then
+ * removes it, so a stale paper never outlives the change that evicted it.
+ * Callers evict only after their change has committed.
+ */
+@Service
+public class QuestionPaperCache {
+
+    private final QuestionRepository questionRepository;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<Long, QuestionPaper> papers = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public QuestionPaperCache(
+            QuestionRepository questionRepository,
+            @Value("${quiz.paper-cache.max-size:2000}") int maxSize
+    ) {
+        this.questionRepository = questionRepository;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    public QuestionPaper get(Long quizId) {
+
+        QuestionPaper paper = papers.get(quizId);
+        if (paper != null) return paper;
+
+        if (papers.size() >= maxSize) evictOldest();
+
+        return papers.computeIfAbsent(quizId, id -> new QuestionPaper(
+                id,
+                versions.incrementAndGet(),
+                questionRepository.findPaperByQuizId(id)
+        ));
+    }
+
+    /**
+     * Questions in the order this student sees them: shuffled per student
+     * (see {@link PaperShuffle}) when the quiz shuffles, otherwise as stored.
+     * Play, review and the answer sheet all go through here.
+     */
+    public List<QuestionPaper.PaperQuestion> questionsFor(Long quizId, boolean shuffle, String studentEmail) {
+        QuestionPaper paper = get(quizId);
+        return shuffle ? PaperShuffle.forStudent(paper, studentEmail) : paper.questions();
+    }
+
+    public void evict(Long quizId) {
+        if (quizId != null) papers.remove(quizId);
+    }
+
+    // Oldest versions were built first
+    private synchronized void evictOldest() {
+
+        int drop = Math.max(1, maxSize / 10);
+
+        papers.values().stream()
+                .sorted(Comparator.comparingLong(QuestionPaper::version))
+                .limit(drop)
+                .forEach(p -> papers.remove(p.quizId(), p));
+    }
+}
@@ -0,0 +1,167 @@
+package com.mp.service;
+
+import com.mp.dto.QuizByCodeDTO;
+import com.mp.repository.QuizRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of quiz code -> {@link QuizByCodeDTO}.
+ *
+ * At exam start every student resolves the same code within seconds. The
+ * first caller loads it; callers arriving during that load wait on the same
+ * future instead of querying too (one DB read per code). Entries expire
+ * after quiz.code-cache.ttl-seconds and are evicted by the write paths that
+ * change what the snapshot shows. Unknown codes are not cached.
+ *
+ * Bounded by quiz.code-cache.max-size: when full, the oldest loads go first.
+ */
+@Service
+public class QuizCodeCache {
+
+    private final QuizRepository quizRepository;
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public QuizCodeCache(
+            QuizRepository quizRepository,
+            MeterRegistry registry,
+            @Value("${quiz.code-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${quiz.code-cache.max-size:10000}") int maxSize
+    ) {
+        this.quizRepository = quizRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = Math.max(1, maxSize);
+
+        this.hits = counter(registry, "hit", "Served from the cache");
+        this.misses = counter(registry, "miss", "Loaded from the database");
+        this.coalesced = counter(registry, "coalesced", "Waited for a load already in flight");
+
+        Gauge.builder("quiz.code.cache.size", slots, Map::size)
+                .description("Quiz codes currently cached")
+                .register(registry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result, String description) {
+        return Counter.builder("quiz.code.cache")
+                .tag("result", result)
+                .description(description)
+                .register(registry);
+    }
+
+
+    // =====================================================
+    // 🔎 READ THROUGH
+    // =====================================================
+    public Optional<QuizByCodeDTO> get(String code) {
+
+        while (true) {
+
+            Slot slot = slots.get(code);
+
+            if (slot == null) {
+                Slot mine = new Slot();
+                slot = slots.putIfAbsent(code, mine);
+                if (slot == null) {
+                    return load(code, mine);
+                }
+            }
+
+            if (!slot.value.isDone()) {
+                coalesced.increment();
+                return join(slot);
+            }
+
+            if (System.nanoTime() - slot.loadedAt < ttlNanos) {
+                hits.increment();
+                return join(slot);
+            }
+
+            // expired: drop it and race for the reload
+            slots.remove(code, slot);
+        }
+    }
+
+    // =====================================================
+    // 🧹 INVALIDATION (status / settings / delete / questions)
+    // =====================================================
+    public void evict(String code) {
+        if (code != null) slots.remove(code);
+    }
+
+    public void clear() {
+        slots.clear();
+    }
+
+
+    private Optional<QuizByCodeDTO> load(String code, Slot slot) {
+
+        misses.increment();
+
+        try {
+            Optional<QuizByCodeDTO> quiz = quizRepository.findByCodeWithCreator(code).map(QuizByCodeDTO::of);
+
+            slot.loadedAt = System.nanoTime();
+            slot.value.complete(quiz);
+
+            if (quiz.isEmpty()) {
+                slots.remove(code, slot);
+            } else if (slots.size() > maxSize) {
+                evictOldest();
+            }
+            return quiz;
+
+        } catch (RuntimeException e) {
+            // waiters see the same failure; the next caller retries
+            slots.remove(code, slot);
+            slot.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Optional<QuizByCodeDTO> join(Slot slot) {
+        try {
+            return slot.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    // Only runs when full; drops the oldest tenth in one pass
+    private synchronized void evictOldest() {
+
+        int excess = slots.size() - maxSize;
+        if (excess <= 0) return;
+
+        int drop = Math.max(excess, maxSize / 10);
+
+        slots.entrySet().stream()
+                .filter(e -> e.getValue().value.isDone())
+                .sorted((a, b) -> Long.compare(a.getValue().loadedAt, b.getValue().loadedAt))
+                .limit(drop)
+                .forEach(e -> slots.remove(e.getKey(), e.getValue()));
+    }
+
+    private static final class Slot {
+        final CompletableFuture<Optional<QuizByCodeDTO>> value = new CompletableFuture<>();
+        volatile long loadedAt;
+    }
+}
@@ -0,0 +1,266 @@
+package com.mp.service;
+
+import com.mp.dto.QuizStatsDTO;
+import com.mp.entity.QuizResult;
+import com.mp.entity.QuizStats;
+import com.mp.repository.QuizStatsRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-quiz analytics kept in one quiz_stats row.
+ *
+ * The submit transaction applies its result to the row (and takes back the
+ * result a retake replaces) while holding the row lock, so concurrent
+ * submits of a quiz never lose an update and the dashboard summary is a
+ * single-row read. Per-question counts are graded with the quiz's current
+ * {@link AnswerKey}; after questions change, or to repair drift, rebuild
+ * recomputes the row from quiz_results.
+ */
+@Service
+public class QuizStatsService {
+
+    private static final String TOTALS =
+            "select count(*), count(*) filter (where status = 'Pass'), coalesce(sum(score), 0), "
+                    + "coalesce(sum(case when total_questions = 0 then 0 "
+                    + "else round(score * 100.0 / total_questions) end), 0) "
+                    + "from quiz_results where quiz_id = ?";
+
+    private static final String HISTOGRAM =
+            "select least(9, (case when total_questions = 0 then 0 "
+                    + "else round(score * 100.0 / total_questions) end)::int / 10), count(*) "
+                    + "from quiz_results where quiz_id = ? group by 1";
+
+    // one row per distinct (question, answer), graded in Java with the answer key
+    private static final String ANSWERS =
+            "select a.question_id, a.selected_option, count(*) from quiz_submission_answers a "
+                    + "join quiz_results r on r.id = a.result_id where r.quiz_id = ? group by 1, 2";
+
+    private final QuizStatsRepository statsRepository;
+    private final QuestionPaperCache questionPaperCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuizStatsService(
+            QuizStatsRepository statsRepository,
+            QuestionPaperCache questionPaperCache,
+            JdbcTemplate jdbcTemplate
+    ) {
+        this.statsRepository = statsRepository;
+        this.questionPaperCache = questionPaperCache;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Graded result as the stats see it (copied before a retake deletes it). */
+    public record Graded(int score, int totalQuestions, boolean passed, Map<Long, String> answers) {
+
+        public static Graded of(QuizResult r) {
+            return new Graded(
+                    r.getScore(),
+                    r.getTotalQuestions(),
+                    "Pass".equals(r.getStatus()),
+                    r.getAnswers() == null ? Map.of() : new HashMap<>(r.getAnswers())
+            );
+        }
+    }
+
+
+    // =====================================================
+    // 1️⃣ SUBMIT PATH (caller's transaction; call last, it holds the row lock)
+    // =====================================================
+    public void record(Long quizId, Graded added, Graded replaced) {
+
+        QuizStats stats = statsRepository.lockByQuizId(quizId).orElse(null);
+
+        // No row yet: build it from quiz_results (this result included) under the
+        // same lock, rather than starting from zero beside older results
+        if (stats == null) {
+            rebuild(quizId);
+            return;
+        }
+
+        AnswerKey key = questionPaperCache.get(quizId).answerKey();
+
+        Counts counts = Counts.of(stats);
+        if (replaced != null) counts.apply(replaced, -1, key);
+        counts.apply(added, 1, key);
+
+        counts.copyTo(stats);
+        stats.setUpdatedAt(LocalDateTime.now());
+    }
+
+
+    // =====================================================
+    // 2️⃣ SUMMARY (single-row read; first call builds the row)
+    // =====================================================
+    @Transactional
+    public QuizStatsDTO summary(Long quizId) {
+
+        QuizStats stats = statsRepository.findById(quizId).orElse(null);
+        if (stats == null) return rebuild(quizId);
+
+        return toDTO(stats);
+    }
+
+
+    // =====================================================
+    // 3️⃣ REBUILD from quiz_results (submits wait on the row lock)
+    // =====================================================
+    @Transactional
+    public QuizStatsDTO rebuild(Long quizId) {
+
+        QuizStats stats = lock(quizId);
+        AnswerKey key = questionPaperCache.get(quizId).answerKey();
+
+        // The JDBC reads below must see this transaction's pending result writes
+        statsRepository.flush();
+
+        Counts counts = new Counts();
+
+        jdbcTemplate.query(TOTALS, rs -> {
+            counts.attempts = rs.getLong(1);
+            counts.passes = rs.getLong(2);
+            counts.scoreSum = rs.getLong(3);
+            counts.percentSum = rs.getLong(4);
+        }, quizId);
+
+        jdbcTemplate.query(HISTOGRAM, rs -> {
+            counts.histogram[rs.getInt(1)] = rs.getLong(2);
+        }, quizId);
+
+        jdbcTemplate.query(ANSWERS, rs -> {
+            long questionId = rs.getLong(1);
+            String answer = rs.getString(2);
+            long n = rs.getLong(3);
+
+            if (answer == null || answer.isBlank() || !key.contains(questionId)) return;
+
+            counts.answered.merge(questionId, n, Long::sum);
+            if (key.isCorrect(questionId, answer)) counts.correct.merge(questionId, n, Long::sum);
+        }, quizId);
+
+        counts.copyTo(stats);
+
+        LocalDateTime now = LocalDateTime.now();
+        stats.setUpdatedAt(now);
+        stats.setRebuiltAt(now);
+
+        return toDTO(stats);
+    }
+
+    public void delete(Long quizId) {
+        statsRepository.findById(quizId).ifPresent(statsRepository::delete);
+    }
+
+    private QuizStats lock(Long quizId) {
+
+        return statsRepository.lockByQuizId(quizId).orElseGet(() -> {
+            statsRepository.createIfMissing(quizId);
+            return statsRepository.lockByQuizId(quizId).orElseThrow();
+        });
+    }
+
+    private static QuizStatsDTO toDTO(QuizStats s) {
+
+        Counts c = Counts.of(s);
+        long n = c.attempts;
+
+        List<QuizStatsDTO.Bucket> histogram = new ArrayList<>(QuizStats.BUCKETS);
+        for (int b = 0; b < QuizStats.BUCKETS; b++) {
+            String range = b == QuizStats.BUCKETS - 1 ? "90-100" : (b * 10) + "-" + (b * 10 + 9);
+            histogram.add(new QuizStatsDTO.Bucket(range, c.histogram[b]));
+        }
+
+        List<QuizStatsDTO.QuestionStat> questions = new ArrayList<>();
+        for (Map.Entry<Long, Long> e : new TreeMap<>(c.answered).entrySet()) {
+            long answered = e.getValue();
+            long correct = c.correct.getOrDefault(e.getKey(), 0L);
+            questions.add(new QuizStatsDTO.QuestionStat(
+                    e.getKey(), answered, correct, answered == 0 ? 0 : round2(correct * 100.0 / answered)
+            ));
+        }
+
+        return new QuizStatsDTO(
+                s.getQuizId(),
+                n,
+                c.passes,
+                n == 0 ? 0 : round2(c.passes * 100.0 / n),
+                n == 0 ? 0 : round2((double) c.scoreSum / n),
+                n == 0 ? 0 : round2((double) c.percentSum / n),
+                histogram,
+                questions,
+                s.getUpdatedAt(),
+                s.getRebuiltAt()
+        );
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+
+    // Working copy of a row; written back as new objects so the JSON columns are seen as dirty
+    static final class Counts {
+
+        long attempts;
+        long passes;
+        long scoreSum;
+        long percentSum;
+        long[] histogram = new long[QuizStats.BUCKETS];
+        Map<Long, Long> answered = new HashMap<>();
+        Map<Long, Long> correct = new HashMap<>();
+
+        static Counts of(QuizStats s) {
+
+            Counts c = new Counts();
+            c.attempts = s.getAttempts();
+            c.passes = s.getPasses();
+            c.scoreSum = s.getScoreSum();
+            c.percentSum = s.getPercentSum();
+
+            long[] h = s.getHistogram();
+            if (h != null) System.arraycopy(h, 0, c.histogram, 0, Math.min(h.length, QuizStats.BUCKETS));
+            if (s.getQuestionAnswered() != null) c.answered.putAll(s.getQuestionAnswered());
+            if (s.getQuestionCorrect() != null) c.correct.putAll(s.getQuestionCorrect());
+            return c;
+        }
+
+        void apply(Graded g, int sign, AnswerKey key) {
+
+            int percent = g.totalQuestions() == 0
+                    ? 0
+                    : (int) Math.round(g.score() * 100.0 / g.totalQuestions());
+
+            attempts += sign;
+            if (g.passed()) passes += sign;
+            scoreSum += (long) sign * g.score();
+            percentSum += (long) sign * percent;
+            histogram[Math.min(QuizStats.BUCKETS - 1, percent / 10)] += sign;
+
+            for (Map.Entry<Long, String> e : g.answers().entrySet()) {
+                Long questionId = e.getKey();
+                String answer = e.getValue();
+                if (questionId == null || answer == null || answer.isBlank() || !key.contains(questionId)) continue;
+
+                answered.merge(questionId, (long) sign, Long::sum);
+                if (key.isCorrect(questionId, answer)) correct.merge(questionId, (long) sign, Long::sum);
+            }
+        }
+
+        void copyTo(QuizStats s) {
+            s.setAttempts(attempts);
+            s.setPasses(passes);
+            s.setScoreSum(scoreSum);
+            s.setPercentSum(percentSum);
+            s.setHistogram(histogram.clone());
+            s.setQuestionAnswered(new HashMap<>(answered));
+            s.setQuestionCorrect(new HashMap<>(correct));
+        }
+    }
+}
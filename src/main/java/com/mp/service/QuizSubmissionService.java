@@ -0,0 +1,99 @@
+package com.mp.service;
+
+import com.mp.entity.QuizResult;
+import com.mp.entity.User;
+import com.mp.exception.AttemptRejectedException;
+import com.mp.exception.ResourceNotFoundException;
+import com.mp.repository.QuizRepository;
+import com.mp.repository.QuizResultRepository;
+import com.mp.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Grades a set of answers against the quiz's question paper and stores the
+ * result (one result per student and quiz; a retake replaces it).
+ * Used for student submits and for auto-submits when time runs out.
+ * The quiz's analytics row is updated in the same transaction.
+ */
+@Service
+public class QuizSubmissionService {
+
+    private final QuizResultRepository resultRepository;
+    private final QuizRepository quizRepository;
+    private final UserRepository userRepository;
+    private final QuestionPaperCache questionPaperCache;
+    private final QuizStatsService statsService;
+
+    public QuizSubmissionService(
+            QuizResultRepository resultRepository,
+            QuizRepository quizRepository,
+            UserRepository userRepository,
+            QuestionPaperCache questionPaperCache,
+            QuizStatsService statsService
+    ) {
+        this.resultRepository = resultRepository;
+        this.quizRepository = quizRepository;
+        this.userRepository = userRepository;
+        this.questionPaperCache = questionPaperCache;
+        this.statsService = statsService;
+    }
+
+    @Transactional
+    public QuizResult submit(Long quizId, String email, Map<Long, String> answers) {
+
+        User student = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        // ================= RETAKE LOGIC =================
+        QuizResult existing = resultRepository.findByQuiz_IdAndUser_Email(quizId, email).orElse(null);
+
+        int attemptNumber = 1;
+        QuizStatsService.Graded replaced = null;
+
+        if (existing != null) {
+
+            if (!existing.isRetakeAllowed()) {
+                throw new AttemptRejectedException("RETAKE_NOT_ALLOWED", "Retake not allowed yet");
+            }
+
+            attemptNumber = existing.getAttemptNumber() + 1;
+            replaced = QuizStatsService.Graded.of(existing);
+
+            // 🔥 hard delete all old attempts
+            resultRepository.deleteByQuiz_IdAndUser_Email(quizId, email);
+        }
+
+        // unanswered questions are not stored
+        Map<Long, String> given = new HashMap<>(answers);
+        given.entrySet().removeIf(e -> e.getValue() == null || e.getValue().isBlank());
+
+        /* ================= SCORE CALCULATION ================= */
+        QuestionPaper paper = questionPaperCache.get(quizId);
+
+        int score = paper.score(given);
+
+        QuizResult result = new QuizResult();
+        result.setUser(student);
+        result.setQuiz(quizRepository.getReferenceById(quizId));
+        result.setScore(score);
+        result.setTotalQuestions(paper.size());
+        result.setAttemptDate(LocalDateTime.now());
+        result.setStatus(score >= (paper.size() / 2.0) ? "Pass" : "Fail");
+        result.setAnswers(given);
+        result.setAttemptNumber(attemptNumber);
+        result.setRetakeAllowed(false);
+        result.setMaxAttempts(999);
+
+        result = resultRepository.save(result);
+
+        // last: holds the quiz's stats row lock until commit
+        statsService.record(quizId, QuizStatsService.Graded.of(result), replaced);
+
+        return result;
+    }
+}
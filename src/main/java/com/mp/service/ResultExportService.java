@@ -0,0 +1,120 @@
+package com.mp.service;
+
+import com.mp.dto.ResultExportRow;
+import com.mp.repository.QuizResultRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Results CSV export in constant memory.
+ *
+ * Rows come from a projection query read through a database cursor
+ * (fetch size 1000, see QuizResultRepository#streamExportRows) and are
+ * written straight to the response through one buffer, so a 200k-row
+ * export never holds more than one fetch of rows. Text fields are quoted
+ * per RFC 4180 when needed.
+ */
+@Service
+public class ResultExportService {
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final QuizResultRepository resultRepository;
+
+    public ResultExportService(QuizResultRepository resultRepository) {
+        this.resultRepository = resultRepository;
+    }
+
+    public long count(Long quizId, LocalDateTime from, LocalDateTime to) {
+        return ranged(from, to)
+                ? resultRepository.countExportRows(quizId, from, to)
+                : resultRepository.countAllExportRows(quizId);
+    }
+
+    // The cursor needs the transaction open for as long as rows are read
+    @Transactional(readOnly = true)
+    public void writeCsv(Long quizId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER);
+        writer.write("Name,Email,Score,Total,Percentage,Status,Attempted On\n");
+
+        Stream<ResultExportRow> stream = ranged(from, to)
+                ? resultRepository.streamExportRows(quizId, from, to)
+                : resultRepository.streamAllExportRows(quizId);
+
+        try (Stream<ResultExportRow> rows = stream) {
+            rows.forEach(row -> {
+                try {
+                    writeRow(writer, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private static void writeRow(Writer w, ResultExportRow r) throws IOException {
+
+        int percentage = r.totalQuestions() == 0
+                ? 0
+                : (int) Math.round((r.score() * 100.0) / r.totalQuestions());
+
+        writeText(w, r.name());
+        w.write(',');
+        writeText(w, r.email());
+        w.write(',');
+        w.write(Integer.toString(r.score()));
+        w.write(',');
+        w.write(Integer.toString(r.totalQuestions()));
+        w.write(',');
+        w.write(Integer.toString(percentage));
+        w.write("%,");
+        writeText(w, r.status());
+        w.write(',');
+        if (r.attemptDate() != null) w.write(r.attemptDate().toString());
+        w.write('\n');
+    }
+
+    private static void writeText(Writer w, String s) throws IOException {
+
+        if (s == null) return;
+
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            w.write(s);
+            return;
+        }
+
+        w.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') w.write('"');
+            w.write(c);
+        }
+        w.write('"');
+    }
+
+    // Both dates or none (whole export, results without a date included)
+    private static boolean ranged(LocalDateTime from, LocalDateTime to) {
+        return from != null && to != null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.mp.service_attempt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Autosaved answers of open attempts, coalesced in memory.
+ *
+ * Every autosave merges into the attempt's draft (last answer per question
+ * wins) and marks it dirty; nothing is written on the request thread. Every
+ * quiz.attempts.autosave.flush-ms the dirty drafts are written in JDBC
+ * batches, one UPDATE per attempt however many saves it had. The update
+ * merges into quiz_attempts.answers (jsonb ||), so a draft started after a
+ * restart never wipes what was flushed before it. At most one interval of
+ * autosaves is lost if the node dies.
+ */
+@Component
+public class AttemptDraftBuffer {
+
+    private static final String MERGE_ANSWERS =
+            "update quiz_attempts set answers = coalesce(answers, '{}'::jsonb) || cast(? as jsonb) "
+                    + "where id = ? and status = 'IN_PROGRESS'";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // attemptId -> draft
+    private final ConcurrentHashMap<Long, Draft> drafts = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "attempt-autosave");
+                t.setDaemon(true);
+                return t;
+            });
+
+    public AttemptDraftBuffer(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${quiz.attempts.autosave.flush-ms:5000}") long flushMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+
+        flusher.scheduleWithFixedDelay(this::flushDirty, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Blank value = answer cleared
+    public void merge(Long attemptId, Map<Long, String> answers) {
+
+        Draft draft = drafts.computeIfAbsent(attemptId, id -> new Draft());
+
+        answers.forEach((questionId, answer) -> {
+            if (questionId != null) draft.answers.put(questionId, answer == null ? "" : answer);
+        });
+        draft.version.incrementAndGet();
+    }
+
+    public int size(Long attemptId) {
+        Draft draft = drafts.get(attemptId);
+        return draft == null ? 0 : draft.answers.size();
+    }
+
+    /** Copy of the attempt's draft; null if it has none. */
+    public Map<Long, String> snapshot(Long attemptId) {
+        Draft draft = drafts.get(attemptId);
+        return draft == null ? null : new HashMap<>(draft.answers);
+    }
+
+    /** Writes this attempt's draft now (attempt about to close). */
+    public void flush(Long attemptId) {
+        Draft draft = drafts.get(attemptId);
+        if (draft != null && draft.version.get() != draft.flushed) {
+            jdbcTemplate.update(MERGE_ANSWERS, toJson(draft.answers), attemptId);
+        }
+    }
+
+    public void discard(Long attemptId) {
+        drafts.remove(attemptId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushDirty();
+    }
+
+
+    // =====================================================
+    // 💾 FLUSH (batched, dirty drafts only)
+    // =====================================================
+    void flushDirty() {
+
+        try {
+            List<Object[]> batch = new ArrayList<>();
+            List<Runnable> marks = new ArrayList<>();
+
+            for (Map.Entry<Long, Draft> e : drafts.entrySet()) {
+
+                Draft draft = e.getValue();
+                long version = draft.version.get();
+                if (version == draft.flushed) continue;
+
+                batch.add(new Object[]{toJson(draft.answers), e.getKey()});
+                marks.add(() -> draft.flushed = version);
+
+                if (batch.size() == BATCH_SIZE) {
+                    write(batch, marks);
+                }
+            }
+            write(batch, marks);
+
+        } catch (RuntimeException e) {
+            // drafts stay dirty and are retried next round
+            System.err.println("Autosave flush failed: " + e.getMessage());
+        }
+    }
+
+    private void write(List<Object[]> batch, List<Runnable> marks) {
+
+        if (batch.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(MERGE_ANSWERS, batch);
+        marks.forEach(Runnable::run);
+
+        batch.clear();
+        marks.clear();
+    }
+
+    private String toJson(Map<Long, String> answers) {
+        try {
+            return objectMapper.writeValueAsString(answers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Draft {
+
+        // questionId -> answer
+        final ConcurrentHashMap<Long, String> answers = new ConcurrentHashMap<>();
+
+        // bumped by every merge; flushed = version last written by the flusher
+        final AtomicLong version = new AtomicLong();
+        volatile long flushed;
+    }
+}
@@ -0,0 +1,421 @@
+package com.mp.service_attempt;
+
+import com.mp.dto.QuizByCodeDTO;
+import com.mp.entity.QuizAttempt;
+import com.mp.entity.QuizResult;
+import com.mp.exception.AttemptRejectedException;
+import com.mp.exception.ResourceNotFoundException;
+import com.mp.repository.QuizAttemptRepository;
+import com.mp.repository.QuizResultRepository;
+import com.mp.service.QuestionPaperCache;
+import com.mp.service.QuizCodeCache;
+import com.mp.service.QuizSubmissionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side timed attempts.
+ *
+ * "Start" records an attempt with a server deadline: the quiz's total time,
+ * or its per-question time × number of questions, whichever is shorter.
+ * Submits after deadline + grace are refused (TIME_UP), whatever the client
+ * timer says. Open attempts are kept in memory (quiz + student -> deadline)
+ * so a submit does not need a query, and their deadlines sit in a timing
+ * wheel; when one runs out the attempt is auto-submitted with its saved
+ * answers (quiz.autoSubmit) or marked EXPIRED. Open attempts are reloaded
+ * from the database on startup.
+ *
+ * A submit is prepare (deadline check, answers merged; on the request
+ * thread) + complete (grading). The queued submit path runs complete later,
+ * on a worker, see {@link SubmissionQueue}.
+ *
+ * Answers autosaved during the attempt are held by {@link AttemptDraftBuffer};
+ * a submit (student or automatic) is graded from the saved answers with the
+ * submitted ones on top, so an empty submit finalizes the draft as it is.
+ *
+ * With quiz.attempts.required=false a submit without a started attempt is
+ * still graded untimed (clients that never call "start").
+ */
+@Service
+public class AttemptService {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // a failed auto-submit goes back on the wheel this much later
+    private static final long EXPIRY_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final QuizAttemptRepository attemptRepository;
+    private final QuizResultRepository resultRepository;
+    private final QuizCodeCache quizCodeCache;
+    private final QuestionPaperCache questionPaperCache;
+    private final QuizSubmissionService submissionService;
+    private final AttemptDraftBuffer drafts;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long graceMillis;
+    private final boolean attemptRequired;
+
+    private final AttemptTimingWheel wheel;
+
+    // auto-submits run here, never on the wheel thread
+    private final ExecutorService expiryWorker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "attempt-expiry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // quizId:email -> open attempt
+    private final ConcurrentHashMap<String, Open> open = new ConcurrentHashMap<>();
+
+    // cutoffMillis = deadline + grace, NO_DEADLINE for untimed quizzes;
+    // fresh = started on this node, so all its autosaves are in the draft buffer
+    private record Open(Long attemptId, Long quizId, String email, long cutoffMillis, boolean fresh) {
+    }
+
+    public AttemptService(
+            QuizAttemptRepository attemptRepository,
+            QuizResultRepository resultRepository,
+            QuizCodeCache quizCodeCache,
+            QuestionPaperCache questionPaperCache,
+            QuizSubmissionService submissionService,
+            AttemptDraftBuffer drafts,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${quiz.attempts.grace-seconds:10}") long graceSeconds,
+            @Value("${quiz.attempts.required:false}") boolean attemptRequired,
+            @Value("${quiz.attempts.wheel-size:512}") int wheelSize,
+            @Value("${quiz.attempts.tick-ms:1000}") long tickMillis
+    ) {
+        this.attemptRepository = attemptRepository;
+        this.resultRepository = resultRepository;
+        this.quizCodeCache = quizCodeCache;
+        this.questionPaperCache = questionPaperCache;
+        this.submissionService = submissionService;
+        this.drafts = drafts;
+        this.transactionTemplate = transactionTemplate;
+        this.graceMillis = TimeUnit.SECONDS.toMillis(Math.max(0, graceSeconds));
+        this.attemptRequired = attemptRequired;
+
+        this.wheel = new AttemptTimingWheel("attempt-deadlines", wheelSize, tickMillis, this::expired);
+
+        Gauge.builder("quiz.attempts.open", open, Map::size)
+                .description("Open quiz attempts held in memory")
+                .register(meterRegistry);
+    }
+
+
+    // =====================================================
+    // 1️⃣ START (or resume the open attempt)
+    // =====================================================
+    public QuizAttempt start(String quizCode, String email) {
+
+        QuizByCodeDTO quiz = quizCodeCache.get(quizCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+
+        if (!quiz.active()) {
+            throw new AttemptRejectedException("DEACTIVATED", "This quiz has been deactivated by the creator.");
+        }
+
+        QuizAttempt current = attemptRepository
+                .findFirstByQuizIdAndUserEmailAndStatusOrderByIdDesc(quiz.id(), email, QuizAttempt.IN_PROGRESS)
+                .orElse(null);
+
+        // reload / second tab: same attempt, same deadline
+        if (current != null) {
+            track(current, false);
+            return current;
+        }
+
+        resultRepository.findByQuiz_IdAndUser_Email(quiz.id(), email)
+                .filter(r -> !r.isRetakeAllowed())
+                .ifPresent(r -> {
+                    throw new AttemptRejectedException("RETAKE_NOT_ALLOWED", "Retake not allowed yet");
+                });
+
+        LocalDateTime now = LocalDateTime.now();
+
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setQuizId(quiz.id());
+        attempt.setUserEmail(email);
+        attempt.setStatus(QuizAttempt.IN_PROGRESS);
+        attempt.setStartedAt(now);
+        attempt.setDeadline(deadline(quiz, now));
+        attempt.setAutoSubmit(quiz.autoSubmit());
+
+        attempt = attemptRepository.save(attempt);
+        track(attempt, true);
+        return attempt;
+    }
+
+    public QuizAttempt current(Long quizId, String email) {
+        return attemptRepository
+                .findFirstByQuizIdAndUserEmailAndStatusOrderByIdDesc(quizId, email, QuizAttempt.IN_PROGRESS)
+                .orElseThrow(() -> new ResourceNotFoundException("No attempt in progress"));
+    }
+
+
+    // =====================================================
+    // 2️⃣ AUTOSAVE (partial answers, merged in memory)
+    // =====================================================
+    public int autosave(QuizByCodeDTO quiz, String email, Map<Long, String> answers) {
+
+        Open attempt = openAttempt(quiz.id(), email);
+
+        if (attempt == null) {
+            throw new AttemptRejectedException("NO_ATTEMPT", "Start the quiz before saving answers");
+        }
+        if (System.currentTimeMillis() > attempt.cutoffMillis()) {
+            throw new AttemptRejectedException("TIME_UP", "Time is up for this attempt");
+        }
+        if (answers.size() > questionPaperCache.get(quiz.id()).size()) {
+            throw new RuntimeException("More answers than questions");
+        }
+
+        drafts.merge(attempt.attemptId(), answers);
+        return drafts.size(attempt.attemptId());
+    }
+
+
+    // =====================================================
+    // 3️⃣ SUBMIT (student) — refused after deadline + grace
+    // =====================================================
+    public QuizResult submit(QuizByCodeDTO quiz, String email, Map<Long, String> answers) {
+
+        Submission submission = prepare(quiz, email, answers);
+        QuizResult result = complete(submission);
+
+        release(submission);
+        return result;
+    }
+
+    /**
+     * Final answer sheet of a submit, checked against the attempt's deadline
+     * at the time it is received. attemptId is null for a submit without a
+     * started attempt.
+     */
+    public record Submission(Long quizId, String email, Long attemptId, Map<Long, String> answers) {
+    }
+
+    public Submission prepare(QuizByCodeDTO quiz, String email, Map<Long, String> answers) {
+
+        Open attempt = openAttempt(quiz.id(), email);
+
+        if (attempt == null && attemptRequired) {
+            throw new AttemptRejectedException("NO_ATTEMPT", "Start the quiz before submitting");
+        }
+        if (attempt != null && System.currentTimeMillis() > attempt.cutoffMillis()) {
+            throw new AttemptRejectedException("TIME_UP", "Time is up for this attempt");
+        }
+
+        if (attempt == null) {
+            return new Submission(quiz.id(), email, null, answers);
+        }
+
+        Map<Long, String> flushed = attempt.fresh() ? null : savedAnswers(attempt.attemptId());
+        return new Submission(quiz.id(), email, attempt.attemptId(), withSaved(attempt.attemptId(), flushed, answers));
+    }
+
+    /**
+     * Grades and stores the result. The attempt is closed first, in the same
+     * transaction, so only one of a student submit and a deadline auto-submit
+     * racing in the grace window grades it; the other is rejected.
+     */
+    public QuizResult complete(Submission submission) {
+
+        return transactionTemplate.execute(status ->
+                grade(submission.attemptId(), submission.quizId(), submission.email(), submission.answers()));
+    }
+
+    // Caller's transaction; attemptId null = untimed submit
+    private QuizResult grade(Long attemptId, Long quizId, String email, Map<Long, String> answers) {
+
+        if (attemptId != null
+                && attemptRepository.close(attemptId, QuizAttempt.SUBMITTED, LocalDateTime.now(), null) != 1) {
+            throw new AttemptRejectedException("ALREADY_CLOSED", "This attempt was already submitted or expired");
+        }
+
+        QuizResult r = submissionService.submit(quizId, email, answers);
+
+        if (attemptId != null) attemptRepository.attachResult(attemptId, r.getId());
+        return r;
+    }
+
+    /** Drops the in-memory state of a submitted (or handed over) attempt. */
+    public void release(Submission submission) {
+
+        Long attemptId = submission.attemptId();
+        if (attemptId == null) return;
+
+        open.computeIfPresent(key(submission.quizId(), submission.email()),
+                (k, v) -> v.attemptId().equals(attemptId) ? null : v);
+        wheel.cancel(attemptId);
+        drafts.discard(attemptId);
+    }
+
+    // In memory, or from the DB after a restart / on another node
+    private Open openAttempt(Long quizId, String email) {
+
+        Open attempt = open.get(key(quizId, email));
+        if (attempt != null) return attempt;
+
+        return attemptRepository
+                .findFirstByQuizIdAndUserEmailAndStatusOrderByIdDesc(quizId, email, QuizAttempt.IN_PROGRESS)
+                .map(a -> track(a, false))
+                .orElse(null);
+    }
+
+    // flushed answers (DB) < draft < submitted
+    private Map<Long, String> withSaved(Long attemptId, Map<Long, String> flushed, Map<Long, String> submitted) {
+
+        Map<Long, String> merged = new HashMap<>();
+        if (flushed != null) merged.putAll(flushed);
+
+        Map<Long, String> draft = drafts.snapshot(attemptId);
+        if (draft != null) merged.putAll(draft);
+
+        merged.putAll(submitted);
+        return merged;
+    }
+
+    private Map<Long, String> savedAnswers(Long attemptId) {
+        return attemptRepository.findById(attemptId).map(QuizAttempt::getAnswers).orElse(null);
+    }
+
+
+    // =====================================================
+    // ⏱ DEADLINES
+    // =====================================================
+    // Per-question time is enforced as a bound on the whole attempt
+    private LocalDateTime deadline(QuizByCodeDTO quiz, LocalDateTime start) {
+
+        long limitSeconds = Long.MAX_VALUE;
+
+        if (quiz.totalTimeMinutes() != null && quiz.totalTimeMinutes() > 0) {
+            limitSeconds = quiz.totalTimeMinutes() * 60L;
+        }
+        if (quiz.perQuestionTimeSeconds() != null && quiz.perQuestionTimeSeconds() > 0) {
+            long questions = questionPaperCache.get(quiz.id()).size();
+            limitSeconds = Math.min(limitSeconds, quiz.perQuestionTimeSeconds() * questions);
+        }
+
+        return limitSeconds == Long.MAX_VALUE ? null : start.plusSeconds(limitSeconds);
+    }
+
+    private Open track(QuizAttempt a, boolean fresh) {
+
+        if (!QuizAttempt.IN_PROGRESS.equals(a.getStatus())) return null;
+
+        long cutoff = a.getDeadline() == null
+                ? NO_DEADLINE
+                : a.getDeadline().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + graceMillis;
+
+        String key = key(a.getQuizId(), a.getUserEmail());
+
+        Open known = open.get(key);
+        if (known != null && known.attemptId().equals(a.getId())) return known;
+
+        Open attempt = new Open(a.getId(), a.getQuizId(), a.getUserEmail(), cutoff, fresh);
+        open.put(key, attempt);
+
+        if (cutoff != NO_DEADLINE) wheel.schedule(a.getId(), cutoff);
+        return attempt;
+    }
+
+    // Wheel thread: hand the batch over
+    private void expired(List<Long> attemptIds) {
+        expiryWorker.execute(() -> attemptIds.forEach(this::expire));
+    }
+
+    private void expire(Long attemptId) {
+
+        QuizAttempt a;
+        try {
+            a = attemptRepository.findById(attemptId).orElse(null);
+        } catch (RuntimeException e) {
+            retryExpiry(attemptId, e);
+            return;
+        }
+        if (a == null) return;
+
+        if (!QuizAttempt.IN_PROGRESS.equals(a.getStatus())) {
+            forget(a);
+            return;
+        }
+
+        try {
+            if (a.isAutoSubmit()) {
+                Map<Long, String> answers = withSaved(attemptId, a.getAnswers(), Map.of());
+                transactionTemplate.executeWithoutResult(status ->
+                        grade(attemptId, a.getQuizId(), a.getUserEmail(), answers));
+            } else {
+                drafts.flush(attemptId); // keep what was saved for the teacher
+                closeExpired(attemptId);
+            }
+            forget(a);
+        } catch (AttemptRejectedException e) {
+            // e.g. submitted meanwhile, or graded through another attempt
+            closeExpired(attemptId);
+            forget(a);
+        } catch (RuntimeException e) {
+            // still open (past its cutoff, so student submits are refused): try again later
+            retryExpiry(attemptId, e);
+        }
+    }
+
+    private void retryExpiry(Long attemptId, RuntimeException e) {
+        System.err.println("Auto-submit failed for attempt " + attemptId + ", retrying: " + e.getMessage());
+        wheel.schedule(attemptId, System.currentTimeMillis() + EXPIRY_RETRY_MILLIS);
+    }
+
+    private void forget(QuizAttempt a) {
+        open.computeIfPresent(key(a.getQuizId(), a.getUserEmail()),
+                (k, v) -> v.attemptId().equals(a.getId()) ? null : v);
+        drafts.discard(a.getId());
+    }
+
+    private void closeExpired(Long attemptId) {
+        transactionTemplate.executeWithoutResult(status ->
+                attemptRepository.close(attemptId, QuizAttempt.EXPIRED, LocalDateTime.now(), null));
+    }
+
+
+    // =====================================================
+    // 🔁 RESTART: reload open attempts
+    // =====================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadOpenAttempts() {
+
+        List<QuizAttempt> attempts = attemptRepository.findByStatus(QuizAttempt.IN_PROGRESS);
+        attempts.forEach(a -> track(a, false));
+
+        if (!attempts.isEmpty()) {
+            System.out.println("Reloaded " + attempts.size() + " open quiz attempts");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+        expiryWorker.shutdownNow();
+    }
+
+    private static String key(Long quizId, String email) {
+        return quizId + ":" + email;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mp.service_attempt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for attempt deadlines.
+ *
+ * One daemon thread advances the wheel every tick; a deadline lives in the
+ * slot of its tick (mod wheel size) and is only looked at when that slot
+ * comes round, so 10k open attempts cost one thread and one object each.
+ * Deadlines further away than one turn stay in their slot for later turns.
+ * New deadlines are handed to the ticker through a queue, so the slots are
+ * only ever touched by the ticker thread. Cancelling just flags the entry.
+ *
+ * Expired ids are passed to the callback in one list per tick, on the
+ * ticker thread: the callback must hand real work to another thread.
+ */
+final class AttemptTimingWheel {
+
+    private final long tickMillis;
+    private final ArrayDeque<Timeout>[] slots;
+    private final long startMillis = System.currentTimeMillis();
+
+    private final ConcurrentLinkedQueue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Long, Timeout> pending = new ConcurrentHashMap<>();
+    private final Consumer<List<Long>> onExpired;
+    private final ScheduledExecutorService ticker;
+
+    // next tick to process (ticker thread only)
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    AttemptTimingWheel(String threadName, int wheelSize, long tickMillis, Consumer<List<Long>> onExpired) {
+
+        this.tickMillis = Math.max(1, tickMillis);
+        this.onExpired = onExpired;
+        this.slots = new ArrayDeque[Math.max(1, wheelSize)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, this.tickMillis, this.tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** (Re)schedules id to expire at dueMillis (epoch millis). */
+    void schedule(long id, long dueMillis) {
+
+        Timeout t = new Timeout(id, dueMillis);
+        Timeout old = pending.put(id, t);
+        if (old != null) old.cancelled = true;
+        incoming.add(t);
+    }
+
+    void cancel(long id) {
+        Timeout t = pending.remove(id);
+        if (t != null) t.cancelled = true;
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void advance() {
+
+        try {
+            long now = System.currentTimeMillis();
+            long target = (now - startMillis) / tickMillis;
+
+            Timeout t;
+            while ((t = incoming.poll()) != null) {
+                if (t.cancelled) continue;
+                // first tick at or after the deadline, never one already processed
+                long due = Math.max((t.dueMillis - startMillis + tickMillis - 1) / tickMillis, tick);
+                slots[(int) (due % slots.length)].add(t);
+            }
+
+            List<Long> expired = new ArrayList<>();
+
+            // catches up ticks missed during a pause
+            for (; tick <= target; tick++) {
+
+                ArrayDeque<Timeout> slot = slots[(int) (tick % slots.length)];
+
+                for (int n = slot.size(); n > 0; n--) {
+                    Timeout x = slot.poll();
+                    if (x.cancelled) continue;
+                    if (x.dueMillis <= now) {
+                        if (pending.remove(x.id, x)) expired.add(x.id);
+                    } else {
+                        slot.add(x); // a later turn of the wheel
+                    }
+                }
+            }
+
+            if (!expired.isEmpty()) onExpired.accept(expired);
+
+        } catch (RuntimeException e) {
+            // a failing tick must not stop the wheel
+            System.err.println("Attempt timing wheel tick failed: " + e.getMessage());
+        }
+    }
+
+    private static final class Timeout {
+
+        final long id;
+        final long dueMillis;
+        volatile boolean cancelled;
+
+        Timeout(long id, long dueMillis) {
+            this.id = id;
+            this.dueMillis = dueMillis;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.mp.service_attempt;
+
+import com.mp.dto.QuizByCodeDTO;
+import com.mp.dto.SubmissionReceiptDTO;
+import com.mp.entity.QuizAttempt;
+import com.mp.entity.QuizResult;
+import com.mp.entity.QuizSubmission;
+import com.mp.exception.AttemptRejectedException;
+import com.mp.exception.ResourceNotFoundException;
+import com.mp.repository.QuizAttemptRepository;
+import com.mp.repository.QuizSubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queued submit path (quiz.submissions.queued=true).
+ *
+ * When a timed exam ends every student submits at once. The request only
+ * checks the deadline, merges the draft and inserts the answer sheet into
+ * quiz_submissions (the attempt turns SUBMITTING in the same transaction),
+ * then returns 202 with a receipt. Grading and the QuizResult insert happen
+ * on worker threads: each claims a batch of queued rows with
+ * FOR UPDATE SKIP LOCKED and grades them one transaction per row, so a
+ * spike becomes a short queue instead of a pile of long request
+ * transactions.
+ *
+ * One receipt per attempt (idempotency key "attempt:{id}"): a repeated
+ * submit gets the receipt it already has. Rows claimed by a worker that
+ * died are claimed again after quiz.submissions.claim-timeout-seconds.
+ */
+@Service
+public class SubmissionQueue {
+
+    private static final String CLAIM =
+            "update quiz_submissions set status = 'PROCESSING', claimed_at = ?, tries = tries + 1 "
+                    + "where id in (select id from quiz_submissions "
+                    + "where status = 'QUEUED' or (status = 'PROCESSING' and claimed_at < ?) "
+                    + "order by id limit ? for update skip locked) "
+                    + "returning id";
+
+    private static final int MAX_TRIES = 5;
+
+    private final AttemptService attemptService;
+    private final QuizSubmissionRepository submissionRepository;
+    private final QuizAttemptRepository attemptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long pollMillis;
+    private final long claimTimeoutSeconds;
+
+    private final Counter accepted;
+    private final Counter graded;
+
+    // enqueue wakes a waiting worker; otherwise they poll
+    private final Semaphore wakeup = new Semaphore(0);
+    private final ExecutorService pool;
+    private volatile boolean running = true;
+
+    public SubmissionQueue(
+            AttemptService attemptService,
+            QuizSubmissionRepository submissionRepository,
+            QuizAttemptRepository attemptRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${quiz.submissions.queued:false}") boolean enabled,
+            @Value("${quiz.submissions.workers:2}") int workers,
+            @Value("${quiz.submissions.batch-size:50}") int batchSize,
+            @Value("${quiz.submissions.poll-ms:500}") long pollMillis,
+            @Value("${quiz.submissions.claim-timeout-seconds:60}") long claimTimeoutSeconds
+    ) {
+        this.attemptService = attemptService;
+        this.submissionRepository = submissionRepository;
+        this.attemptRepository = attemptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMillis = Math.max(10, pollMillis);
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+
+        this.accepted = Counter.builder("quiz.submissions").tag("result", "accepted").register(meterRegistry);
+        this.graded = Counter.builder("quiz.submissions").tag("result", "graded").register(meterRegistry);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread t = new Thread(r, "submission-worker-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+
+    // =====================================================
+    // 1️⃣ ENQUEUE (request thread)
+    // =====================================================
+    public SubmissionReceiptDTO enqueue(QuizByCodeDTO quiz, String email, Map<Long, String> answers, String clientKey) {
+
+        AttemptService.Submission submission;
+        try {
+            submission = attemptService.prepare(quiz, email, answers);
+        } catch (AttemptRejectedException e) {
+            // attempt already handed over by an earlier submit
+            if (!"NO_ATTEMPT".equals(e.getReason())) throw e;
+            return pendingReceipt(quiz.id(), email).orElseThrow(() -> e);
+        }
+
+        if (submission.attemptId() == null) {
+            SubmissionReceiptDTO pending = pendingReceipt(quiz.id(), email).orElse(null);
+            if (pending != null) return pending;
+        }
+
+        String key = submission.attemptId() != null
+                ? "attempt:" + submission.attemptId()
+                : clientKey != null && !clientKey.isBlank()
+                ? truncate("client:" + email + ":" + clientKey, 200)
+                : "once:" + UUID.randomUUID();
+
+        QuizSubmission row = new QuizSubmission();
+        row.setIdempotencyKey(key);
+        row.setQuizId(submission.quizId());
+        row.setUserEmail(email);
+        row.setAttemptId(submission.attemptId());
+        row.setAnswers(submission.answers());
+        row.setStatus(QuizSubmission.QUEUED);
+        row.setReceivedAt(LocalDateTime.now());
+
+        QuizSubmission saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                QuizSubmission inserted = submissionRepository.save(row);
+                if (submission.attemptId() != null) attemptRepository.markSubmitting(submission.attemptId());
+                return inserted;
+            });
+        } catch (DataIntegrityViolationException duplicate) {
+            return submissionRepository.findByIdempotencyKey(key)
+                    .map(SubmissionReceiptDTO::of)
+                    .orElseThrow(() -> duplicate);
+        }
+
+        attemptService.release(submission);
+        accepted.increment();
+        wakeup.release();
+
+        return SubmissionReceiptDTO.of(saved);
+    }
+
+    public SubmissionReceiptDTO receipt(Long receiptId, String email) {
+
+        QuizSubmission row = submissionRepository.findById(receiptId)
+                .filter(s -> s.getUserEmail().equals(email))
+                .orElseThrow(() -> new ResourceNotFoundException("Submission not found"));
+
+        return SubmissionReceiptDTO.of(row);
+    }
+
+    private Optional<SubmissionReceiptDTO> pendingReceipt(Long quizId, String email) {
+        return attemptRepository
+                .findFirstByQuizIdAndUserEmailAndStatusOrderByIdDesc(quizId, email, QuizAttempt.SUBMITTING)
+                .flatMap(a -> submissionRepository.findByIdempotencyKey("attempt:" + a.getId()))
+                .map(SubmissionReceiptDTO::of);
+    }
+
+
+    // =====================================================
+    // 2️⃣ WORKERS (claim a batch, grade row by row)
+    // =====================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+
+        if (!enabled) return;
+
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::work);
+        }
+    }
+
+    private void work() {
+
+        while (running) {
+            try {
+                List<Long> claimed = claim();
+
+                if (claimed.isEmpty()) {
+                    wakeup.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                claimed.forEach(this::process);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Submission worker error: " + e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    private List<Long> claim() {
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp stale = Timestamp.valueOf(now.minusSeconds(claimTimeoutSeconds));
+
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForList(
+                CLAIM, Long.class, Timestamp.valueOf(now), stale, batchSize
+        ));
+    }
+
+    private void process(Long id) {
+
+        QuizSubmission row = submissionRepository.findById(id).orElse(null);
+        if (row == null || !QuizSubmission.PROCESSING.equals(row.getStatus())) return;
+
+        AttemptService.Submission submission = new AttemptService.Submission(
+                row.getQuizId(), row.getUserEmail(), row.getAttemptId(), row.getAnswers()
+        );
+
+        try {
+            // result, attempt and receipt commit together
+            transactionTemplate.executeWithoutResult(status -> {
+                QuizResult r = attemptService.complete(submission);
+                row.setStatus(QuizSubmission.DONE);
+                row.setResultId(r.getId());
+                row.setScore(r.getScore());
+                row.setTotalQuestions(r.getTotalQuestions());
+                row.setAttemptNumber(r.getAttemptNumber());
+                row.setProcessedAt(LocalDateTime.now());
+                submissionRepository.save(row);
+            });
+            graded.increment();
+
+        } catch (AttemptRejectedException e) {
+            finish(row, QuizSubmission.REJECTED, e.getReason(), e.getMessage());
+
+        } catch (RuntimeException e) {
+            if (row.getTries() >= MAX_TRIES) {
+                finish(row, QuizSubmission.FAILED, "ERROR", e.getMessage());
+            } else {
+                requeue(row);
+            }
+        }
+    }
+
+    // not graded: the attempt is closed without a result
+    private void finish(QuizSubmission row, String status, String reason, String message) {
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            row.setStatus(status);
+            row.setReason(reason);
+            row.setMessage(truncate(message, 500));
+            row.setProcessedAt(LocalDateTime.now());
+            submissionRepository.save(row);
+
+            if (row.getAttemptId() != null) {
+                attemptRepository.close(row.getAttemptId(), QuizAttempt.EXPIRED, LocalDateTime.now(), null);
+            }
+        });
+    }
+
+    private void requeue(QuizSubmission row) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            row.setStatus(QuizSubmission.QUEUED);
+            submissionRepository.save(row);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        pool.shutdownNow();
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String truncate(String s, int max) {
+        return s == null || s.length() <= max ? s : s.substring(0, max);
+    }
+}
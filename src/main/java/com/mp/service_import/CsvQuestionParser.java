@@ -0,0 +1,57 @@
+package com.mp.service_import;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * question,option1,option2,option3,option4,correctAnswer (first record is a header)
+ *
+ * RFC 4180: fields may be quoted and then contain commas, "" and line breaks.
+ * Reported line numbers are the line a record starts on.
+ */
+@Component
+public class CsvQuestionParser implements QuestionFileParser {
+
+    @Override
+    public boolean supports(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    @Override
+    public void parse(InputStream in, QuestionRowHandler handler) throws IOException {
+
+        CsvReader reader = new CsvReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8)
+        );
+
+        boolean header = true;
+
+        while (reader.next()) {
+
+            if (header) {
+                header = false;
+                continue;
+            }
+            if (reader.isBlankRecord()) continue;
+
+            int columns = reader.fieldCount();
+            if (columns < 6) {
+                handler.error(reader.line(), "Expected 6 columns, found " + columns);
+                continue;
+            }
+
+            handler.row(new ImportedQuestion(
+                    reader.line(),
+                    reader.field(0),
+                    List.of(reader.field(1), reader.field(2), reader.field(3), reader.field(4)),
+                    reader.field(5)
+            ));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.mp.service_import;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 reader.
+ *
+ * - quoted fields, "" as an escaped quote, commas and line breaks inside quotes
+ * - CRLF, LF or CR record separators
+ * - UTF-8 byte order mark at the start of the input is skipped
+ *
+ * One read buffer and one record buffer are reused for the whole file: field
+ * characters are copied once into the record buffer and only the fields the
+ * caller asks for become Strings (already trimmed, see {@link #field(int)}).
+ */
+public final class CsvReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader in;
+
+    private final char[] buf;
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    // Current record: chars of all fields back to back + field boundaries
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private int fieldCount;
+
+    private int line = 1;          // line the next record starts on
+    private int recordLine;        // line the current record started on
+    private boolean started;
+
+    public CsvReader(Reader in) {
+        this(in, 64 * 1024);
+    }
+
+    public CsvReader(Reader in, int bufferSize) {
+        this.in = in;
+        this.buf = new char[bufferSize];
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return false at end of input
+     * @throws IOException also for an unterminated quoted field
+     */
+    public boolean next() throws IOException {
+
+        if (!started) {
+            started = true;
+            if (fill() && buf[pos] == BOM) pos++;
+        }
+
+        recordLength = 0;
+        fieldCount = 0;
+        recordLine = line;
+
+        if (pos >= limit && !fill()) {
+            return false;
+        }
+
+        int start = 0;
+        boolean quoted = false;
+
+        while (true) {
+
+            if (pos >= limit && !fill()) {
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                endField(start);
+                return true;
+            }
+
+            char c = buf[pos++];
+
+            if (quoted) {
+                if (c == '"') {
+                    // "" → literal quote, otherwise closing quote
+                    if (pos >= limit && !fill()) {
+                        quoted = false;
+                        continue;
+                    }
+                    if (buf[pos] == '"') {
+                        append('"');
+                        pos++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n' || (c == '\r' && !peekLf())) line++;
+                    append(c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    // quote only opens a quoted section at field start (after spaces)
+                    if (onlyBlanksSince(start)) {
+                        recordLength = start;
+                        quoted = true;
+                    } else {
+                        append(c);
+                    }
+                }
+                case ',' -> {
+                    endField(start);
+                    start = recordLength;
+                }
+                case '\r' -> {
+                    if (pos < limit || fill()) {
+                        if (buf[pos] == '\n') pos++;
+                    }
+                    line++;
+                    endField(start);
+                    return true;
+                }
+                case '\n' -> {
+                    line++;
+                    endField(start);
+                    return true;
+                }
+                default -> append(c);
+            }
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /** Line (1-based) on which the current record starts. */
+    public int line() {
+        return recordLine;
+    }
+
+    /** Field i, trimmed; "" if the record has fewer fields. */
+    public String field(int i) {
+
+        if (i >= fieldCount) return "";
+
+        int s = fieldStart[i];
+        int e = fieldEnd[i];
+        while (s < e && record[s] <= ' ') s++;
+        while (e > s && record[e - 1] <= ' ') e--;
+
+        return new String(record, s, e - s);
+    }
+
+    /** True for an empty line (one empty field). */
+    public boolean isBlankRecord() {
+        if (fieldCount > 1) return false;
+        for (int i = 0; i < recordLength; i++) {
+            if (record[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------
+
+    private boolean peekLf() throws IOException {
+        if (pos >= limit && !fill()) return false;
+        return buf[pos] == '\n';
+    }
+
+    private boolean onlyBlanksSince(int start) {
+        for (int i = start; i < recordLength; i++) {
+            if (record[i] != ' ' && record[i] != '\t') return false;
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = c;
+    }
+
+    private void endField(int start) {
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    private boolean fill() throws IOException {
+
+        if (eof) return false;
+
+        int n;
+        do {
+            n = in.read(buf, 0, buf.length);
+        } while (n == 0);
+
+        if (n < 0) {
+            eof = true;
+            pos = limit = 0;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,293 @@
+package com.mp.service_import;
+
+import com.mp.dto.ImportJobDTO;
+import com.mp.dto.ImportReportDTO;
+import com.mp.entity.Quiz;
+import com.mp.exception.ResourceNotFoundException;
+import com.mp.service.QuizCodeCache;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background question imports.
+ *
+ * The upload is copied to a staging file (the multipart temp file is gone
+ * once the request ends) and the request returns a job id at once. Jobs run
+ * on a bounded pool; a full queue is refused instead of piling up uploads.
+ * Progress is polled from GET /api/quizzes/imports/{jobId} or followed on
+ * /topic/import/{jobId}. Job state is in memory and kept for
+ * import.job-retention-minutes after the job ends.
+ */
+@Service
+public class ImportJobService {
+
+    // Progress frames at most this often per job
+    private static final long PUBLISH_INTERVAL_MS = 500;
+
+    private final QuestionImportService importService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final QuizCodeCache quizCodeCache;
+
+    private final Path stagingDir;
+    private final long retentionMillis;
+    private final ThreadPoolExecutor workers;
+
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(
+            QuestionImportService importService,
+            SimpMessagingTemplate messagingTemplate,
+            QuizCodeCache quizCodeCache,
+            @Value("${import.staging-dir:data/import-staging}") String stagingDir,
+            @Value("${import.workers:2}") int workers,
+            @Value("${import.queue-capacity:20}") int queueCapacity,
+            @Value("${import.job-retention-minutes:60}") long retentionMinutes
+    ) {
+        this.importService = importService;
+        this.messagingTemplate = messagingTemplate;
+        this.quizCodeCache = quizCodeCache;
+        this.stagingDir = Path.of(stagingDir);
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workers, workers,
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "question-import-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+    }
+
+
+    // =====================================================
+    // 📥 SUBMIT (request thread: stage the file, return at once)
+    // =====================================================
+    public ImportJobDTO submit(Quiz quiz, MultipartFile file, String ownerEmail) {
+
+        String fileName = file.getOriginalFilename();
+        if (!importService.supports(fileName)) {
+            throw new RuntimeException("Unsupported file format");
+        }
+
+        evictExpired();
+
+        Job job = new Job(UUID.randomUUID().toString(), quiz.getId(), quiz.getCode(), fileName, ownerEmail);
+
+        try {
+            Files.createDirectories(stagingDir);
+            job.staged = stagingDir.resolve(job.id + ".upload");
+            file.transferTo(job.staged);
+            job.totalBytes = Files.size(job.staged);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stage upload: " + e.getMessage());
+        }
+
+        jobs.put(job.id, job);
+
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteStaged(job);
+            throw new RuntimeException("Import queue is full, try again later");
+        }
+
+        return job.toDTO();
+    }
+
+    public ImportJobDTO get(String jobId, String requesterEmail) {
+
+        Job job = jobs.get(jobId);
+        if (job == null || !job.ownerEmail.equals(requesterEmail)) {
+            throw new ResourceNotFoundException("Import job not found");
+        }
+        return job.toDTO();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+
+    // =====================================================
+    // ⚙ WORKER
+    // =====================================================
+    private void run(Job job) {
+
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        job.startedNanos = System.nanoTime();
+        publish(job, true);
+
+        try (InputStream in = new CountingInputStream(Files.newInputStream(job.staged), job.bytesRead)) {
+
+            ImportReportDTO report = importService.importQuestions(
+                    job.quizId,
+                    job.fileName,
+                    in,
+                    progress -> {
+                        job.imported = progress.imported;
+                        job.rejected = progress.rejected;
+                        job.duplicates = progress.duplicates;
+                        publish(job, false);
+                    }
+            );
+
+            job.report = report;
+            job.imported = report.imported;
+            job.rejected = report.rejected;
+            job.duplicates = report.duplicates;
+            job.status = "DONE";
+
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            job.finishedMillis = System.currentTimeMillis();
+            deleteStaged(job);
+            quizCodeCache.evict(job.quizCode); // questionsCount changed
+            publish(job, true);
+        }
+    }
+
+    private void publish(Job job, boolean force) {
+
+        long now = System.currentTimeMillis();
+        if (!force && now - job.lastPublished < PUBLISH_INTERVAL_MS) return;
+        job.lastPublished = now;
+
+        messagingTemplate.convertAndSend("/topic/import/" + job.id, job.toDTO());
+    }
+
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(j -> j.finishedMillis != 0 && j.finishedMillis < cutoff);
+    }
+
+    private void deleteStaged(Job job) {
+        try {
+            if (job.staged != null) Files.deleteIfExists(job.staged);
+        } catch (IOException ignored) {
+        }
+    }
+
+
+    // Written by one worker thread, read by pollers
+    private static final class Job {
+
+        final String id;
+        final Long quizId;
+        final String quizCode;
+        final String fileName;
+        final String ownerEmail;
+        final LocalDateTime createdAt = LocalDateTime.now();
+
+        Path staged;
+        volatile long totalBytes;
+        final AtomicLong bytesRead = new AtomicLong();
+
+        volatile String status = "QUEUED";
+        volatile int imported;
+        volatile int rejected;
+        volatile int duplicates;
+        volatile String error;
+        volatile ImportReportDTO report;
+
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile long startedNanos;
+        volatile long finishedMillis;
+        volatile long lastPublished;
+
+        Job(String id, Long quizId, String quizCode, String fileName, String ownerEmail) {
+            this.id = id;
+            this.quizId = quizId;
+            this.quizCode = quizCode;
+            this.fileName = fileName;
+            this.ownerEmail = ownerEmail;
+        }
+
+        ImportJobDTO toDTO() {
+
+            ImportJobDTO dto = new ImportJobDTO();
+            dto.jobId = id;
+            dto.quizId = quizId;
+            dto.fileName = fileName;
+            dto.status = status;
+            dto.totalBytes = totalBytes;
+            dto.bytesRead = bytesRead.get();
+            dto.percent = "DONE".equals(status) ? 100
+                    : totalBytes == 0 ? 0 : (int) Math.min(99, dto.bytesRead * 100 / totalBytes);
+            dto.imported = imported;
+            dto.rejected = rejected;
+            dto.duplicates = duplicates;
+            dto.createdAt = createdAt;
+            dto.startedAt = startedAt;
+            dto.finishedAt = finishedAt;
+            dto.error = error;
+            dto.report = report;
+
+            if (startedNanos != 0) {
+                double seconds = (System.nanoTime() - startedNanos) / 1e9;
+                if (report != null) seconds = report.durationMs / 1000.0;
+                dto.rowsPerSecond = seconds <= 0 ? 0 : (imported + rejected + duplicates) / seconds;
+            }
+            return dto;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count.addAndGet(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
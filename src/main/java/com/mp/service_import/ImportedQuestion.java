@@ -0,0 +1,16 @@
+package com.mp.service_import;
+
+import java.util.List;
+
+/**
+ * One parsed MCQ row, before validation.
+ *
+ * @param line first source line of the row (1-based), for the error report
+ */
+public record ImportedQuestion(
+        int line,
+        String content,
+        List<String> options,
+        String correctAnswer
+) {
+}
@@ -0,0 +1,150 @@
+package com.mp.service_import;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * JSON array of questions, or an object with a "questions" array:
+ *
+ *   [ { "question": "2 + 2 = ?", "options": ["1", "2", "3", "4"], "answer": "4" } ]
+ *
+ * Also accepted: content / text, choices, correctAnswer / correct_answer.
+ * Read token by token with the streaming parser; no tree is built, so only
+ * the current question is in memory. Unknown fields are skipped.
+ */
+@Component
+public class JsonQuestionParser implements QuestionFileParser {
+
+    private static final int MIN_OPTIONS = 2;
+    private static final int MAX_OPTIONS = 10;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    public boolean supports(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    @Override
+    public void parse(InputStream in, QuestionRowHandler handler) throws IOException {
+
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+
+            JsonToken token = parser.nextToken();
+
+            if (token == null) return; // empty file
+
+            if (token == JsonToken.START_ARRAY) {
+                readQuestions(parser, handler);
+                return;
+            }
+
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && "questions".equals(name)) {
+                        readQuestions(parser, handler);
+                        return;
+                    }
+                    parser.skipChildren();
+                }
+            }
+
+            throw new IOException("Expected a JSON array of questions");
+        }
+    }
+
+    private void readQuestions(JsonParser parser, QuestionRowHandler handler) throws IOException {
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+
+            if (token == null) {
+                throw new IOException("Unexpected end of JSON");
+            }
+
+            int line = parser.currentTokenLocation().getLineNr();
+
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                handler.error(line, "Expected a question object");
+                continue;
+            }
+
+            readQuestion(parser, line, handler);
+        }
+    }
+
+    private void readQuestion(JsonParser parser, int line, QuestionRowHandler handler) throws IOException {
+
+        String content = null;
+        String answer = null;
+        List<String> options = new ArrayList<>(4);
+        int optionCount = 0;
+        String problem = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (name) {
+                case "question", "content", "text" -> content = scalar(parser);
+                case "answer", "correctAnswer", "correct_answer" -> answer = scalar(parser);
+                case "options", "choices" -> {
+                    if (value != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        problem = "options must be an array";
+                        continue;
+                    }
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        String option = scalar(parser);
+                        if (option == null) problem = "Option " + (optionCount + 1) + " is not a text value";
+                        // keep counting past the limit, but stop collecting
+                        if (++optionCount <= MAX_OPTIONS) options.add(option == null ? "" : option);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (problem != null) {
+            handler.error(line, problem);
+            return;
+        }
+        if (optionCount < MIN_OPTIONS || optionCount > MAX_OPTIONS) {
+            handler.error(line, "Expected " + MIN_OPTIONS + " to " + MAX_OPTIONS
+                    + " options, found " + optionCount);
+            return;
+        }
+
+        handler.row(new ImportedQuestion(
+                line,
+                content == null ? "" : content,
+                List.copyOf(options),
+                answer == null ? "" : answer
+        ));
+    }
+
+    // Strings, numbers and booleans as text; null for null / objects / arrays
+    private static String scalar(JsonParser parser) throws IOException {
+
+        JsonToken token = parser.currentToken();
+
+        if (token == null || token == JsonToken.VALUE_NULL) return null;
+
+        if (!token.isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText().trim();
+    }
+}
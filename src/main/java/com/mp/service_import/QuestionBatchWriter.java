@@ -0,0 +1,103 @@
+package com.mp.service_import;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mp.entity.Question;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes validated questions with plain JDBC batches.
+ *
+ * Ids are taken from the questions identity sequence in one round trip,
+ * so the question rows can be batched (an IDENTITY save through JPA forces
+ * one insert + one select per row). Options go into the row's jsonb column.
+ *
+ * Questions already in the quiz (same {@link Question#contentHash}) are
+ * skipped, found with one indexed lookup per batch.
+ */
+@Component
+public class QuestionBatchWriter {
+
+    private static final String LOCK_QUIZ =
+            "select id from quizzes where id = ? for update";
+
+    private static final String EXISTING_HASHES =
+            "select content_hash from questions where quiz_id = ? and content_hash = any (?)";
+
+    private static final String NEXT_IDS =
+            "select nextval(pg_get_serial_sequence('questions', 'id')) from generate_series(1, ?)";
+
+    private static final String INSERT_QUESTION =
+            "insert into questions (id, content, type, correct_answer, quiz_id, content_hash, options) "
+                    + "values (?, ?, ?, ?, ?, ?, cast(? as jsonb))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public QuestionBatchWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Caller provides the transaction.
+     *
+     * @return questions written; the rest were duplicates of questions already
+     *         in the quiz or earlier in the batch
+     */
+    public int write(Long quizId, List<ImportedQuestion> batch) {
+
+        if (batch.isEmpty()) return 0;
+
+        // Imports into the same quiz take turns per batch, so two uploads of
+        // one file cannot both pass the duplicate check
+        jdbcTemplate.queryForObject(LOCK_QUIZ, Long.class, quizId);
+
+        List<String> hashes = new ArrayList<>(batch.size());
+        for (ImportedQuestion q : batch) {
+            hashes.add(Question.contentHash(q.content(), q.options(), q.correctAnswer()));
+        }
+
+        Set<String> seen = new HashSet<>(jdbcTemplate.queryForList(
+                EXISTING_HASHES, String.class, quizId, hashes.toArray(new String[0])
+        ));
+
+        List<Integer> fresh = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (seen.add(hashes.get(i))) fresh.add(i);
+        }
+
+        if (fresh.isEmpty()) return 0;
+
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS, Long.class, fresh.size());
+
+        List<Object[]> questions = new ArrayList<>(fresh.size());
+
+        for (int i = 0; i < fresh.size(); i++) {
+            ImportedQuestion q = batch.get(fresh.get(i));
+            String hash = hashes.get(fresh.get(i));
+
+            questions.add(new Object[]{
+                    ids.get(i), q.content(), "MCQ", q.correctAnswer(), quizId, hash, toJson(q.options())
+            });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_QUESTION, questions);
+
+        return fresh.size();
+    }
+
+    private String toJson(List<String> options) {
+        try {
+            return objectMapper.writeValueAsString(options);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode options: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mp.service_import;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming parser for one upload format. Must not hold more than one
+ * row in memory.
+ */
+public interface QuestionFileParser {
+
+    boolean supports(String fileName);
+
+    void parse(InputStream in, QuestionRowHandler handler) throws IOException;
+}
@@ -0,0 +1,204 @@
+package com.mp.service_import;
+
+import com.mp.dto.ImportReportDTO;
+import com.mp.repository.QuizRepository;
+import com.mp.service.QuestionPaperCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming question import.
+ *
+ * The upload is parsed row by row; valid rows are buffered up to
+ * import.batch-size and written by {@link QuestionBatchWriter}, each batch in
+ * its own transaction together with the quiz's questionsCount. Memory use is
+ * one batch plus a capped error list, whatever the file size.
+ *
+ * Questions the quiz already has (same content hash) are counted as
+ * duplicates and not written again, so re-uploading a file is a no-op.
+ */
+@Service
+public class QuestionImportService {
+
+    private static final int MAX_CONTENT = 5000;
+    private static final int MAX_OPTION = 255;
+
+    private final List<QuestionFileParser> parsers;
+    private final QuestionBatchWriter writer;
+    private final QuizRepository quizRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionPaperCache questionPaperCache;
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public QuestionImportService(
+            List<QuestionFileParser> parsers,
+            QuestionBatchWriter writer,
+            QuizRepository quizRepository,
+            TransactionTemplate transactionTemplate,
+            QuestionPaperCache questionPaperCache,
+            @Value("${import.batch-size:500}") int batchSize,
+            @Value("${import.max-reported-errors:200}") int maxReportedErrors
+    ) {
+        this.parsers = parsers;
+        this.writer = writer;
+        this.quizRepository = quizRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.questionPaperCache = questionPaperCache;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public boolean supports(String fileName) {
+        return fileName != null && parsers.stream().anyMatch(p -> p.supports(fileName));
+    }
+
+    public ImportReportDTO importQuestions(Long quizId, String fileName, InputStream in) {
+        return importQuestions(quizId, fileName, in, report -> { });
+    }
+
+    /** onBatch is called after every committed batch (progress reporting). */
+    public ImportReportDTO importQuestions(
+            Long quizId,
+            String fileName,
+            InputStream in,
+            Consumer<ImportReportDTO> onBatch
+    ) {
+
+        QuestionFileParser parser = parsers.stream()
+                .filter(p -> fileName != null && p.supports(fileName))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Unsupported file format"));
+
+        long start = System.currentTimeMillis();
+
+        ImportReportDTO report = new ImportReportDTO();
+        report.quizId = quizId;
+        report.fileName = fileName;
+
+        BatchingHandler handler = new BatchingHandler(quizId, report, onBatch);
+
+        try {
+            parser.parse(in, handler);
+            handler.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to import questions: " + e.getMessage());
+        }
+
+        report.durationMs = System.currentTimeMillis() - start;
+        return report;
+    }
+
+
+    // =====================================================
+    // ✅ ROW VALIDATION
+    // Returns an error message, or null if the row is valid.
+    // The correct answer is normalised to the matching option text,
+    // since grading compares the selected option with it.
+    // =====================================================
+    static String validate(ImportedQuestion q, List<String> normalisedAnswer) {
+
+        if (q.content() == null || q.content().isBlank()) {
+            return "Question text is empty";
+        }
+        if (q.content().length() > MAX_CONTENT) {
+            return "Question text longer than " + MAX_CONTENT + " characters";
+        }
+
+        for (int i = 0; i < q.options().size(); i++) {
+            String option = q.options().get(i);
+            if (option == null || option.isBlank()) {
+                return "Option " + (i + 1) + " is empty";
+            }
+            if (option.length() > MAX_OPTION) {
+                return "Option " + (i + 1) + " longer than " + MAX_OPTION + " characters";
+            }
+        }
+
+        if (q.correctAnswer() == null || q.correctAnswer().isBlank()) {
+            return "Correct answer is empty";
+        }
+
+        for (String option : q.options()) {
+            if (option.equalsIgnoreCase(q.correctAnswer())) {
+                normalisedAnswer.add(option);
+                return null;
+            }
+        }
+        return "Correct answer '" + q.correctAnswer() + "' is not one of the options";
+    }
+
+
+    private final class BatchingHandler implements QuestionRowHandler {
+
+        private final Long quizId;
+        private final ImportReportDTO report;
+        private final Consumer<ImportReportDTO> onBatch;
+        private final List<ImportedQuestion> batch = new ArrayList<>(batchSize);
+        private final List<String> answer = new ArrayList<>(1);
+
+        BatchingHandler(Long quizId, ImportReportDTO report, Consumer<ImportReportDTO> onBatch) {
+            this.quizId = quizId;
+            this.report = report;
+            this.onBatch = onBatch;
+        }
+
+        @Override
+        public void row(ImportedQuestion q) {
+
+            answer.clear();
+            String problem = validate(q, answer);
+
+            if (problem != null) {
+                error(q.line(), problem);
+                return;
+            }
+
+            batch.add(new ImportedQuestion(q.line(), q.content(), q.options(), answer.get(0)));
+
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void error(int line, String message) {
+
+            report.rejected++;
+
+            if (report.errors.size() < maxReportedErrors) {
+                report.errors.add(new ImportReportDTO.RowError(line, message));
+            } else {
+                report.errorsTruncated = true;
+            }
+        }
+
+        void flush() {
+
+            if (batch.isEmpty()) return;
+
+            // questions + count commit together
+            Integer written = transactionTemplate.execute(status -> {
+                int n = writer.write(quizId, batch);
+                if (n > 0) quizRepository.addQuestionsCount(quizId, n);
+                return n;
+            });
+
+            int imported = written == null ? 0 : written;
+            if (imported > 0) questionPaperCache.evict(quizId);
+            report.imported += imported;
+            report.duplicates += batch.size() - imported;
+            batch.clear();
+
+            onBatch.accept(report);
+        }
+    }
+}
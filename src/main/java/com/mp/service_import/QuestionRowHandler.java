@@ -0,0 +1,12 @@
+package com.mp.service_import;
+
+/**
+ * Receives rows as a parser streams through a file.
+ */
+public interface QuestionRowHandler {
+
+    void row(ImportedQuestion question);
+
+    // Row that could not even be parsed
+    void error(int line, String message);
+}
@@ -0,0 +1,82 @@
+package com.mp.service_import;
+
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Blocks separated by "---":
+ *
+ *   question
+ *   OPTIONS:
+ *   option1..option4
+ *   ANSWER: correct
+ */
+@Component
+public class TxtQuestionParser implements QuestionFileParser {
+
+    @Override
+    public boolean supports(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".txt");
+    }
+
+    @Override
+    public void parse(InputStream in, QuestionRowHandler handler) throws IOException {
+
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8)
+        );
+
+        List<String> block = new ArrayList<>(8);
+        int lineNo = 0;
+        int blockStart = 1;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+
+            if (line.trim().equals("---")) {
+                emit(block, blockStart, handler);
+                block.clear();
+                blockStart = lineNo + 1;
+                continue;
+            }
+
+            if (block.isEmpty() && line.isBlank()) {
+                blockStart = lineNo + 1; // leading blank lines
+                continue;
+            }
+            block.add(line);
+        }
+
+        emit(block, blockStart, handler);
+    }
+
+    private void emit(List<String> block, int line, QuestionRowHandler handler) {
+
+        // trailing blank lines
+        while (!block.isEmpty() && block.get(block.size() - 1).isBlank()) {
+            block.remove(block.size() - 1);
+        }
+        if (block.isEmpty()) return;
+
+        if (block.size() < 7) {
+            handler.error(line, "Expected question, OPTIONS:, 4 options and ANSWER:");
+            return;
+        }
+
+        handler.row(new ImportedQuestion(
+                line,
+                block.get(0).trim(),
+                List.of(block.get(2).trim(), block.get(3).trim(), block.get(4).trim(), block.get(5).trim()),
+                block.get(6).replace("ANSWER:", "").trim()
+        ));
+    }
+}
@@ -0,0 +1,324 @@
+package com.mp.service_import;
+
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * First worksheet of an .xlsx workbook, same columns as the CSV format:
+ * question, option1..option4, correctAnswer (first row is a header).
+ *
+ * The workbook is never loaded as a whole: the sheet XML is read with a StAX
+ * cursor one row at a time. Only the shared strings table is kept in memory
+ * (cells refer to it by index). The upload is spooled to a temp file first
+ * because a zip stream does not guarantee sharedStrings.xml comes before the
+ * sheet. Reported line numbers are spreadsheet row numbers.
+ */
+@Component
+public class XlsxQuestionParser implements QuestionFileParser {
+
+    private static final int COLUMNS = 6;
+
+    private static final String REL_NS =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final MathContext EXCEL_PRECISION = new MathContext(15);
+
+    private final XMLInputFactory xmlFactory;
+
+    public XlsxQuestionParser() {
+        xmlFactory = XMLInputFactory.newDefaultFactory();
+        // no DTDs / external entities from uploaded files
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Override
+    public boolean supports(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx");
+    }
+
+    @Override
+    public void parse(InputStream in, QuestionRowHandler handler) throws IOException {
+
+        Path spool = Files.createTempFile("question-import-", ".xlsx");
+
+        try {
+            Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+
+            try (ZipFile zip = new ZipFile(spool.toFile())) {
+                List<String> sharedStrings = readSharedStrings(zip);
+                readSheet(zip, firstSheet(zip), sharedStrings, handler);
+            }
+
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid spreadsheet: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+
+    // =====================================================
+    // 📄 SHEET ROWS
+    // =====================================================
+    private void readSheet(
+            ZipFile zip,
+            ZipEntry sheet,
+            List<String> sharedStrings,
+            QuestionRowHandler handler
+    ) throws IOException, XMLStreamException {
+
+        String[] cells = new String[COLUMNS];
+        boolean header = true;
+
+        int rowNo = 0;
+        int columns = 0;      // last non-blank column + 1
+        int nextCol = 0;
+
+        int col = 0;
+        String type = null;
+        String raw = null;
+
+        try (InputStream in = zip.getInputStream(sheet)) {
+
+            XMLStreamReader xml = xmlFactory.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+
+                    int event = xml.next();
+
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "row" -> {
+                                String r = xml.getAttributeValue(null, "r");
+                                rowNo = r != null ? Integer.parseInt(r) : rowNo + 1;
+                                Arrays.fill(cells, null);
+                                columns = 0;
+                                nextCol = 0;
+                            }
+                            case "c" -> {
+                                String ref = xml.getAttributeValue(null, "r");
+                                col = ref != null ? columnIndex(ref) : nextCol;
+                                nextCol = col + 1;
+                                type = xml.getAttributeValue(null, "t");
+                                raw = null;
+                            }
+                            // <v> value, or <is><t> for inline strings
+                            case "v", "t" -> raw = raw == null
+                                    ? xml.getElementText()
+                                    : raw + xml.getElementText();
+                            default -> {
+                            }
+                        }
+
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "c" -> {
+                                String value = cellValue(type, raw, sharedStrings);
+                                if (!value.isBlank()) {
+                                    columns = Math.max(columns, col + 1);
+                                    if (col < COLUMNS) cells[col] = value.trim();
+                                }
+                            }
+                            case "row" -> {
+                                if (columns == 0) continue;     // empty / styled-only row
+                                if (header) {
+                                    header = false;
+                                    continue;
+                                }
+                                emit(rowNo, cells, columns, handler);
+                            }
+                            default -> {
+                            }
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        }
+    }
+
+    private void emit(int rowNo, String[] cells, int columns, QuestionRowHandler handler) {
+
+        if (columns < COLUMNS) {
+            handler.error(rowNo, "Expected 6 columns, found " + columns);
+            return;
+        }
+
+        handler.row(new ImportedQuestion(
+                rowNo,
+                text(cells[0]),
+                List.of(text(cells[1]), text(cells[2]), text(cells[3]), text(cells[4])),
+                text(cells[5])
+        ));
+    }
+
+    private static String text(String cell) {
+        return cell == null ? "" : cell;
+    }
+
+    private static String cellValue(String type, String raw, List<String> sharedStrings) {
+
+        if (raw == null) return "";
+
+        if (type == null || type.equals("n")) {
+            // numbers are stored as doubles: 0.1 comes back as 0.10000000000000001
+            try {
+                return new BigDecimal(raw.trim())
+                        .round(EXCEL_PRECISION)
+                        .stripTrailingZeros()
+                        .toPlainString();
+            } catch (NumberFormatException e) {
+                return raw;
+            }
+        }
+
+        return switch (type) {
+            case "s" -> {
+                try {
+                    int index = Integer.parseInt(raw.trim());
+                    yield index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : "";
+                } catch (NumberFormatException e) {
+                    yield "";
+                }
+            }
+            case "b" -> "1".equals(raw.trim()) ? "TRUE" : "FALSE";
+            default -> raw;  // inlineStr, str (formula result), e (error)
+        };
+    }
+
+    // "AB12" -> 27
+    static int columnIndex(String ref) {
+
+        int col = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+
+    // =====================================================
+    // 📚 WORKBOOK PARTS
+    // =====================================================
+    private List<String> readSharedStrings(ZipFile zip) throws IOException, XMLStreamException {
+
+        List<String> strings = new ArrayList<>();
+
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) return strings;
+
+        try (InputStream in = zip.getInputStream(entry)) {
+
+            XMLStreamReader xml = xmlFactory.createXMLStreamReader(in);
+            try {
+                StringBuilder current = new StringBuilder();
+                boolean phonetic = false;
+
+                while (xml.hasNext()) {
+
+                    int event = xml.next();
+
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "si" -> current.setLength(0);
+                            case "rPh" -> phonetic = true;
+                            // plain <si><t> or rich text runs <si><r><t>
+                            case "t" -> {
+                                String text = xml.getElementText();
+                                if (!phonetic) current.append(text);
+                            }
+                            default -> {
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "si" -> strings.add(current.toString());
+                            case "rPh" -> phonetic = false;
+                            default -> {
+                            }
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        }
+        return strings;
+    }
+
+    // workbook.xml names the sheets in tab order; the rels file maps them to parts
+    private ZipEntry firstSheet(ZipFile zip) throws IOException, XMLStreamException {
+
+        String relId = null;
+
+        ZipEntry workbook = zip.getEntry("xl/workbook.xml");
+        if (workbook == null) {
+            throw new IOException("Not an .xlsx workbook");
+        }
+
+        try (InputStream in = zip.getInputStream(workbook)) {
+            XMLStreamReader xml = xmlFactory.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext() && relId == null) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT
+                            && xml.getLocalName().equals("sheet")) {
+                        relId = xml.getAttributeValue(REL_NS, "id");
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        }
+
+        String target = null;
+        ZipEntry rels = zip.getEntry("xl/_rels/workbook.xml.rels");
+
+        if (relId != null && rels != null) {
+            try (InputStream in = zip.getInputStream(rels)) {
+                XMLStreamReader xml = xmlFactory.createXMLStreamReader(in);
+                try {
+                    while (xml.hasNext() && target == null) {
+                        if (xml.next() == XMLStreamConstants.START_ELEMENT
+                                && xml.getLocalName().equals("Relationship")
+                                && relId.equals(xml.getAttributeValue(null, "Id"))) {
+                            target = xml.getAttributeValue(null, "Target");
+                        }
+                    }
+                } finally {
+                    xml.close();
+                }
+            }
+        }
+
+        String name = target == null ? "xl/worksheets/sheet1.xml"
+                : target.startsWith("/") ? target.substring(1)
+                : "xl/" + target;
+
+        ZipEntry sheet = zip.getEntry(name);
+        if (sheet == null) {
+            throw new IOException("Workbook has no worksheet");
+        }
+        return sheet;
+    }
+}
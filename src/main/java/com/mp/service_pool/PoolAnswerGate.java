@@ -0,0 +1,139 @@
+package com.mp.service_pool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First check on /app/pool/answer, before any service or DB work.
+ *
+ * 1. Token bucket per (STOMP connection, game): bounds what one client can cost.
+ * 2. "Already answered" bitset per game, indexed by player, reset when a
+ *    question opens: duplicates and answers to a question that is not the
+ *    open one never reach the repositories.
+ *
+ * State is in memory only; after a restart the DB checks in
+ * PoolGameService still apply.
+ */
+@Component
+public class PoolAnswerGate {
+
+    public enum Verdict { PASS, RATE_LIMITED, DUPLICATE, WRONG_QUESTION }
+
+    private final long capacity;
+    private final double refillPerNano;
+
+    // "sessionId:gamePin" -> bucket
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    // gamePin -> answered flags for the open question
+    private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+
+    public PoolAnswerGate(
+            @Value("${pool.answer.rate.burst:5}") long burst,
+            @Value("${pool.answer.rate.per-second:2}") double perSecond
+    ) {
+        this.capacity = Math.max(1, burst);
+        this.refillPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    // =====================================================
+    // 🚦 CHECK (hot path)
+    // =====================================================
+    public Verdict check(String connectionId, String gamePin, String nickname, Long questionId) {
+
+        if (connectionId != null) {
+            TokenBucket bucket = buckets.computeIfAbsent(
+                    connectionId + ":" + gamePin, k -> new TokenBucket(capacity));
+            if (!bucket.tryAcquire(capacity, refillPerNano)) {
+                return Verdict.RATE_LIMITED;
+            }
+        }
+
+        Room room = rooms.get(gamePin);
+        if (room == null) {
+            return Verdict.PASS; // not tracked (e.g. after restart) → DB decides
+        }
+        return room.check(nickname, questionId);
+    }
+
+    /** Graded answer: later frames from this player for this question stop here. */
+    public void answered(String gamePin, String nickname, Long questionId) {
+        Room room = rooms.get(gamePin);
+        if (room != null) room.mark(nickname, questionId);
+    }
+
+    // =====================================================
+    // 📥 LIFECYCLE
+    // =====================================================
+    public void questionOpened(String gamePin, Long questionId) {
+        rooms.computeIfAbsent(gamePin, k -> new Room()).open(questionId);
+    }
+
+    public void untrack(String gamePin) {
+        rooms.remove(gamePin);
+        buckets.keySet().removeIf(k -> k.endsWith(":" + gamePin));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        buckets.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(long capacity) {
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire(long capacity, double refillPerNano) {
+
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private static final class Room {
+
+        // Player index is stable for the whole game
+        private final ConcurrentHashMap<String, Integer> playerIndex = new ConcurrentHashMap<>();
+
+        private Long questionId;
+        private final BitSet answered = new BitSet();
+
+        synchronized void open(Long id) {
+            questionId = id;
+            answered.clear();
+        }
+
+        synchronized Verdict check(String nickname, Long id) {
+
+            if (questionId != null && !Objects.equals(questionId, id)) {
+                return Verdict.WRONG_QUESTION;
+            }
+            Integer index = playerIndex.get(nickname);
+            return index != null && answered.get(index) ? Verdict.DUPLICATE : Verdict.PASS;
+        }
+
+        synchronized void mark(String nickname, Long id) {
+            if (!Objects.equals(questionId, id)) return;
+            answered.set(playerIndex.computeIfAbsent(nickname, k -> playerIndex.size()));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.mp.service_pool;
+
+import com.mp.dto_pool.PoolArchivedGameDTO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Columnar, gzip-compressed per-game archive.
+ *
+ * Layout (all ints/longs big-endian, strings modified UTF-8):
+ *   "PGA1" gamePin quizId
+ *   players:   n, nickname[n], score[n], rank[n]
+ *   questions: q, questionId[q]
+ *   answers:   a, player[a], question[a],
+ *              dictionary d + code[a] for selectedAnswer,
+ *              correct bitset, submittedAt delta[a], responseTime[a], points[a]
+ *
+ * Columns of small ints compress far better than row-wise JSON, and answers
+ * refer to players/questions by index instead of repeating nicknames and ids.
+ */
+final class PoolArchiveCodec {
+
+    private static final int MAGIC = 0x50474131; // "PGA1"
+
+    private PoolArchiveCodec() {
+    }
+
+    /** Column buffers filled by the archiver, in answer order. */
+    static final class Columns {
+
+        final List<String> nicknames = new ArrayList<>();
+        final List<Integer> scores = new ArrayList<>();
+        final List<Integer> ranks = new ArrayList<>();
+        final List<Long> questionIds = new ArrayList<>();
+
+        int answerCount;
+        int[] answerPlayer = new int[16];
+        int[] answerQuestion = new int[16];
+        int[] answerSelected = new int[16];
+        boolean[] answerCorrect = new boolean[16];
+        long[] answerSubmittedAt = new long[16];
+        long[] answerResponseTime = new long[16];
+        int[] answerPoints = new int[16];
+
+        final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+        void addAnswer(int player, int question, String selected, boolean correct,
+                       long submittedAt, long responseTime, int points) {
+
+            if (answerCount == answerPlayer.length) {
+                int n = answerCount * 2;
+                answerPlayer = Arrays.copyOf(answerPlayer, n);
+                answerQuestion = Arrays.copyOf(answerQuestion, n);
+                answerSelected = Arrays.copyOf(answerSelected, n);
+                answerCorrect = Arrays.copyOf(answerCorrect, n);
+                answerSubmittedAt = Arrays.copyOf(answerSubmittedAt, n);
+                answerResponseTime = Arrays.copyOf(answerResponseTime, n);
+                answerPoints = Arrays.copyOf(answerPoints, n);
+            }
+
+            int i = answerCount++;
+            answerPlayer[i] = player;
+            answerQuestion[i] = question;
+            answerSelected[i] = dictionaryIndex.computeIfAbsent(selected, s -> {
+                dictionary.add(s);
+                return dictionary.size() - 1;
+            });
+            answerCorrect[i] = correct;
+            answerSubmittedAt[i] = submittedAt;
+            answerResponseTime[i] = responseTime;
+            answerPoints[i] = points;
+        }
+    }
+
+    static void write(String gamePin, Long quizId, Columns c, OutputStream target) throws IOException {
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(target, 64 * 1024)))) {
+
+            out.writeInt(MAGIC);
+            out.writeUTF(gamePin);
+            out.writeLong(quizId);
+
+            int n = c.nicknames.size();
+            out.writeInt(n);
+            for (String s : c.nicknames) out.writeUTF(s);
+            for (int v : c.scores) out.writeInt(v);
+            for (int v : c.ranks) out.writeInt(v);
+
+            out.writeInt(c.questionIds.size());
+            for (long id : c.questionIds) out.writeLong(id);
+
+            int a = c.answerCount;
+            out.writeInt(a);
+            for (int i = 0; i < a; i++) out.writeInt(c.answerPlayer[i]);
+            for (int i = 0; i < a; i++) out.writeInt(c.answerQuestion[i]);
+
+            out.writeInt(c.dictionary.size());
+            for (String s : c.dictionary) out.writeUTF(s);
+            for (int i = 0; i < a; i++) out.writeInt(c.answerSelected[i]);
+
+            // correct: packed bits
+            for (int i = 0; i < a; i += 8) {
+                int b = 0;
+                for (int k = 0; k < 8 && i + k < a; k++) {
+                    if (c.answerCorrect[i + k]) b |= 1 << k;
+                }
+                out.writeByte(b);
+            }
+
+            // submittedAt: delta from previous (first vs. 0)
+            long prev = 0;
+            for (int i = 0; i < a; i++) {
+                out.writeLong(c.answerSubmittedAt[i] - prev);
+                prev = c.answerSubmittedAt[i];
+            }
+            for (int i = 0; i < a; i++) out.writeLong(c.answerResponseTime[i]);
+            for (int i = 0; i < a; i++) out.writeInt(c.answerPoints[i]);
+        }
+    }
+
+    static PoolArchivedGameDTO read(InputStream source) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(source, 64 * 1024)))) {
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a pool game archive");
+            }
+
+            String gamePin = in.readUTF();
+            long quizId = in.readLong();
+
+            int n = in.readInt();
+            String[] nick = new String[n];
+            int[] score = new int[n];
+            int[] rank = new int[n];
+            for (int i = 0; i < n; i++) nick[i] = in.readUTF();
+            for (int i = 0; i < n; i++) score[i] = in.readInt();
+            for (int i = 0; i < n; i++) rank[i] = in.readInt();
+
+            int q = in.readInt();
+            List<Long> questionIds = new ArrayList<>(q);
+            for (int i = 0; i < q; i++) questionIds.add(in.readLong());
+
+            int a = in.readInt();
+            int[] player = new int[a];
+            int[] question = new int[a];
+            int[] selected = new int[a];
+            for (int i = 0; i < a; i++) player[i] = in.readInt();
+            for (int i = 0; i < a; i++) question[i] = in.readInt();
+
+            int d = in.readInt();
+            String[] dict = new String[d];
+            for (int i = 0; i < d; i++) dict[i] = in.readUTF();
+            for (int i = 0; i < a; i++) selected[i] = in.readInt();
+
+            boolean[] correct = new boolean[a];
+            for (int i = 0; i < a; i += 8) {
+                int b = in.readUnsignedByte();
+                for (int k = 0; k < 8 && i + k < a; k++) {
+                    correct[i + k] = (b & (1 << k)) != 0;
+                }
+            }
+
+            long[] submittedAt = new long[a];
+            long prev = 0;
+            for (int i = 0; i < a; i++) {
+                prev += in.readLong();
+                submittedAt[i] = prev;
+            }
+
+            long[] responseTime = new long[a];
+            int[] points = new int[a];
+            for (int i = 0; i < a; i++) responseTime[i] = in.readLong();
+            for (int i = 0; i < a; i++) points[i] = in.readInt();
+
+            List<PoolArchivedGameDTO.Player> players = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                players.add(new PoolArchivedGameDTO.Player(nick[i], score[i], rank[i]));
+            }
+
+            List<PoolArchivedGameDTO.Answer> answers = new ArrayList<>(a);
+            for (int i = 0; i < a; i++) {
+                answers.add(new PoolArchivedGameDTO.Answer(
+                        nick[player[i]],
+                        questionIds.get(question[i]),
+                        question[i] + 1,
+                        dict[selected[i]],
+                        correct[i],
+                        submittedAt[i],
+                        responseTime[i],
+                        points[i]
+                ));
+            }
+
+            return new PoolArchivedGameDTO(gamePin, quizId, players, questionIds, answers);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.mp.service_pool;
+
+import com.mp.dto_pool.PoolArchivedGameDTO;
+import com.mp.entity_pool.PoolGameArchive;
+import com.mp.entity_pool.PoolLiveAnswer;
+import com.mp.entity_pool.PoolLivePlayer;
+import com.mp.entity_pool.PoolLiveQuizSession;
+import com.mp.exception.ResourceNotFoundException;
+import com.mp.repository_pool.PoolAnswerRepository;
+import com.mp.repository_pool.PoolArchiveRepository;
+import com.mp.repository_pool.PoolPlayerRepository;
+import com.mp.repository_pool.PoolSessionRepository;
+import com.mp.service.QuestionPaper;
+import com.mp.service.QuestionPaperCache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compacts a finished live game into one PoolGameArchive row plus a
+ * columnar file, so the live tables can be cleared without losing analytics.
+ */
+@Service
+public class PoolArchiveService {
+
+    private final PoolSessionRepository sessionRepository;
+    private final PoolPlayerRepository playerRepository;
+    private final PoolAnswerRepository answerRepository;
+    private final PoolArchiveRepository archiveRepository;
+    private final QuestionPaperCache questionPaperCache;
+
+    // Not under uploads/ (that folder is served publicly)
+    private final Path archiveRoot;
+
+    public PoolArchiveService(
+            PoolSessionRepository sessionRepository,
+            PoolPlayerRepository playerRepository,
+            PoolAnswerRepository answerRepository,
+            PoolArchiveRepository archiveRepository,
+            QuestionPaperCache questionPaperCache,
+            @Value("${pool.archive.dir:data/pool-archive}") String archiveDir
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.playerRepository = playerRepository;
+        this.answerRepository = answerRepository;
+        this.archiveRepository = archiveRepository;
+        this.questionPaperCache = questionPaperCache;
+        this.archiveRoot = Path.of(archiveDir);
+    }
+
+
+    // =====================================================
+    // 📦 ARCHIVE A GAME (before destroySession)
+    // Returns null if there was nothing worth keeping
+    // =====================================================
+    @Transactional
+    public PoolGameArchive archive(String gamePin) {
+
+        PoolLiveQuizSession session = sessionRepository.findByGamePin(gamePin).orElse(null);
+        if (session == null) return null;
+
+        List<PoolLivePlayer> players = new ArrayList<>(playerRepository.findByGamePin(gamePin));
+        if (players.isEmpty()) return null;
+
+        List<PoolLiveAnswer> answers = answerRepository.findByGamePin(gamePin);
+        List<QuestionPaper.PaperQuestion> questions = questionPaperCache.get(session.getQuizId()).questions();
+
+        // ---- players, ranked (ties share a rank) ----
+        players.sort(Comparator.comparingInt(PoolLivePlayer::getScore).reversed()
+                .thenComparing(PoolLivePlayer::getNickname));
+
+        PoolArchiveCodec.Columns columns = new PoolArchiveCodec.Columns();
+        Map<String, Integer> playerIndex = new HashMap<>();
+
+        long scoreSum = 0;
+        int rank = 0;
+        int previousScore = Integer.MIN_VALUE;
+
+        for (int i = 0; i < players.size(); i++) {
+            PoolLivePlayer p = players.get(i);
+            if (p.getScore() != previousScore) {
+                rank = i + 1;
+                previousScore = p.getScore();
+            }
+            playerIndex.put(p.getNickname(), i);
+            columns.nicknames.add(p.getNickname());
+            columns.scores.add(p.getScore());
+            columns.ranks.add(rank);
+            scoreSum += p.getScore();
+        }
+
+        // ---- questions, in quiz order ----
+        Map<Long, Integer> questionIndex = new HashMap<>();
+        for (QuestionPaper.PaperQuestion q : questions) {
+            questionIndex.put(q.id(), columns.questionIds.size());
+            columns.questionIds.add(q.id());
+        }
+
+        // ---- answers ----
+        ZoneId zone = ZoneId.systemDefault();
+        answers.sort(Comparator.comparing(PoolLiveAnswer::getSubmittedAt));
+
+        int correct = 0;
+        for (PoolLiveAnswer a : answers) {
+
+            Integer player = playerIndex.get(a.getNickname());
+            Integer question = questionIndex.get(a.getQuestionId());
+            if (player == null || question == null) continue; // deleted question / player
+
+            columns.addAnswer(
+                    player,
+                    question,
+                    a.getSelectedAnswer(),
+                    a.isCorrect(),
+                    a.getSubmittedAt().atZone(zone).toInstant().toEpochMilli(),
+                    a.getResponseTime(),
+                    a.getAwardedPoints()
+            );
+            if (a.isCorrect()) correct++;
+        }
+
+        // ---- file ----
+        Path relative = Path.of(
+                String.valueOf(session.getQuizId()),
+                gamePin + "-" + System.currentTimeMillis() + ".pga"
+        );
+        long size = writeFile(relative, gamePin, session.getQuizId(), columns);
+
+        // ---- summary row ----
+        PoolGameArchive archive = new PoolGameArchive();
+        archive.setGamePin(gamePin);
+        archive.setQuizId(session.getQuizId());
+        archive.setStartedAt(session.getCreatedAt());
+        archive.setFinishedAt(LocalDateTime.now());
+        archive.setPlayerCount(players.size());
+        archive.setQuestionCount(questions.size());
+        archive.setAnswerCount(columns.answerCount);
+        archive.setCorrectCount(correct);
+        archive.setWinnerNickname(players.get(0).getNickname());
+        archive.setWinnerScore(players.get(0).getScore());
+        archive.setAverageScore((double) scoreSum / players.size());
+        archive.setFilePath(relative.toString());
+        archive.setFileSize(size);
+
+        return archiveRepository.save(archive);
+    }
+
+
+    // =====================================================
+    // 🔎 QUERY ARCHIVES (never touches the live tables)
+    // =====================================================
+    public List<PoolGameArchive> getArchives(Long quizId) {
+        return archiveRepository.findByQuizIdOrderByFinishedAtDesc(quizId);
+    }
+
+    public PoolGameArchive getArchive(Long archiveId) {
+        return archiveRepository.findById(archiveId)
+                .orElseThrow(() -> new ResourceNotFoundException("Archive not found"));
+    }
+
+    public PoolArchivedGameDTO readArchive(PoolGameArchive archive) {
+
+        Path file = archiveRoot.resolve(archive.getFilePath());
+
+        try (InputStream in = Files.newInputStream(file)) {
+            return PoolArchiveCodec.read(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read game archive: " + e.getMessage());
+        }
+    }
+
+
+    private long writeFile(Path relative, String gamePin, Long quizId,
+                           PoolArchiveCodec.Columns columns) {
+
+        Path target = archiveRoot.resolve(relative);
+
+        try {
+            Files.createDirectories(target.getParent());
+
+            // write then move, so a crash never leaves a half file behind
+            Path tmp = Files.createTempFile(target.getParent(), gamePin, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                PoolArchiveCodec.write(gamePin, quizId, columns, out);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+
+            return Files.size(target);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write game archive: " + e.getMessage());
+        }
+    }
+}
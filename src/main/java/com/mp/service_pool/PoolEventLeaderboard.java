@@ -0,0 +1,153 @@
+package com.mp.service_pool;
+
+import com.mp.dto_pool.PoolEventLeaderboardDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Incremental leaderboard for multi-room events.
+ *
+ * Each room keeps its players in a sorted skip list; an answer moves one
+ * entry (O(log n) in the room size). The global top-K is a K-way merge of
+ * the rooms' heads: the global top K is always contained in the union of
+ * every room's top K, so reading it costs O(rooms * K) whatever the number
+ * of players. The same merge works on top-K lists coming from other nodes.
+ */
+@Component
+public class PoolEventLeaderboard {
+
+    // Highest score first, then nickname, then room
+    static final Comparator<Entry> ORDER =
+            Comparator.comparingInt(Entry::score).reversed()
+                    .thenComparing(Entry::nickname)
+                    .thenComparing(Entry::gamePin);
+
+    record Entry(int score, String nickname, String gamePin) {
+    }
+
+    // gamePin -> room
+    private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+
+    // eventCode -> room PINs
+    private final ConcurrentHashMap<String, Set<String>> events = new ConcurrentHashMap<>();
+
+    public void register(String eventCode, String gamePin) {
+        rooms.putIfAbsent(gamePin, new Room(gamePin));
+        events.computeIfAbsent(eventCode, k -> ConcurrentHashMap.newKeySet()).add(gamePin);
+    }
+
+    public boolean isEventRoom(String gamePin) {
+        return rooms.containsKey(gamePin);
+    }
+
+    public void unregisterEvent(String eventCode) {
+        Set<String> pins = events.remove(eventCode);
+        if (pins != null) pins.forEach(rooms::remove);
+    }
+
+    // =====================================================
+    // 🎯 HOT PATH: one entry moves, O(log n) in room size
+    // =====================================================
+    public void scored(String gamePin, String nickname, int newScore) {
+        Room room = rooms.get(gamePin);
+        if (room != null) room.update(nickname, newScore);
+    }
+
+    // =====================================================
+    // 🏆 GLOBAL TOP-K (merge of room heads)
+    // =====================================================
+    public PoolEventLeaderboardDTO topK(String eventCode, int k) {
+
+        Set<String> pins = events.getOrDefault(eventCode, Set.of());
+
+        List<Iterator<Entry>> heads = new ArrayList<>(pins.size());
+        int players = 0;
+
+        for (String pin : pins) {
+            Room room = rooms.get(pin);
+            if (room == null) continue;
+            heads.add(room.sorted.iterator());
+            players += room.size();
+        }
+
+        List<Entry> top = merge(heads, k);
+
+        List<PoolEventLeaderboardDTO.Entry> result = new ArrayList<>(top.size());
+        int rank = 0;
+        int previous = Integer.MIN_VALUE;
+
+        for (int i = 0; i < top.size(); i++) {
+            Entry e = top.get(i);
+            if (e.score() != previous) {
+                rank = i + 1;
+                previous = e.score();
+            }
+            result.add(new PoolEventLeaderboardDTO.Entry(rank, e.nickname(), e.gamePin(), e.score()));
+        }
+
+        return new PoolEventLeaderboardDTO(eventCode, pins.size(), players, result);
+    }
+
+    // K-way merge of already sorted sources, stops after k entries
+    static List<Entry> merge(List<Iterator<Entry>> sources, int k) {
+
+        record Head(Entry entry, Iterator<Entry> rest) {
+        }
+
+        PriorityQueue<Head> queue = new PriorityQueue<>(
+                Math.max(1, sources.size()),
+                (a, b) -> ORDER.compare(a.entry(), b.entry())
+        );
+
+        for (Iterator<Entry> it : sources) {
+            if (it.hasNext()) queue.add(new Head(it.next(), it));
+        }
+
+        List<Entry> out = new ArrayList<>(k);
+        while (out.size() < k && !queue.isEmpty()) {
+            Head h = queue.poll();
+            out.add(h.entry());
+            if (h.rest().hasNext()) queue.add(new Head(h.rest().next(), h.rest()));
+        }
+        return out;
+    }
+
+    private static final class Room {
+
+        final String gamePin;
+
+        // Readers iterate without locking (weakly consistent)
+        final ConcurrentSkipListSet<Entry> sorted = new ConcurrentSkipListSet<>(ORDER);
+
+        // nickname -> current entry (guarded by this)
+        private final Map<String, Entry> current = new HashMap<>();
+
+        Room(String gamePin) {
+            this.gamePin = gamePin;
+        }
+
+        synchronized void update(String nickname, int score) {
+
+            Entry next = new Entry(score, nickname, gamePin);
+            Entry old = current.put(nickname, next);
+
+            // add first, then remove: readers never miss the player
+            sorted.add(next);
+            if (old != null && !old.equals(next)) sorted.remove(old);
+        }
+
+        synchronized int size() {
+            return current.size();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.mp.service_pool;
+
+import com.mp.dto_pool.PoolEventLeaderboardDTO;
+import com.mp.entity_pool.PoolEvent;
+import com.mp.entity_pool.PoolGameStatus;
+import com.mp.entity_pool.PoolLivePlayer;
+import com.mp.entity_pool.PoolLiveQuizSession;
+import com.mp.repository_pool.PoolEventRepository;
+import com.mp.repository_pool.PoolPlayerRepository;
+import com.mp.repository_pool.PoolSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-room events: one host quiz fanned out to many game PINs.
+ *
+ * All rooms open each question at the same server time and share one tick
+ * task (see PoolTimerService timer groups). The global leaderboard is merged
+ * from per-room leaderboards (PoolEventLeaderboard) and published on
+ * /topic/pool/event/{code}/leaderboard at a fixed rate, only when it changed.
+ */
+@Service
+public class PoolEventService {
+
+    private static final String CODE_CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+
+    private final PoolEventRepository eventRepository;
+    private final PoolSessionRepository sessionRepository;
+    private final PoolPlayerRepository playerRepository;
+    private final PoolGameService poolGameService;
+    private final PoolTimerService timerService;
+    private final PoolSpectatorService spectators;
+    private final PoolEventLeaderboard leaderboard;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final long openLeadMillis;
+    private final int maxRooms;
+    private final int topK;
+
+    // eventCode -> last published leaderboard
+    private final ConcurrentHashMap<String, PoolEventLeaderboardDTO> published = new ConcurrentHashMap<>();
+
+    // one "next" at a time per event
+    private final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService publisher =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "pool-event-leaderboard");
+                t.setDaemon(true);
+                return t;
+            });
+
+    public PoolEventService(
+            PoolEventRepository eventRepository,
+            PoolSessionRepository sessionRepository,
+            PoolPlayerRepository playerRepository,
+            PoolGameService poolGameService,
+            PoolTimerService timerService,
+            PoolSpectatorService spectators,
+            PoolEventLeaderboard leaderboard,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${pool.event.open-lead-ms:1500}") long openLeadMillis,
+            @Value("${pool.event.max-rooms:200}") int maxRooms,
+            @Value("${pool.event.top-k:20}") int topK,
+            @Value("${pool.event.leaderboard-interval-ms:1000}") long intervalMillis
+    ) {
+        this.eventRepository = eventRepository;
+        this.sessionRepository = sessionRepository;
+        this.playerRepository = playerRepository;
+        this.poolGameService = poolGameService;
+        this.timerService = timerService;
+        this.spectators = spectators;
+        this.leaderboard = leaderboard;
+        this.messagingTemplate = messagingTemplate;
+        this.openLeadMillis = openLeadMillis;
+        this.maxRooms = maxRooms;
+        this.topK = Math.max(1, topK);
+
+        publisher.scheduleAtFixedRate(this::publishAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    // =====================================================
+    // 1️⃣ CREATE EVENT (host) → N rooms
+    // =====================================================
+    public PoolEvent createEvent(
+            Long quizId,
+            int rooms,
+            Integer revealSeconds,
+            boolean teamMode,
+            String hostEmail
+    ) {
+
+        if (rooms < 1 || rooms > maxRooms) {
+            throw new RuntimeException("Rooms must be between 1 and " + maxRooms);
+        }
+
+        PoolEvent event = eventRepository.save(
+                new PoolEvent(generateEventCode(), quizId, hostEmail)
+        );
+
+        for (int i = 0; i < rooms; i++) {
+            openRoom(event, revealSeconds, teamMode);
+        }
+
+        startPublishing(event.getEventCode());
+        return event;
+    }
+
+    // Extra room while the lobby is open
+    public PoolLiveQuizSession addRoom(String eventCode, String hostEmail) {
+
+        PoolEvent event = getEventForHost(eventCode, hostEmail);
+        List<PoolLiveQuizSession> rooms = getRooms(eventCode);
+
+        if (rooms.size() >= maxRooms) {
+            throw new RuntimeException("Room limit reached");
+        }
+
+        PoolLiveQuizSession first = rooms.isEmpty() ? null : rooms.get(0);
+        if (first != null && first.getStatus() != PoolGameStatus.WAITING) {
+            throw new RuntimeException("Event already started");
+        }
+
+        return openRoom(
+                event,
+                first == null ? null : first.getRevealSeconds(),
+                first != null && first.isTeamMode()
+        );
+    }
+
+    private PoolLiveQuizSession openRoom(PoolEvent event, Integer revealSeconds, boolean teamMode) {
+
+        PoolLiveQuizSession room = poolGameService.startEventRoom(
+                event.getQuizId(),
+                event.getEventCode(),
+                revealSeconds,
+                teamMode
+        );
+
+        timerService.joinTimerGroup(room.getGamePin(), event.getEventCode());
+        spectators.track(room.getGamePin());
+        return room;
+    }
+
+
+    // =====================================================
+    // 2️⃣ NEXT QUESTION IN EVERY ROOM (lockstep)
+    // =====================================================
+    public long next(String eventCode, String hostEmail) {
+
+        getEventForHost(eventCode, hostEmail);
+
+        synchronized (locks.computeIfAbsent(eventCode, k -> new Object())) {
+
+            List<PoolLiveQuizSession> rooms = activeRooms(eventCode);
+            ensureTracked(eventCode, rooms);
+
+            // Same open time everywhere; the lead covers the fan-out itself
+            long openAt = System.currentTimeMillis() + openLeadMillis;
+
+            for (PoolLiveQuizSession room : rooms) {
+                try {
+                    timerService.advance(room.getGamePin(), openAt);
+                } catch (RuntimeException e) {
+                    // a broken room must not hold back the others
+                    System.err.println("Event " + eventCode + " room " + room.getGamePin()
+                            + " failed to advance: " + e.getMessage());
+                }
+            }
+            return openAt;
+        }
+    }
+
+
+    // =====================================================
+    // 3️⃣ END EVENT (all rooms)
+    // =====================================================
+    public PoolEventLeaderboardDTO end(String eventCode, String hostEmail) {
+
+        PoolEvent event = getEventForHost(eventCode, hostEmail);
+        List<PoolLiveQuizSession> rooms = getRooms(eventCode);
+
+        ensureTracked(eventCode, rooms);
+        PoolEventLeaderboardDTO finalBoard = leaderboard.topK(eventCode, topK);
+
+        for (PoolLiveQuizSession room : rooms) {
+            String pin = room.getGamePin();
+            // same end path as a single game: archive, final frames, END
+            try {
+                timerService.endGame(pin);
+            } catch (RuntimeException e) {
+                System.err.println("Event " + eventCode + " room " + pin
+                        + " failed to close: " + e.getMessage());
+                messagingTemplate.convertAndSend("/topic/pool/" + pin + "/end", "END");
+            }
+        }
+
+        messagingTemplate.convertAndSend(
+                "/topic/pool/event/" + eventCode + "/leaderboard",
+                finalBoard
+        );
+
+        timerService.removeTimerGroup(eventCode);
+        leaderboard.unregisterEvent(eventCode);
+        published.remove(eventCode);
+        locks.remove(eventCode);
+
+        event.setFinishedAt(LocalDateTime.now());
+        eventRepository.save(event);
+
+        return finalBoard;
+    }
+
+
+    // =====================================================
+    // 🔎 QUERIES
+    // =====================================================
+    public PoolEvent getEvent(String eventCode) {
+        return eventRepository.findByEventCode(eventCode)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+    }
+
+    public List<PoolLiveQuizSession> getRooms(String eventCode) {
+        return sessionRepository.findByEventCode(eventCode);
+    }
+
+    public PoolEventLeaderboardDTO getLeaderboard(String eventCode) {
+
+        PoolEvent event = getEvent(eventCode);
+        if (!event.isFinished()) {
+            ensureTracked(eventCode, getRooms(eventCode));
+        }
+        return leaderboard.topK(eventCode, topK);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+    }
+
+
+    // =====================================================
+    // 📡 LEADERBOARD PUBLISHER
+    // =====================================================
+    private void publishAll() {
+
+        for (String eventCode : List.copyOf(published.keySet())) {
+            publish(eventCode);
+        }
+    }
+
+    private void publish(String eventCode) {
+
+        try {
+            PoolEventLeaderboardDTO board = leaderboard.topK(eventCode, topK);
+            PoolEventLeaderboardDTO last = published.put(eventCode, board);
+
+            if (!Objects.equals(board, last)) {
+                messagingTemplate.convertAndSend(
+                        "/topic/pool/event/" + eventCode + "/leaderboard",
+                        board
+                );
+            }
+        } catch (Exception e) {
+            System.err.println("Event leaderboard publish failed for " + eventCode + ": " + e.getMessage());
+        }
+    }
+
+    // After a restart the in-memory room boards are rebuilt from the DB
+    private void ensureTracked(String eventCode, List<PoolLiveQuizSession> rooms) {
+
+        for (PoolLiveQuizSession room : rooms) {
+
+            String pin = room.getGamePin();
+            timerService.joinTimerGroup(pin, eventCode);
+
+            if (leaderboard.isEventRoom(pin)) continue;
+
+            leaderboard.register(eventCode, pin);
+            for (PoolLivePlayer p : playerRepository.findByGamePin(pin)) {
+                leaderboard.scored(pin, p.getNickname(), p.getScore());
+            }
+        }
+
+        startPublishing(eventCode);
+    }
+
+    // placeholder until the first sample
+    private void startPublishing(String eventCode) {
+        published.putIfAbsent(eventCode, new PoolEventLeaderboardDTO(eventCode, 0, 0, List.of()));
+    }
+
+    private List<PoolLiveQuizSession> activeRooms(String eventCode) {
+
+        List<PoolLiveQuizSession> active = new ArrayList<>();
+        for (PoolLiveQuizSession s : getRooms(eventCode)) {
+            if (s.getStatus() != PoolGameStatus.FINISHED) active.add(s);
+        }
+        return active;
+    }
+
+    private PoolEvent getEventForHost(String eventCode, String hostEmail) {
+
+        PoolEvent event = getEvent(eventCode);
+
+        if (!event.getHostEmail().equals(hostEmail)) {
+            throw new RuntimeException("Not your event");
+        }
+        if (event.isFinished()) {
+            throw new RuntimeException("Event already finished");
+        }
+        return event;
+    }
+
+    private String generateEventCode() {
+
+        Random random = new Random();
+        String code;
+
+        do {
+            StringBuilder sb = new StringBuilder(8);
+            for (int i = 0; i < 8; i++) {
+                sb.append(CODE_CHARS.charAt(random.nextInt(CODE_CHARS.length())));
+            }
+            code = sb.toString();
+        } while (eventRepository.existsByEventCode(code));
+
+        return code;
+    }
+}
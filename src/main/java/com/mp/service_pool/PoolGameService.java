@@ -1,20 +1,25 @@
 package com.mp.service_pool;
 
+import com.mp.entity_pool.PoolGameStatus;
 import com.mp.entity_pool.PoolLiveAnswer;
 import com.mp.entity_pool.PoolLivePlayer;
 import com.mp.entity_pool.PoolLiveQuizSession;
 import com.mp.repository_pool.PoolAnswerRepository;
 import com.mp.repository_pool.PoolPlayerRepository;
 import com.mp.repository_pool.PoolSessionRepository;
-import com.mp.repository.QuestionRepository;
 import com.mp.repository.QuizRepository;
 import com.mp.dto_pool.PoolLiveQuestionDTO;
-import com.mp.entity.Question;
+import com.mp.dto_pool.PoolTeamScoreboardDTO;
 import com.mp.entity.Quiz;
 import com.mp.entity.User;
+import com.mp.service.AnswerKey;
+import com.mp.service.QuestionPaper;
+import com.mp.service.QuestionPaperCache;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -29,22 +34,39 @@ public class PoolGameService {
     private final PoolSessionRepository sessionRepository;
     private final PoolPlayerRepository playerRepository;
     private final PoolAnswerRepository answerRepository;
-    private final QuestionRepository questionRepository;
+    private final QuestionPaperCache questionPaperCache;
     private final QuizRepository quizRepository;
+    private final PoolMetrics metrics;
+    private final PoolTeamService teams;
+    private final PoolEventLeaderboard eventBoard;
+
+
+    // Result of one answer frame
+    public enum AnswerOutcome {
+        REJECTED,       // late, duplicate, or question not open
+        ACCEPTED,
+        ALL_ANSWERED    // accepted and it was the last player
+    }
 
 
     public PoolGameService(
             PoolSessionRepository sessionRepository,
             PoolPlayerRepository playerRepository,
             PoolAnswerRepository answerRepository,
-            QuestionRepository questionRepository,
-            QuizRepository quizRepository
+            QuizRepository quizRepository,
+            QuestionPaperCache questionPaperCache,
+            PoolMetrics metrics,
+            PoolTeamService teams,
+            PoolEventLeaderboard eventBoard
     ) {
         this.sessionRepository = sessionRepository;
         this.playerRepository = playerRepository;
         this.answerRepository = answerRepository;
-        this.questionRepository = questionRepository;
         this.quizRepository = quizRepository;
+        this.questionPaperCache = questionPaperCache;
+        this.teams = teams;
+        this.eventBoard = eventBoard;
+        this.metrics = metrics;
     }
 
 
@@ -53,18 +75,58 @@ public class PoolGameService {
     // 1️⃣ START LIVE GAME (HOST)
     // =====================================================
     public PoolLiveQuizSession startGame(Long quizId) {
+        return startGame(quizId, false, null, null, false);
+    }
+
+    public PoolLiveQuizSession startGame(
+            Long quizId,
+            boolean autoAdvance,
+            Integer revealSeconds,
+            Integer scoreboardSeconds,
+            boolean teamMode
+    ) {
 
         // 🧹 END any previous active session for this quiz
+        // (rooms of a multi-room event are left alone)
         sessionRepository.findAll().stream()
                 .filter(s ->
                         s.getQuizId().equals(quizId) &&
-                        !"FINISHED".equals(s.getStatus())
+                        s.getEventCode() == null &&
+                        s.getStatus() != PoolGameStatus.FINISHED
                 )
                 .forEach(s -> {
-                    s.setStatus("FINISHED");
+                    s.setStatus(PoolGameStatus.FINISHED);
                     sessionRepository.save(s);
                 });
 
+        return createSession(quizId, autoAdvance, revealSeconds, scoreboardSeconds, teamMode, null);
+    }
+
+    // =====================================================
+    // 🏟 START ONE ROOM OF A MULTI-ROOM EVENT
+    // The event drives the rooms in lockstep (no auto-advance per room)
+    // =====================================================
+    public PoolLiveQuizSession startEventRoom(
+            Long quizId,
+            String eventCode,
+            Integer revealSeconds,
+            boolean teamMode
+    ) {
+        PoolLiveQuizSession session =
+                createSession(quizId, false, revealSeconds, null, teamMode, eventCode);
+
+        eventBoard.register(eventCode, session.getGamePin());
+        return session;
+    }
+
+    private PoolLiveQuizSession createSession(
+            Long quizId,
+            boolean autoAdvance,
+            Integer revealSeconds,
+            Integer scoreboardSeconds,
+            boolean teamMode,
+            String eventCode
+    ) {
 
         // 🆕 Create fresh session
         String gamePin = generateGamePin();
@@ -72,9 +134,53 @@ public class PoolGameService {
         PoolLiveQuizSession session =
                 new PoolLiveQuizSession(gamePin, quizId);
 
-        session.setStatus("WAITING");
+        session.setStatus(PoolGameStatus.WAITING);
+
+        // ⚙ Server-paced mode
+        session.setAutoAdvance(autoAdvance);
+        if (revealSeconds != null && revealSeconds >= 0) {
+            session.setRevealSeconds(revealSeconds);
+        }
+        if (scoreboardSeconds != null && scoreboardSeconds >= 0) {
+            session.setScoreboardSeconds(scoreboardSeconds);
+        }
 
-        return sessionRepository.save(session);
+        // 👥 House-vs-house
+        session.setTeamMode(teamMode);
+        session.setEventCode(eventCode);
+
+        PoolLiveQuizSession saved = sessionRepository.save(session);
+        metrics.gameStarted(saved.getGamePin());
+        if (teamMode) {
+            teams.track(saved.getGamePin());
+        }
+        return saved;
+    }
+
+
+    // =====================================================
+    // 🔀 STATE TRANSITION
+    // Returns false (no change) if the move is not allowed
+    // =====================================================
+    public boolean transition(String gamePin, PoolGameStatus next) {
+
+        PoolLiveQuizSession session = sessionRepository
+                .findByGamePin(gamePin)
+                .orElseThrow(() -> new RuntimeException("Invalid Game PIN"));
+
+        if (!session.getStatus().canTransitionTo(next)) {
+            return false;
+        }
+
+        session.setStatus(next);
+        sessionRepository.save(session);
+        return true;
+    }
+
+    public PoolLiveQuizSession getSession(String gamePin) {
+        return sessionRepository
+                .findByGamePin(gamePin)
+                .orElseThrow(() -> new RuntimeException("Invalid Game PIN"));
     }
 
 
@@ -82,6 +188,10 @@ public class PoolGameService {
     // 2️⃣ JOIN GAME (PLAYER)
     // =====================================================
     public PoolLivePlayer joinGame(String gamePin, String nickname) {
+        return joinGame(gamePin, nickname, null);
+    }
+
+    public PoolLivePlayer joinGame(String gamePin, String nickname, String team) {
 
         // 1️⃣ Validate session
         PoolLiveQuizSession session = sessionRepository
@@ -98,7 +208,7 @@ public class PoolGameService {
 
 
 
-        if (!"WAITING".equals(session.getStatus())) {
+        if (session.getStatus() != PoolGameStatus.WAITING) {
             throw new RuntimeException("Game already started");
         }
 
@@ -134,7 +244,30 @@ public class PoolGameService {
 
         // 5️⃣ Create Pool player (POOL ONLY)
         PoolLivePlayer player = new PoolLivePlayer(gamePin, nickname);
-        return playerRepository.save(player);
+
+        // 👥 Team mode: every player belongs to a team
+        if (session.isTeamMode()) {
+            if (team == null || team.isBlank()) {
+                throw new RuntimeException("Team is required in team mode");
+            }
+            team = team.trim();
+            if (team.length() > 30) {
+                throw new RuntimeException("Team name too long");
+            }
+            player.setTeamName(team);
+        }
+
+        PoolLivePlayer saved = playerRepository.save(player);
+        metrics.playerJoined(gamePin);
+
+        if (saved.getTeamName() != null) {
+            String teamName = saved.getTeamName();
+            afterCommit(() -> teams.joined(gamePin, teamName));
+        }
+        if (session.getEventCode() != null) {
+            afterCommit(() -> eventBoard.scored(gamePin, nickname, 0));
+        }
+        return saved;
     }
 
 
@@ -153,8 +286,9 @@ public class PoolGameService {
 
     // =====================================================
     // 🔢 GAME PIN GENERATOR
+    // (package-private for the JMH benchmarks)
     // =====================================================
-    private String generateGamePin() {
+    String generateGamePin() {
 
         Random random = new Random();
         String pin;
@@ -171,7 +305,7 @@ public class PoolGameService {
     // =====================================================
     // 4️⃣ SUBMIT ANSWER (PLAYER)
     // =====================================================
-    public boolean submitAnswer(
+    public AnswerOutcome submitAnswer(
             String gamePin,
             String nickname,
             Long questionId,
@@ -182,10 +316,17 @@ public class PoolGameService {
                 .findByGamePin(gamePin)
                 .orElseThrow(() -> new RuntimeException("Invalid Game PIN"));
         
-        if ("FINISHED".equals(session.getStatus())) {
-            return false;
+        // Answers are only accepted while the question is open
+        if (session.getStatus() != PoolGameStatus.LIVE) {
+            return AnswerOutcome.REJECTED;
         }
         
+     // ⏱ BLOCK if question not opened yet (pre-pushed, waiting for "go")
+        if (session.getQuestionStartedAt() != null &&
+                session.getQuestionStartedAt().isAfter(LocalDateTime.now())) {
+            return AnswerOutcome.REJECTED;
+        }
+
      // ⏱ BLOCK if question time expired
         if (session.getQuestionStartedAt() != null) {
 
@@ -199,7 +340,7 @@ public class PoolGameService {
                     session.getQuestionDuration() - elapsed;
 
             if (remaining <= 0) {
-                return false; // ❌ Too late
+                return AnswerOutcome.REJECTED; // ❌ Too late
             }
         }
 
@@ -211,16 +352,17 @@ public class PoolGameService {
 
         // Prevent double answer
         if (player.isAnswered()) {
-            return false;
+            return AnswerOutcome.REJECTED;
         }
 
-        Question question = questionRepository
-                .findById(questionId)
-                .orElseThrow(() -> new RuntimeException("Question not found"));
+        // same compiled key as the classic submit (no question lookup per answer)
+        AnswerKey answerKey = questionPaperCache.get(session.getQuizId()).answerKey();
 
-        boolean isCorrect =
-                question.getCorrectAnswer()
-                        .equalsIgnoreCase(selectedAnswer);
+        if (!answerKey.contains(questionId)) {
+            throw new RuntimeException("Question not found");
+        }
+
+        boolean isCorrect = answerKey.isCorrect(questionId, selectedAnswer);
 
         // ⏱ Calculate response time
         LocalDateTime now = LocalDateTime.now();
@@ -290,22 +432,27 @@ public class PoolGameService {
         player.setAnswered(true);
         playerRepository.save(player);
 
-        // 🔥 AUTO-NEXT CHECK
-        List<PoolLivePlayer> players =
-                playerRepository.findByGamePin(gamePin);
-
-        if (players.isEmpty()) {
-            return false;
+        // 👥 Team totals (in memory, only once the answer is committed)
+        if (player.getTeamName() != null) {
+            String team = player.getTeamName();
+            int points = awardedPoints;
+            afterCommit(() -> teams.scored(gamePin, team, points, isCorrect));
         }
 
-        boolean allAnswered = players.stream().allMatch(PoolLivePlayer::isAnswered);
-
-        if (allAnswered) {
-            session.setStatus("RESULT");
-            sessionRepository.save(session);
+        // 🏟 Event rooms feed the global leaderboard
+        if (awardedPoints > 0 && session.getEventCode() != null) {
+            int score = player.getScore();
+            afterCommit(() -> eventBoard.scored(gamePin, nickname, score));
         }
 
-        return allAnswered;
+        // 🔥 AUTO-NEXT CHECK
+        List<PoolLivePlayer> players =
+                playerRepository.findByGamePin(gamePin);
+
+        // Caller closes the question (LIVE -> CLOSED) on the scheduler
+        return players.stream().allMatch(PoolLivePlayer::isAnswered)
+                ? AnswerOutcome.ALL_ANSWERED
+                : AnswerOutcome.ACCEPTED;
 
     }
 
@@ -319,7 +466,13 @@ public class PoolGameService {
                 .findByGamePin(gamePin)
                 .orElseThrow(() -> new RuntimeException("Invalid Game PIN"));
 
-        session.setStatus("LIVE");
+        if (!session.getStatus().canTransitionTo(PoolGameStatus.LIVE)) {
+            throw new RuntimeException(
+                    "Cannot open next question while game is " + session.getStatus()
+            );
+        }
+
+        session.setStatus(PoolGameStatus.LIVE);
 
         sessionRepository.save(session);
 
@@ -344,33 +497,33 @@ public class PoolGameService {
                 .findByGamePin(gamePin)
                 .orElseThrow(() -> new RuntimeException("Invalid Game PIN"));
 
-        List<Question> questions =
-                questionRepository.findByQuizId(session.getQuizId());
-
         int index = session.getCurrentQuestionIndex();
 
-        if (index >= questions.size()) {
-            session.setStatus("FINISHED");
+        PoolLiveQuestionDTO question = questionAt(session.getQuizId(), index);
+
+        if (question == null) {
+            session.setStatus(PoolGameStatus.FINISHED);
             sessionRepository.save(session);
             return null;
         }
 
-        Question q = questions.get(index);
-
-        // 🔥 AFTER fetching question → increment for next round
-//        session.setCurrentQuestionIndex(index + 1);
-//        sessionRepository.save(session);
-
-        return new PoolLiveQuestionDTO(
-                q.getId(),
-                q.getContent(),
-                q.getOptions(),
-                index + 1,
-                questions.size()
-        );
+        return question;
 
     }
     
+ // =====================================================
+ // 👀 PEEK NEXT QUESTION (NO STATE CHANGE)
+ // Used to pre-push the upcoming question during the reveal phase
+ // =====================================================
+ public PoolLiveQuestionDTO peekNextQuestion(String gamePin) {
+
+     PoolLiveQuizSession session = sessionRepository
+             .findByGamePin(gamePin)
+             .orElseThrow(() -> new RuntimeException("Invalid Game PIN"));
+
+     return questionAt(session.getQuizId(), session.getCurrentQuestionIndex());
+ }
+
  // =====================================================
  // 🔁 INCREMENT QUESTION INDEX
  // =====================================================
@@ -398,7 +551,7 @@ public class PoolGameService {
                 .findByGamePin(gamePin)
                 .orElseThrow(() -> new RuntimeException("Invalid Game PIN"));
 
-        session.setStatus("FINISHED");
+        session.setStatus(PoolGameStatus.FINISHED);
         sessionRepository.save(session);
 
         // Reset players answered flag
@@ -413,11 +566,16 @@ public class PoolGameService {
     }
 
  
- public String getCorrectAnswer(Long questionId) {
-	    Question q = questionRepository.findById(questionId)
-	            .orElseThrow(() -> new RuntimeException("Question not found"));
+ public String getCorrectAnswer(String gamePin, Long questionId) {
+
+	    QuestionPaper paper = questionPaperCache.get(getSession(gamePin).getQuizId());
+
+	    int index = paper.answerKey().indexOf(questionId);
+	    if (index < 0) {
+	        throw new RuntimeException("Question not found");
+	    }
 
-	    return q.getCorrectAnswer();
+	    return paper.questions().get(index).correctAnswer();
 	}
 
  
@@ -431,29 +589,28 @@ public class PoolGameService {
 	            .findByGamePin(gamePin)
 	            .orElseThrow();
 
-	    int index = session.getCurrentQuestionIndex() - 1;
+	    return questionAt(session.getQuizId(), session.getCurrentQuestionIndex() - 1);
+	}
 
-	    List<Question> questions =
-	            questionRepository.findByQuizId(session.getQuizId());
 
-	    if (index < 0 || index >= questions.size()) {
-	        return null;
-	    }
+// Question at a 0-based position of the quiz's cached paper; null past either end
+private PoolLiveQuestionDTO questionAt(Long quizId, int index) {
 
-	    Question q = questions.get(index);
+    List<QuestionPaper.PaperQuestion> questions = questionPaperCache.get(quizId).questions();
 
-	    return new PoolLiveQuestionDTO(
-	            q.getId(),
-	            q.getContent(),
-	            q.getOptions(),
-	            index + 1,
-	            questions.size()
-	    );
-	}
+    if (index < 0 || index >= questions.size()) {
+        return null;
+    }
 
+    QuestionPaper.PaperQuestion q = questions.get(index);
 
-public List<Question> getQuestionsForQuiz(Long quizId) {
-    return questionRepository.findByQuizId(quizId);
+    return new PoolLiveQuestionDTO(
+            q.id(),
+            q.content(),
+            q.options(),
+            index + 1,
+            questions.size()
+    );
 }
 
 
@@ -474,6 +631,58 @@ public void destroySession(String gamePin) {
 
  // 3️⃣ Delete session itself
  sessionRepository.delete(session);
+
+ metrics.gameEnded(gamePin);
+ teams.untrack(gamePin);
+}
+
+
+//=====================================================
+//👥 TEAM LEADERBOARD
+//=====================================================
+public boolean isTeamGame(String gamePin) {
+
+    if (teams.isTeamGame(gamePin)) return true;
+    if (teams.isSoloGame(gamePin)) return false;
+
+    // Not known on this node (e.g. after a restart): the session decides
+    PoolLiveQuizSession session = sessionRepository.findByGamePin(gamePin).orElse(null);
+    if (session == null) return false;
+
+    if (!session.isTeamMode()) {
+        teams.markSolo(gamePin);
+        return false;
+    }
+
+    // totals are in memory; rebuild them from the players' saved scores
+    teams.rebuild(gamePin, playerRepository.findByGamePin(gamePin));
+    return true;
+}
+
+
+public PoolTeamScoreboardDTO getTeamStandings(String gamePin) {
+
+    if (!isTeamGame(gamePin)) {
+        return new PoolTeamScoreboardDTO(List.of());
+    }
+    return teams.standings(gamePin);
+}
+
+
+// Apply in-memory side effects only if the surrounding transaction commits
+private static void afterCommit(Runnable action) {
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+        action.run();
+        return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+            action.run();
+        }
+    });
 }
 
 
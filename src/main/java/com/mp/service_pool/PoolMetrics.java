@@ -0,0 +1,289 @@
+package com.mp.service_pool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Live game health meters.
+ *
+ * Registry meters are global (no PIN tag, to keep cardinality bounded).
+ * Per-PIN numbers are kept here and served by the "poolgames" actuator endpoint.
+ */
+@Component
+public class PoolMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Counter answersAccepted;
+    private final Counter answersRejected;
+    private final Timer answerAck;
+    private final Timer broadcast;
+    private final DistributionSummary tickDrift;
+
+    private final ConcurrentHashMap<String, GameStats> games = new ConcurrentHashMap<>();
+
+    public PoolMetrics(MeterRegistry registry) {
+
+        this.registry = registry;
+
+        this.answersAccepted = Counter.builder("pool.answers")
+                .tag("result", "accepted")
+                .description("Answers graded")
+                .register(registry);
+
+        this.answersRejected = Counter.builder("pool.answers")
+                .tag("result", "rejected")
+                .description("Answers refused (late, duplicate, closed)")
+                .register(registry);
+
+        this.answerAck = Timer.builder("pool.answer.ack")
+                .description("Answer frame received until scoreboard handed to the broker")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        this.broadcast = Timer.builder("pool.broadcast")
+                .description("Serialise + hand one frame to the broker for fan-out")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        this.tickDrift = DistributionSummary.builder("pool.timer.drift")
+                .baseUnit("milliseconds")
+                .description("Lateness of a timer tick vs. its 1s schedule")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        Gauge.builder("pool.games.active", games, Map::size)
+                .description("Games with a live session")
+                .register(registry);
+
+        Gauge.builder("pool.players.active", this, m -> m.sum(g -> g.players.get()))
+                .description("Players across all live games")
+                .register(registry);
+
+        Gauge.builder("pool.queue.depth", this, m -> m.sum(g -> g.inFlight.get()))
+                .description("Answer frames being processed across all games")
+                .register(registry);
+    }
+
+    // =====================================================
+    // LIFECYCLE
+    // =====================================================
+
+    public void gameStarted(String gamePin) {
+        games.putIfAbsent(gamePin, new GameStats(gamePin));
+    }
+
+    public void gameEnded(String gamePin) {
+        games.remove(gamePin);
+    }
+
+    public void playerJoined(String gamePin) {
+        stats(gamePin).players.incrementAndGet();
+    }
+
+    // =====================================================
+    // HOT PATH
+    // =====================================================
+
+    /** Call when an answer frame arrives; pair with {@link #answerDone}. */
+    public long answerReceived(String gamePin) {
+        GameStats g = games.get(gamePin);
+        if (g != null) g.inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void answerDone(String gamePin, long startNanos, boolean accepted) {
+
+        long nanos = System.nanoTime() - startNanos;
+        answerAck.record(nanos, TimeUnit.NANOSECONDS);
+        (accepted ? answersAccepted : answersRejected).increment();
+
+        // unknown PINs are not tracked (no per-PIN state for junk frames)
+        GameStats g = games.get(gamePin);
+        if (g == null) return;
+
+        g.inFlight.decrementAndGet();
+        g.ackNanosTotal.add(nanos);
+        g.ackNanosMax.accumulateAndGet(nanos, Math::max);
+        (accepted ? g.answers : g.rejected).increment();
+        if (accepted) g.recent.hit(System.currentTimeMillis());
+    }
+
+    /** Frame refused by the answer gate before any service work. */
+    public void answerDropped(String gamePin, String reason) {
+        registry.counter("pool.answers.dropped", "reason", reason.toLowerCase()).increment();
+        GameStats g = games.get(gamePin);
+        if (g != null) g.dropped.increment();
+    }
+
+    public void broadcast(String gamePin, Runnable send) {
+
+        long start = System.nanoTime();
+        send.run();
+        long nanos = System.nanoTime() - start;
+
+        broadcast.record(nanos, TimeUnit.NANOSECONDS);
+
+        GameStats g = games.get(gamePin);
+        if (g != null) {
+            g.broadcasts.increment();
+            g.broadcastNanosTotal.add(nanos);
+        }
+    }
+
+    public void tick(String gamePin) {
+
+        GameStats g = games.get(gamePin);
+        if (g == null) return;
+
+        long now = System.nanoTime();
+        long last = g.lastTickNanos.getAndSet(now);
+
+        // first tick of a question has no reference
+        if (last == 0 || now - last > TimeUnit.SECONDS.toNanos(5)) return;
+
+        long driftMillis = Math.abs(TimeUnit.NANOSECONDS.toMillis(now - last) - 1000);
+        g.lastDriftMillis = driftMillis;
+        tickDrift.record(driftMillis);
+    }
+
+    public void timerStopped(String gamePin) {
+        GameStats g = games.get(gamePin);
+        if (g != null) g.lastTickNanos.set(0);
+    }
+
+    public <T> void gauge(String name, String description, T target,
+                          ToDoubleFunction<T> value) {
+        Gauge.builder(name, target, value).description(description).register(registry);
+    }
+
+    // =====================================================
+    // DRILL-DOWN (actuator)
+    // =====================================================
+
+    public Collection<GameStats> games() {
+        return games.values();
+    }
+
+    public GameStats game(String gamePin) {
+        return games.get(gamePin);
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    private GameStats stats(String gamePin) {
+        return games.computeIfAbsent(gamePin, GameStats::new);
+    }
+
+    private double sum(ToIntFunction<GameStats> f) {
+        long total = 0;
+        for (GameStats g : games.values()) total += f.applyAsInt(g);
+        return total;
+    }
+
+    public static final class GameStats {
+
+        final String gamePin;
+        final long startedAtMillis = System.currentTimeMillis();
+
+        final AtomicInteger players = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        final LongAdder answers = new LongAdder();
+        final RateWindow recent = new RateWindow();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder ackNanosTotal = new LongAdder();
+        final AtomicLong ackNanosMax = new AtomicLong();
+
+        final LongAdder broadcasts = new LongAdder();
+        final LongAdder broadcastNanosTotal = new LongAdder();
+
+        final AtomicLong lastTickNanos = new AtomicLong();
+        volatile long lastDriftMillis;
+
+        GameStats(String gamePin) {
+            this.gamePin = gamePin;
+        }
+
+        public Map<String, Object> toMap() {
+
+            long answered = answers.sum();
+            long refused = rejected.sum();
+            long acked = answered + refused;   // ack latency covers both
+            long sent = broadcasts.sum();
+            long now = System.currentTimeMillis();
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("gamePin", gamePin);
+            m.put("players", players.get());
+            m.put("queueDepth", inFlight.get());
+            m.put("answers", answered);
+            m.put("rejected", refused);
+            m.put("dropped", dropped.sum());
+            m.put("answersPerSecond", recent.perSecond(now, startedAtMillis));
+            m.put("answerAckAvgMs", acked == 0 ? 0 : ackNanosTotal.sum() / (double) acked / 1e6);
+            m.put("answerAckMaxMs", ackNanosMax.get() / 1e6);
+            m.put("broadcasts", sent);
+            m.put("broadcastAvgMs", sent == 0 ? 0 : broadcastNanosTotal.sum() / (double) sent / 1e6);
+            m.put("lastTickDriftMs", lastDriftMillis);
+            return m;
+        }
+    }
+
+    /**
+     * Answers per second over the last {@link #SECONDS} whole seconds: one
+     * counter per second in a ring, reused once its second is out of the
+     * window. A hit racing a slot reset may be lost; fine for a health meter.
+     */
+    static final class RateWindow {
+
+        static final int SECONDS = 10;
+
+        private final AtomicLongArray second = new AtomicLongArray(SECONDS);
+        private final AtomicLongArray count = new AtomicLongArray(SECONDS);
+
+        void hit(long nowMillis) {
+
+            long sec = nowMillis / 1000;
+            int slot = (int) (sec % SECONDS);
+
+            long seen = second.get(slot);
+            if (seen != sec && second.compareAndSet(slot, seen, sec)) count.set(slot, 0);
+            count.incrementAndGet(slot);
+        }
+
+        // current (partial) second left out; young games divide by their age
+        double perSecond(long nowMillis, long sinceMillis) {
+
+            long sec = nowMillis / 1000;
+            long span = Math.min(SECONDS, sec - sinceMillis / 1000);
+            if (span <= 0) return 0;
+
+            long total = 0;
+            for (long s = sec - span; s < sec; s++) {
+                int slot = (int) (s % SECONDS);
+                if (second.get(slot) == s) total += count.get(slot);
+            }
+            return total / (double) span;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.mp.service_pool;
+
+import com.mp.dto_pool.PoolSpectatorFrameDTO;
+import com.mp.entity_pool.PoolGameStatus;
+import com.mp.entity_pool.PoolLivePlayer;
+import com.mp.entity_pool.PoolLiveQuizSession;
+import com.mp.repository_pool.PoolPlayerRepository;
+import com.mp.repository_pool.PoolSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spectator / projector tier.
+ *
+ * Players' answers only bump in-memory counters here. One sampler thread
+ * builds a single aggregated frame per game at a fixed rate (top-K, answer
+ * histogram, deadline) and publishes it on /topic/pool/{pin}/spectate, so the
+ * cost per game is one frame per interval whatever the answer rate.
+ * Nothing is sent when the state did not change; late joiners use
+ * {@link #snapshot(String)} once, then follow the topic.
+ */
+@Service
+public class PoolSpectatorService {
+
+    private final PoolSessionRepository sessionRepository;
+    private final PoolPlayerRepository playerRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PoolMetrics metrics;
+
+    private final int topK;
+
+    private final ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService sampler =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "pool-spectator");
+                t.setDaemon(true);
+                return t;
+            });
+
+    public PoolSpectatorService(
+            PoolSessionRepository sessionRepository,
+            PoolPlayerRepository playerRepository,
+            SimpMessagingTemplate messagingTemplate,
+            PoolMetrics metrics,
+            @Value("${pool.spectator.interval-ms:1000}") long intervalMillis,
+            @Value("${pool.spectator.top-k:10}") int topK
+    ) {
+        this.sessionRepository = sessionRepository;
+        this.playerRepository = playerRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.metrics = metrics;
+        this.topK = Math.max(1, topK);
+
+        sampler.scheduleAtFixedRate(this::sampleAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // =====================================================
+    // 📥 HOOKS (cheap, called on the game's hot paths)
+    // =====================================================
+
+    public void track(String gamePin) {
+        boards.putIfAbsent(gamePin, new Board());
+    }
+
+    /** Question opened: histogram starts from zero. */
+    public void questionOpened(String gamePin, Long questionId) {
+        Board board = boards.get(gamePin);
+        if (board != null) board.histogramFor(questionId);
+    }
+
+    /** Accepted answer: counted into the histogram of its question. */
+    public void answerAccepted(String gamePin, Long questionId, String selectedAnswer) {
+
+        Board board = boards.get(gamePin);
+        if (board == null || selectedAnswer == null) return;
+
+        board.histogramFor(questionId)
+                .computeIfAbsent(selectedAnswer, k -> new LongAdder())
+                .increment();
+        board.answered.incrementAndGet();
+        board.scoresDirty = true;
+    }
+
+    /** Players joined / left: leaderboard needs a reload. */
+    public void playersChanged(String gamePin) {
+        Board board = boards.get(gamePin);
+        if (board != null) board.scoresDirty = true;
+    }
+
+    /** Game over: one final frame, then forget the game. */
+    public void untrack(String gamePin) {
+
+        Board board = boards.remove(gamePin);
+        if (board == null || board.last == null) return;
+
+        PoolSpectatorFrameDTO last = board.last;
+        publish(gamePin, new PoolSpectatorFrameDTO(
+                gamePin,
+                last.seq() + 1,
+                "FINISHED",
+                last.questionId(),
+                last.questionNumber(),
+                0,
+                System.currentTimeMillis(),
+                last.playerCount(),
+                last.answeredCount(),
+                last.leaders(),
+                last.histogram()
+        ));
+    }
+
+    // =====================================================
+    // 🔎 INITIAL SYNC (REST)
+    // =====================================================
+    public PoolSpectatorFrameDTO snapshot(String gamePin) {
+
+        Board board = boards.get(gamePin);
+        return board == null ? null : board.last;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sampler.shutdownNow();
+    }
+
+    // =====================================================
+    // ⏱ SAMPLER
+    // =====================================================
+
+    private void sampleAll() {
+
+        for (Map.Entry<String, Board> e : boards.entrySet()) {
+            try {
+                sample(e.getKey(), e.getValue());
+            } catch (Exception ex) {
+                // never let one game kill the sampler
+                System.err.println("Spectator sample failed for " + e.getKey() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    private void sample(String gamePin, Board board) {
+
+        PoolSpectatorFrameDTO frame = build(gamePin, board);
+        if (frame == null) {
+            boards.remove(gamePin); // session destroyed without untrack
+            return;
+        }
+
+        if (board.last != null && sameState(board.last, frame)) return;
+
+        board.last = frame;
+        publish(gamePin, frame);
+    }
+
+    private PoolSpectatorFrameDTO build(String gamePin, Board board) {
+
+        PoolLiveQuizSession session = sessionRepository.findByGamePin(gamePin).orElse(null);
+        if (session == null) return null;
+
+        Long questionId = board.questionId;
+
+        // Leaderboard head: one bounded query, only when scores may have moved
+        if (board.scoresDirty || board.leaders == null) {
+            board.scoresDirty = false;
+            board.leaders = loadLeaders(gamePin);
+            board.playerCount = (int) playerRepository.countByGamePin(gamePin);
+        }
+
+        long deadline = 0;
+        if (session.getStatus() == PoolGameStatus.LIVE && session.getQuestionStartedAt() != null) {
+            deadline = session.getQuestionStartedAt()
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+                    .toEpochMilli() + session.getQuestionDuration() * 1000L;
+        }
+
+        Map<String, Long> histogram = new TreeMap<>();
+        board.histogram.forEach((answer, count) -> histogram.put(answer, count.sum()));
+
+        PoolSpectatorFrameDTO previous = board.last;
+
+        return new PoolSpectatorFrameDTO(
+                gamePin,
+                previous == null ? 1 : previous.seq() + 1,
+                session.getStatus().name(),
+                questionId,
+                session.getCurrentQuestionIndex(),
+                deadline,
+                System.currentTimeMillis(),
+                board.playerCount,
+                board.answered.get(),
+                board.leaders,
+                histogram
+        );
+    }
+
+    private List<PoolSpectatorFrameDTO.Leader> loadLeaders(String gamePin) {
+
+        List<PoolLivePlayer> top = playerRepository.findByGamePinOrderByScoreDescNicknameAsc(
+                gamePin, PageRequest.of(0, topK)
+        );
+
+        List<PoolSpectatorFrameDTO.Leader> leaders = new ArrayList<>(top.size());
+        int rank = 0;
+        int previousScore = Integer.MIN_VALUE;
+
+        for (int i = 0; i < top.size(); i++) {
+            PoolLivePlayer p = top.get(i);
+            if (p.getScore() != previousScore) {
+                rank = i + 1;
+                previousScore = p.getScore();
+            }
+            leaders.add(new PoolSpectatorFrameDTO.Leader(rank, p.getNickname(), p.getScore()));
+        }
+        return leaders;
+    }
+
+    // Everything but seq / serverTime
+    private static boolean sameState(PoolSpectatorFrameDTO a, PoolSpectatorFrameDTO b) {
+        return a.status().equals(b.status())
+                && Objects.equals(a.questionId(), b.questionId())
+                && a.questionNumber() == b.questionNumber()
+                && a.deadline() == b.deadline()
+                && a.playerCount() == b.playerCount()
+                && a.answeredCount() == b.answeredCount()
+                && a.leaders().equals(b.leaders())
+                && a.histogram().equals(b.histogram());
+    }
+
+    private void publish(String gamePin, PoolSpectatorFrameDTO frame) {
+        metrics.broadcast(gamePin, () -> messagingTemplate.convertAndSend(
+                "/topic/pool/" + gamePin + "/spectate",
+                frame
+        ));
+    }
+
+    // Per-game aggregates; writers are answer threads, reader is the sampler
+    private static final class Board {
+
+        volatile Long questionId;
+        volatile ConcurrentHashMap<String, LongAdder> histogram = new ConcurrentHashMap<>();
+        final AtomicInteger answered = new AtomicInteger();
+
+        volatile boolean scoresDirty = true;
+
+        // sampler thread only
+        List<PoolSpectatorFrameDTO.Leader> leaders;
+        int playerCount;
+        volatile PoolSpectatorFrameDTO last;
+
+        // New question → fresh histogram
+        ConcurrentHashMap<String, LongAdder> histogramFor(Long id) {
+            if (!Objects.equals(questionId, id)) {
+                synchronized (this) {
+                    if (!Objects.equals(questionId, id)) {
+                        histogram = new ConcurrentHashMap<>();
+                        answered.set(0);
+                        questionId = id;
+                    }
+                }
+            }
+            return histogram;
+        }
+    }
+}
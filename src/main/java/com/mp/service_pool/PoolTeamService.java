@@ -0,0 +1,131 @@
+package com.mp.service_pool;
+
+import com.mp.dto_pool.PoolTeamScoreboardDTO;
+import com.mp.entity_pool.PoolLivePlayer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Team totals for team-mode games.
+ *
+ * One LongAdder set per team: an answer costs one map lookup and two adds,
+ * whatever the team or game size. Sorting happens only when the team board
+ * is published.
+ */
+@Service
+public class PoolTeamService {
+
+    // gamePin -> team name -> totals
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Totals>> games =
+            new ConcurrentHashMap<>();
+
+    // games known not to be in team mode (saves a session read per answer)
+    private final Set<String> solo = ConcurrentHashMap.newKeySet();
+
+    public void track(String gamePin) {
+        games.putIfAbsent(gamePin, new ConcurrentHashMap<>());
+    }
+
+    public boolean isTeamGame(String gamePin) {
+        return games.containsKey(gamePin);
+    }
+
+    public boolean isSoloGame(String gamePin) {
+        return solo.contains(gamePin);
+    }
+
+    public void markSolo(String gamePin) {
+        solo.add(gamePin);
+    }
+
+    public void untrack(String gamePin) {
+        games.remove(gamePin);
+        solo.remove(gamePin);
+    }
+
+    public void joined(String gamePin, String team) {
+        Totals t = totals(gamePin, team);
+        if (t != null) t.members.increment();
+    }
+
+    // =====================================================
+    // 🎯 HOT PATH: O(1) per graded answer
+    // =====================================================
+    public void scored(String gamePin, String team, int points, boolean correct) {
+
+        Totals t = totals(gamePin, team);
+        if (t == null) return;
+
+        t.score.add(points);
+        if (correct) t.correct.increment();
+    }
+
+    // Rebuild after a restart (in-memory totals lost, players still in DB)
+    public void rebuild(String gamePin, List<PoolLivePlayer> players) {
+
+        ConcurrentHashMap<String, Totals> teams = new ConcurrentHashMap<>();
+
+        for (PoolLivePlayer p : players) {
+            if (p.getTeamName() == null) continue;
+            Totals t = teams.computeIfAbsent(p.getTeamName(), k -> new Totals());
+            t.members.increment();
+            t.score.add(p.getScore());
+        }
+        games.put(gamePin, teams);
+    }
+
+    public PoolTeamScoreboardDTO standings(String gamePin) {
+
+        ConcurrentHashMap<String, Totals> teams = games.get(gamePin);
+        if (teams == null) return new PoolTeamScoreboardDTO(List.of());
+
+        record Row(String name, long members, long score, long correct) {
+        }
+
+        List<Row> rows = new ArrayList<>(teams.size());
+        teams.forEach((name, t) -> rows.add(new Row(name, t.members.sum(), t.score.sum(), t.correct.sum())));
+
+        rows.sort(Comparator.comparingLong(Row::score).reversed().thenComparing(Row::name));
+
+        List<PoolTeamScoreboardDTO.Team> result = new ArrayList<>(rows.size());
+        int rank = 0;
+        long previous = Long.MIN_VALUE;
+
+        for (int i = 0; i < rows.size(); i++) {
+            Row r = rows.get(i);
+            if (r.score() != previous) {
+                rank = i + 1;
+                previous = r.score();
+            }
+            result.add(new PoolTeamScoreboardDTO.Team(
+                    rank,
+                    r.name(),
+                    (int) r.members(),
+                    r.score(),
+                    r.members() == 0 ? 0 : (double) r.score() / r.members(),
+                    r.correct()
+            ));
+        }
+        return new PoolTeamScoreboardDTO(result);
+    }
+
+    private Totals totals(String gamePin, String team) {
+
+        ConcurrentHashMap<String, Totals> teams = games.get(gamePin);
+        if (teams == null || team == null) return null;
+
+        return teams.computeIfAbsent(team, k -> new Totals());
+    }
+
+    private static final class Totals {
+        final LongAdder members = new LongAdder();
+        final LongAdder score = new LongAdder();
+        final LongAdder correct = new LongAdder();
+    }
+}
@@ -1,15 +1,26 @@
 package com.mp.service_pool;
 
+import com.mp.dto_pool.PoolLiveQuestionDTO;
+import com.mp.dto_pool.PoolQuestionGoDTO;
 import com.mp.dto_pool.PoolScoreboardDTO;
+import com.mp.dto_pool.PoolTeamScoreboardDTO;
+import com.mp.entity_pool.PoolGameStatus;
+import com.mp.entity_pool.PoolLivePlayer;
 import com.mp.entity_pool.PoolLiveQuizSession;
 import com.mp.repository_pool.PoolSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Lazy;
 
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
 
 @Service
@@ -20,25 +31,195 @@ public class PoolTimerService {
     private final SimpMessagingTemplate messagingTemplate;
     
 
-    private final ScheduledExecutorService scheduler =
-            Executors.newScheduledThreadPool(4);
+    // A failed phase step is retried this often before the game is left as it is
+    private static final int PHASE_RETRIES = 3;
+    private static final int PHASE_RETRY_SECONDS = 2;
+
+    private final ScheduledThreadPoolExecutor scheduler =
+            new ScheduledThreadPoolExecutor(4);
     
     private final ConcurrentHashMap<String, ScheduledFuture<?>> timers =
             new ConcurrentHashMap<>();
 
+    // Pending reveal -> scoreboard -> next transitions per game
+    private final ConcurrentHashMap<String, ScheduledFuture<?>> phases =
+            new ConcurrentHashMap<>();
+
+    // One transition at a time per game (tick vs. all-answered vs. host)
+    private final ConcurrentHashMap<String, Object> locks =
+            new ConcurrentHashMap<>();
+
+    // Next question already pushed to clients (hidden until "go")
+    private final ConcurrentHashMap<String, PoolLiveQuestionDTO> prefetched =
+            new ConcurrentHashMap<>();
+
+    // Rooms of one event share a single tick task (gamePin -> group, group -> timer)
+    private final ConcurrentHashMap<String, String> timerGroupOf =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, GroupTimer> groupTimers =
+            new ConcurrentHashMap<>();
+
+    private final boolean pipelineEnabled;
+    private final long openLeadMillis;
+    private final PoolMetrics metrics;
+    private final PoolSpectatorService spectators;
+    private final PoolAnswerGate answerGate;
+    private final PoolArchiveService archiveService;
+
 
     public PoolTimerService(
             PoolSessionRepository sessionRepository,
             @Lazy PoolGameService poolGameService,
-            SimpMessagingTemplate messagingTemplate
+            SimpMessagingTemplate messagingTemplate,
+            PoolMetrics metrics,
+            PoolSpectatorService spectators,
+            PoolAnswerGate answerGate,
+            PoolArchiveService archiveService,
+            @Value("${pool.pipeline.enabled:true}") boolean pipelineEnabled,
+            @Value("${pool.pipeline.open-lead-ms:300}") long openLeadMillis
     ) {
         this.sessionRepository = sessionRepository;
         this.poolGameService = poolGameService;
         this.messagingTemplate = messagingTemplate;
+        this.metrics = metrics;
+        this.spectators = spectators;
+        this.answerGate = answerGate;
+        this.archiveService = archiveService;
+        this.pipelineEnabled = pipelineEnabled;
+        this.openLeadMillis = openLeadMillis;
+
+        metrics.gauge("pool.scheduler.queue", "Timer/phase tasks waiting on the pool scheduler",
+                scheduler, s -> s.getQueue().size());
+    }
+
+
+    // =====================================================
+    // ⏭ ADVANCE (host "next-question" or auto-advance)
+    // SCOREBOARD/RESULT/WAITING -> LIVE, or FINISHED if no questions left
+    // =====================================================
+    public void advance(String gamePin) {
+        advance(gamePin, null);
+    }
+
+    // openAtMillis: common open time for rooms of an event (null = now)
+    public void advance(String gamePin, Long openAtMillis) {
+
+        synchronized (lockFor(gamePin)) {
+
+            cancelPhase(gamePin);
+
+            poolGameService.prepareNextQuestion(gamePin);
+
+            var question =
+                    poolGameService.getNextQuestion(gamePin);
+
+            if (question == null) {
+                finishGame(gamePin);
+                return;
+            }
+
+            // Full question, or a "go" frame if it was pre-pushed
+            openQuestion(gamePin, question, openAtMillis);
+
+            // 🔥 AFTER sending question → increment index
+            poolGameService.moveToNextIndex(gamePin);
+        }
+    }
+
+    // =====================================================
+    // ⛔ CLOSE QUESTION (deadline or all answered)
+    // Runs on the scheduler, never on the caller's thread
+    // =====================================================
+    public void closeQuestion(String gamePin) {
+        scheduler.execute(() -> runPhase(gamePin, () -> close(gamePin)));
+    }
+
+    // =====================================================
+    // 🏁 STOP EVERYTHING FOR A GAME
+    // =====================================================
+    public void stopGame(String gamePin) {
+        stopTimer(gamePin);
+        cancelPhase(gamePin);
+        clearPrefetched(gamePin);
+        locks.remove(gamePin);
+        timerGroupOf.remove(gamePin);
+        spectators.untrack(gamePin);
+        answerGate.untrack(gamePin);
+    }
+
+    // =====================================================
+    // ▶ OPEN QUESTION
+    // If the question was pre-pushed during the reveal phase,
+    // only a tiny "go" frame is sent, opening it at a precise
+    // server timestamp. Otherwise the full question is sent.
+    // =====================================================
+    public void openQuestion(String gamePin, PoolLiveQuestionDTO question) {
+        openQuestion(gamePin, question, null);
+    }
+
+    public void openQuestion(String gamePin, PoolLiveQuestionDTO question, Long openAtMillis) {
+
+        PoolLiveQuestionDTO pushed = prefetched.remove(gamePin);
+
+        spectators.questionOpened(gamePin, question.getQuestionId());
+        answerGate.questionOpened(gamePin, question.getQuestionId());
+
+        boolean alreadyPushed = pushed != null &&
+                pushed.getQuestionId().equals(question.getQuestionId());
+
+        if (pipelineEnabled && (alreadyPushed || openAtMillis != null)) {
+
+            // Lockstep open (event rooms): push now, reveal at the common time
+            if (!alreadyPushed) {
+                send(gamePin, () -> messagingTemplate.convertAndSend(
+                        "/topic/pool/" + gamePin + "/prefetch",
+                        question
+                ));
+            }
+
+            long now = System.currentTimeMillis();
+            long openAt = openAtMillis != null
+                    ? Math.max(openAtMillis, now)
+                    : now + openLeadMillis;
+
+            // Timer starts at openAt, not when the frame leaves
+            startTimer(gamePin, LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(openAt), ZoneId.systemDefault()
+            ));
+
+            send(gamePin, () -> messagingTemplate.convertAndSend(
+                    "/topic/pool/" + gamePin + "/go",
+                    new PoolQuestionGoDTO(
+                            question.getQuestionId(),
+                            question.getQuestionNumber(),
+                            openAt,
+                            now,
+                            currentDuration(gamePin)
+                    )
+            ));
+            return;
+        }
+
+        send(gamePin, () -> messagingTemplate.convertAndSend(
+                "/topic/pool/" + gamePin + "/question",
+                question
+        ));
+
+        if (openAtMillis != null) {
+            startTimer(gamePin, LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(openAtMillis), ZoneId.systemDefault()
+            ));
+        } else {
+            startTimer(gamePin);
+        }
     }
 
 
     public void startTimer(String gamePin) {
+        startTimer(gamePin, LocalDateTime.now());
+    }
+
+    public void startTimer(String gamePin, LocalDateTime startAt) {
 
         // 🧹 Cancel previous timer
         ScheduledFuture<?> old = timers.remove(gamePin);
@@ -48,13 +229,24 @@ public class PoolTimerService {
                 .findByGamePin(gamePin)
                 .orElseThrow();
 
-        session.setQuestionStartedAt(LocalDateTime.now());
+        session.setQuestionStartedAt(startAt);
         sessionRepository.save(session);
 
+        long initialDelay = Math.max(
+                0,
+                Duration.between(LocalDateTime.now(), startAt).toMillis()
+        );
+
+        String group = timerGroupOf.get(gamePin);
+        if (group != null) {
+            joinGroupTimer(group, gamePin, initialDelay);
+            return;
+        }
+
         ScheduledFuture<?> future =
                 scheduler.scheduleAtFixedRate(
                         () -> tick(gamePin),
-                        0, 1, TimeUnit.SECONDS
+                        initialDelay, 1000, TimeUnit.MILLISECONDS
                 );
 
         timers.put(gamePin, future);
@@ -62,18 +254,117 @@ public class PoolTimerService {
     
     public void stopTimer(String gamePin) {
         ScheduledFuture<?> future = timers.remove(gamePin);
-        if (future != null) future.cancel(true);
+        // no interrupt: may be called from the tick itself
+        if (future != null) future.cancel(false);
+
+        String group = timerGroupOf.get(gamePin);
+        if (group != null) leaveGroupTimer(group, gamePin);
+
+        metrics.timerStopped(gamePin);
+    }
+
+    // =====================================================
+    // 🏟 SHARED TIMER FOR EVENT ROOMS
+    // One fixed-rate task ticks every room of the group, so dozens of
+    // rooms cost one scheduled task instead of one each.
+    // =====================================================
+    public void joinTimerGroup(String gamePin, String group) {
+        timerGroupOf.put(gamePin, group);
+    }
+
+    private void joinGroupTimer(String group, String gamePin, long initialDelay) {
+
+        GroupTimer g = groupTimers.computeIfAbsent(group, k -> new GroupTimer());
+
+        synchronized (g) {
+            g.members.add(gamePin);
+            if (g.future == null) {
+                g.future = scheduler.scheduleAtFixedRate(
+                        () -> tickGroup(g),
+                        initialDelay, 1000, TimeUnit.MILLISECONDS
+                );
+            }
+        }
+    }
+
+    private void tickGroup(GroupTimer g) {
+        for (String pin : g.members) {
+            try {
+                tick(pin);
+            } catch (Exception e) {
+                // one broken room must not stop the shared task
+                stopTimer(pin);
+            }
+        }
+    }
+
+    public void removeTimerGroup(String group) {
+        GroupTimer g = groupTimers.remove(group);
+        if (g == null) return;
+        synchronized (g) {
+            if (g.future != null) g.future.cancel(false);
+            g.future = null;
+        }
+    }
+
+    private void leaveGroupTimer(String group, String gamePin) {
+
+        GroupTimer g = groupTimers.get(group);
+        if (g == null) return;
+
+        synchronized (g) {
+            g.members.remove(gamePin);
+            if (g.members.isEmpty() && g.future != null) {
+                g.future.cancel(false);
+                g.future = null;
+            }
+        }
     }
 
+    private static final class GroupTimer {
+        final Set<String> members = ConcurrentHashMap.newKeySet();
+        ScheduledFuture<?> future;
+    }
 
+    private void cancelPhase(String gamePin) {
+        ScheduledFuture<?> future = phases.remove(gamePin);
+        if (future != null) future.cancel(false);
+    }
+
+    private Object lockFor(String gamePin) {
+        return locks.computeIfAbsent(gamePin, k -> new Object());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void clearPrefetched(String gamePin) {
+        prefetched.remove(gamePin);
+    }
+
+    private int currentDuration(String gamePin) {
+        return sessionRepository.findByGamePin(gamePin)
+                .map(PoolLiveQuizSession::getQuestionDuration)
+                .orElse(0);
+    }
 
-    private void tick(String gamePin) {
+
+
+    // package-private for the JMH benchmarks
+    void tick(String gamePin) {
 
         PoolLiveQuizSession session = sessionRepository
                 .findByGamePin(gamePin)
                 .orElse(null);
 
-        if (session == null) return;
+        if (session == null) {
+            stopTimer(gamePin);
+            return;
+        }
+
+        metrics.tick(gamePin);
 
         long elapsed =
                 Duration.between(
@@ -81,78 +372,255 @@ public class PoolTimerService {
                         LocalDateTime.now()
                 ).getSeconds();
 
-        long remaining =
-                session.getQuestionDuration() - elapsed;
+        long remaining = Math.min(
+                session.getQuestionDuration() - elapsed,
+                session.getQuestionDuration()
+        );
 
         if (remaining <= 0) {
-
-            // Send 0 to frontend first
-            messagingTemplate.convertAndSend(
-                    "/topic/pool/" + gamePin + "/timer",
-                    0
-            );
-
-            handleTimeout(gamePin);
+            runPhase(gamePin, () -> close(gamePin));
             return;
         }
 
 
 
         // 🔁 Broadcast remaining seconds
-        messagingTemplate.convertAndSend(
+        send(gamePin, () -> messagingTemplate.convertAndSend(
                 "/topic/pool/" + gamePin + "/timer",
                 remaining
-        );
+        ));
     }
 
-    private void handleTimeout(String gamePin) {
+    // LIVE -> CLOSED -> RESULT
+    private void close(String gamePin) {
+
+        if (!poolGameService.transition(gamePin, PoolGameStatus.CLOSED)) {
+            return; // already closed by the other trigger
+        }
 
         stopTimer(gamePin);
 
-        PoolLiveQuizSession session = sessionRepository
-                .findByGamePin(gamePin)
-                .orElse(null);
+        // Send 0 to frontend first
+        send(gamePin, () -> messagingTemplate.convertAndSend(
+                "/topic/pool/" + gamePin + "/timer",
+                0
+        ));
 
-        if (session == null) return;
+        // own step, so a failed reveal is retried (close is a no-op now)
+        runPhase(gamePin, () -> reveal(gamePin));
+    }
 
-        try {
+    private void reveal(String gamePin) {
 
-            // 1️⃣ Get CURRENT question (DO NOT increment)
-            var question =
-                    poolGameService.getCurrentQuestion(gamePin);
+        PoolLiveQuizSession session = poolGameService.getSession(gamePin);
 
-            // 2️⃣ Get correct answer
-            String correct =
-                    poolGameService.getCorrectAnswer(question.getQuestionId());
+        // 1️⃣ Get CURRENT question (DO NOT increment)
+        var question =
+                poolGameService.getCurrentQuestion(gamePin);
 
-            // 3️⃣ Broadcast correct answer
-            messagingTemplate.convertAndSend(
-                    "/topic/pool/" + gamePin + "/result",
-                    correct
+        if (question == null) {
+            finishGame(gamePin);
+            return;
+        }
+
+        // 2️⃣ Get correct answer
+        String correct =
+                poolGameService.getCorrectAnswer(gamePin, question.getQuestionId());
+
+        poolGameService.transition(gamePin, PoolGameStatus.RESULT);
+
+        // 3️⃣ Broadcast correct answer
+        send(gamePin, () -> messagingTemplate.convertAndSend(
+                "/topic/pool/" + gamePin + "/result",
+                correct
+        ));
+
+        // 📦 Pre-push next question while clients show the reveal
+        prefetchNextQuestion(gamePin);
+
+        // ⏳ Reveal delay before scoreboard
+        schedulePhase(
+                gamePin,
+                () -> showScoreboard(gamePin),
+                session.getRevealSeconds()
+        );
+    }
+
+    // RESULT -> SCOREBOARD (-> LIVE when auto-advancing)
+    private void showScoreboard(String gamePin) {
+
+        if (!poolGameService.transition(gamePin, PoolGameStatus.SCOREBOARD)) {
+            return; // host already moved on
+        }
+
+        var players = poolGameService.getPlayers(gamePin);
+
+        send(gamePin, () -> messagingTemplate.convertAndSend(
+                "/topic/pool/" + gamePin + "/scoreboard",
+                new PoolScoreboardDTO(players)
+        ));
+
+        if (poolGameService.isTeamGame(gamePin)) {
+            var teams = poolGameService.getTeamStandings(gamePin);
+            send(gamePin, () -> messagingTemplate.convertAndSend(
+                    "/topic/pool/" + gamePin + "/teams",
+                    teams
+            ));
+        }
+
+        PoolLiveQuizSession session = poolGameService.getSession(gamePin);
+
+        if (session.isAutoAdvance()) {
+            schedulePhase(
+                    gamePin,
+                    () -> advance(gamePin),
+                    session.getScoreboardSeconds()
             );
+        }
+    }
 
-            // ⏳ 3 second delay before scoreboard
-            scheduler.schedule(() -> {
-                var players = poolGameService.getPlayers(gamePin);
+    private void schedulePhase(String gamePin, Runnable step, int delaySeconds) {
+        schedulePhase(gamePin, step, delaySeconds, 0);
+    }
 
-                messagingTemplate.convertAndSend(
-                        "/topic/pool/" + gamePin + "/scoreboard",
-                        new PoolScoreboardDTO(players)
-                );
-            }, 3, TimeUnit.SECONDS);
+    private void schedulePhase(String gamePin, Runnable step, int delaySeconds, int failures) {
+
+        ScheduledFuture<?> future = scheduler.schedule(
+                () -> runPhase(gamePin, step, failures),
+                delaySeconds,
+                TimeUnit.SECONDS
+        );
+
+        ScheduledFuture<?> old = phases.put(gamePin, future);
+        if (old != null) old.cancel(false);
+    }
+
+    private void runPhase(String gamePin, Runnable step) {
+        runPhase(gamePin, step, 0);
+    }
+
+    // Running out of questions ends the game inside the step (advance / reveal);
+    // an exception only ends it when the session is gone. Anything else
+    // (DB hiccup, failed broadcast) is retried, then the game is left in its
+    // current state for the host to move on or end.
+    private void runPhase(String gamePin, Runnable step, int failures) {
 
+        try {
+            synchronized (lockFor(gamePin)) {
+                step.run();
+            }
+        } catch (RuntimeException e) {
+
+            if (sessionGone(gamePin)) {
+                finishGame(gamePin);
+                return;
+            }
+
+            if (failures < PHASE_RETRIES) {
+                System.err.println("Pool phase failed for " + gamePin + ", retrying: " + e.getMessage());
+                schedulePhase(gamePin, step, PHASE_RETRY_SECONDS, failures + 1);
+            } else {
+                System.err.println("Pool phase failed for " + gamePin
+                        + ", holding the game in its current state: " + e.getMessage());
+            }
+        }
+    }
+
+    // false when it cannot be told (DB down): that is not a reason to end a game
+    private boolean sessionGone(String gamePin) {
+        try {
+            return sessionRepository.findByGamePin(gamePin).isEmpty();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void finishGame(String gamePin) {
+        endGame(gamePin);
+    }
 
-        } catch (Exception e) {
 
+    // =====================================================
+    // 🏁 END GAME (host "end" or auto-advance past the last question)
+    // Final scoreboard is read before the live rows are dropped;
+    // they are only dropped once the archive has been written.
+    // =====================================================
+    public void endGame(String gamePin) {
+
+        stopGame(gamePin);
+
+        PoolScoreboardDTO scoreboard = null;
+        PoolTeamScoreboardDTO teams = null;
+
+        try {
             poolGameService.endGame(gamePin);
 
-            messagingTemplate.convertAndSend(
-                    "/topic/pool/" + gamePin + "/end",
-                    "END"
-            );
+            List<PoolLivePlayer> players =
+                    poolGameService.getPlayers(gamePin);
+            scoreboard = new PoolScoreboardDTO(players);
+
+            if (poolGameService.isTeamGame(gamePin)) {
+                teams = poolGameService.getTeamStandings(gamePin);
+            }
+        } catch (RuntimeException e) {
+            // Session already gone: nothing left to archive or show
+        }
+
+        if (scoreboard != null) {
+
+            // 📦 Keep a compact copy for analytics, then drop the live rows
+            try {
+                archiveService.archive(gamePin);
+                poolGameService.destroySession(gamePin);
+            } catch (RuntimeException e) {
+                System.err.println("Pool archive failed for " + gamePin
+                        + ", keeping live rows: " + e.getMessage());
+            }
+
+            PoolScoreboardDTO finalBoard = scoreboard;
+            send(gamePin, () -> messagingTemplate.convertAndSend(
+                    "/topic/pool/" + gamePin + "/scoreboard",
+                    finalBoard
+            ));
+
+            if (teams != null) {
+                PoolTeamScoreboardDTO finalTeams = teams;
+                send(gamePin, () -> messagingTemplate.convertAndSend(
+                        "/topic/pool/" + gamePin + "/teams",
+                        finalTeams
+                ));
+            }
         }
+
+        send(gamePin, () -> messagingTemplate.convertAndSend(
+                "/topic/pool/" + gamePin + "/end",
+                "END"
+        ));
     }
 
+    private void prefetchNextQuestion(String gamePin) {
 
+        if (!pipelineEnabled) return;
+
+        PoolLiveQuestionDTO next =
+                poolGameService.peekNextQuestion(gamePin);
+
+        if (next == null) {
+            prefetched.remove(gamePin);
+            return;
+        }
+
+        prefetched.put(gamePin, next);
+
+        // Clients keep this hidden until the matching "go" frame
+        send(gamePin, () -> messagingTemplate.convertAndSend(
+                "/topic/pool/" + gamePin + "/prefetch",
+                next
+        ));
+    }
+
+    private void send(String gamePin, Runnable send) {
+        metrics.broadcast(gamePin, send);
+    }
 
 }
@@ -0,0 +1,159 @@
+package com.mp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerKeyTest {
+
+	@Test
+	void agreesWithTheOldGraderOnExactAnswers() {
+
+		Random random = new Random(7);
+
+		for (int round = 0; round < 200; round++) {
+
+			List<QuestionPaper.PaperQuestion> questions = new ArrayList<>();
+			Map<Long, String> sheet = new HashMap<>();
+
+			int n = 1 + random.nextInt(40);
+			for (int i = 0; i < n; i++) {
+				long id = 1_000L + random.nextInt(100_000);
+				// untyped questions are left out: the old submit grader skipped them
+				String type = random.nextInt(4) == 0 ? "CODING" : "MCQ";
+				List<String> options = List.of("Alpha " + i, "Beta " + i, "Gamma " + i, "Delta " + i);
+				questions.add(mcq(id, type, options, options.get(random.nextInt(4))));
+				sheet.put(id, options.get(random.nextInt(4)));
+			}
+
+			// unknown question and blank answer score nothing in either grader
+			sheet.put(-1L, "Alpha 0");
+			sheet.put(questions.get(0).id(), random.nextBoolean() ? "" : sheet.get(questions.get(0).id()));
+
+			AnswerKey key = new AnswerKey(questions);
+			assertEquals(oldScore(questions, sheet), key.score(sheet), "round " + round);
+		}
+	}
+
+	@Test
+	void acceptsWhatTheOldGraderMissedOnlyForSpacingAndCase() {
+
+		AnswerKey key = new AnswerKey(List.of(mcq(1L, "MCQ", List.of("Paris", "Lyon"), "Paris")));
+
+		for (String answer : List.of("paris", "PARIS", "  Paris ", "\tpArIs\n")) {
+			assertEquals(0, oldScore(List.of(mcq(1L, "MCQ", List.of("Paris", "Lyon"), "Paris")), Map.of(1L, answer)));
+			assertTrue(key.isCorrect(1L, answer), answer);
+		}
+
+		assertFalse(key.isCorrect(1L, "Pari s"));
+		assertFalse(key.isCorrect(1L, "Lyon"));
+		assertFalse(key.isCorrect(1L, null));
+		assertFalse(key.isCorrect(1L, "   "));
+	}
+
+	@Test
+	void mcqAndUntypedQuestionsAreGraded() {
+
+		AnswerKey key = new AnswerKey(List.of(
+				mcq(1L, "MCQ", List.of("a", "b"), "a"),
+				mcq(2L, "mcq", List.of("a", "b"), "a"),
+				mcq(3L, null, List.of("a", "b"), "a"),
+				mcq(4L, "CODING", List.of(), "print(1)"),
+				mcq(5L, "MCQ", List.of("a", "b"), null)
+		));
+
+		assertEquals(3, key.gradable());
+		assertTrue(key.isCorrect(1L, "a"));
+		assertTrue(key.isCorrect(2L, "a"));
+		assertTrue(key.isCorrect(3L, "a"));
+		assertFalse(key.isCorrect(3L, "b"));
+		assertFalse(key.isCorrect(4L, "print(1)"));
+		assertFalse(key.isCorrect(5L, "a"));
+
+		// ungraded questions are still part of the paper
+		assertTrue(key.contains(4L));
+		assertTrue(key.contains(5L));
+		assertFalse(key.contains(6L));
+	}
+
+	@Test
+	void correctAnswerMissingFromTheOptionsIsGradedAsAnExtraOption() {
+
+		AnswerKey key = new AnswerKey(List.of(mcq(1L, "MCQ", List.of("red", "green"), "Blue")));
+
+		assertTrue(key.isCorrect(1L, "blue"));
+		assertEquals(2, key.ordinal(1L, "BLUE"));
+		assertEquals(1, key.ordinal(1L, "green"));
+		assertEquals(-1, key.ordinal(1L, "purple"));
+	}
+
+	@Test
+	void indexAndOrdinalLookupMatchesTextGrading() {
+
+		List<QuestionPaper.PaperQuestion> questions = List.of(
+				mcq(30L, "MCQ", List.of("x", "y", "z"), "z"),
+				mcq(10L, "MCQ", List.of("x", "y", "z"), "x"),
+				mcq(20L, "CODING", List.of(), "code")
+		);
+		AnswerKey key = new AnswerKey(questions);
+
+		for (QuestionPaper.PaperQuestion q : questions) {
+			int index = key.indexOf(q.id());
+			assertTrue(index >= 0);
+
+			for (String answer : List.of("x", "y", "z", "code", "nope")) {
+				assertEquals(key.isCorrect(q.id(), answer), key.isCorrect(index, key.ordinal(q.id(), answer)),
+						q.id() + " / " + answer);
+			}
+		}
+
+		assertEquals(-1, key.indexOf(99L));
+		assertFalse(key.isCorrect(key.indexOf(30L), -1));
+	}
+
+	@Test
+	void duplicateOptionsGradeByTheFirstMatch() {
+
+		AnswerKey key = new AnswerKey(List.of(mcq(1L, "MCQ", List.of("Same", "same ", "other"), "SAME")));
+
+		assertEquals(0, key.ordinal(1L, "same"));
+		assertTrue(key.isCorrect(1L, "same"));
+	}
+
+	@Test
+	void sameAnswerUsesTheGradingComparison() {
+		assertTrue(AnswerKey.sameAnswer(" Paris", "paris "));
+		assertFalse(AnswerKey.sameAnswer("Paris", "Lyon"));
+		assertFalse(AnswerKey.sameAnswer(null, null));
+		assertFalse(AnswerKey.sameAnswer(" ", ""));
+	}
+
+	// The submit grader before AnswerKey: MCQ only, exact match
+	private static int oldScore(List<QuestionPaper.PaperQuestion> questions, Map<Long, String> answers) {
+
+		Map<Long, String> correct = new HashMap<>();
+		for (QuestionPaper.PaperQuestion q : questions) {
+			if ("MCQ".equals(q.type()) && q.correctAnswer() != null) correct.put(q.id(), q.correctAnswer());
+		}
+
+		int score = 0;
+		for (Map.Entry<Long, String> e : answers.entrySet()) {
+			String c = correct.get(e.getKey());
+			if (c != null && c.equals(e.getValue())) score++;
+		}
+		return score;
+	}
+
+	private static QuestionPaper.PaperQuestion mcq(Long id, String type, List<String> options, String correct) {
+		return new QuestionPaper.PaperQuestion(id, "Question " + id, type, options, correct, null, null, null);
+	}
+
+}
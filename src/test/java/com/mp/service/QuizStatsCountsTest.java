@@ -0,0 +1,139 @@
+package com.mp.service;
+
+import com.mp.entity.QuizStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QuizStatsCountsTest {
+
+	// two MCQ questions and one coding question
+	private final AnswerKey key = new AnswerKey(List.of(
+			question(1L, "MCQ", "a"),
+			question(2L, "MCQ", "b"),
+			question(3L, "CODING", "print(1)")
+	));
+
+	@Test
+	void applyAddsTotalsHistogramAndQuestionCounts() {
+
+		QuizStatsService.Counts c = new QuizStatsService.Counts();
+		c.apply(graded(2, 2, true, Map.of(1L, "A", 2L, " b ")), 1, key);
+		c.apply(graded(1, 2, false, Map.of(1L, "a", 2L, "c")), 1, key);
+		c.apply(graded(0, 2, false, Map.of()), 1, key);
+
+		assertEquals(3, c.attempts);
+		assertEquals(1, c.passes);
+		assertEquals(3, c.scoreSum);
+		assertEquals(150, c.percentSum);
+		assertEquals(1, c.histogram[0]);
+		assertEquals(1, c.histogram[5]);
+		assertEquals(1, c.histogram[9]);   // 100% lands in the last bucket
+		assertEquals(Map.of(1L, 2L, 2L, 2L), c.answered);
+		assertEquals(Map.of(1L, 2L, 2L, 1L), c.correct);
+	}
+
+	@Test
+	void undoRestoresThePreviousCounts() {
+
+		QuizStatsService.Counts c = new QuizStatsService.Counts();
+		c.apply(graded(1, 2, false, Map.of(1L, "a", 2L, "x")), 1, key);
+		String before = snapshot(c);
+
+		QuizStatsService.Graded g = graded(2, 2, true, Map.of(1L, "a", 2L, "b"));
+		c.apply(g, 1, key);
+		c.apply(g, -1, key);
+
+		assertEquals(before, snapshot(c));
+	}
+
+	@Test
+	void retakeReplacesTheOldResult() {
+
+		QuizStatsService.Graded first = graded(0, 2, false, Map.of(1L, "c", 2L, "c"));
+		QuizStatsService.Graded retake = graded(2, 2, true, Map.of(1L, "a", 2L, "b"));
+		QuizStatsService.Graded other = graded(1, 2, false, Map.of(1L, "a"));
+
+		// other student + first attempt, then the retake as record() applies it
+		QuizStatsService.Counts live = new QuizStatsService.Counts();
+		live.apply(other, 1, key);
+		live.apply(first, 1, key);
+		live.apply(first, -1, key);
+		live.apply(retake, 1, key);
+
+		// what a rebuild would find in quiz_results afterwards
+		QuizStatsService.Counts rebuilt = new QuizStatsService.Counts();
+		rebuilt.apply(other, 1, key);
+		rebuilt.apply(retake, 1, key);
+
+		assertEquals(snapshot(rebuilt), snapshot(live));
+		assertEquals(2, live.attempts);
+		assertEquals(0, live.histogram[0]);
+	}
+
+	@Test
+	void blankUnknownAndUngradedAnswers() {
+
+		QuizStatsService.Counts c = new QuizStatsService.Counts();
+		c.apply(graded(0, 3, false, Map.of(1L, "  ", 3L, "print(1)", 99L, "a")), 1, key);
+
+		// coding question counts as answered, never correct; blank and unknown are skipped
+		assertEquals(Map.of(3L, 1L), c.answered);
+		assertEquals(0, c.correct.getOrDefault(3L, 0L));
+	}
+
+	@Test
+	void zeroQuestionResultCountsAsZeroPercent() {
+
+		QuizStatsService.Counts c = new QuizStatsService.Counts();
+		c.apply(graded(0, 0, false, Map.of()), 1, key);
+
+		assertEquals(1, c.histogram[0]);
+		assertEquals(0, c.percentSum);
+	}
+
+	@Test
+	void copyToAndBackKeepsEveryCounter() {
+
+		QuizStatsService.Counts c = new QuizStatsService.Counts();
+		c.apply(graded(1, 2, true, Map.of(1L, "a", 2L, "c")), 1, key);
+
+		QuizStats row = new QuizStats(5L);
+		c.copyTo(row);
+
+		assertEquals(snapshot(c), snapshot(QuizStatsService.Counts.of(row)));
+
+		// written back as new objects, so JPA sees the JSON columns as changed
+		c.apply(graded(2, 2, true, Map.of(1L, "a", 2L, "b")), 1, key);
+		assertArrayEquals(new long[]{0, 0, 0, 0, 0, 1, 0, 0, 0, 0}, row.getHistogram());
+		assertEquals(Map.of(1L, 1L, 2L, 1L), row.getQuestionAnswered());
+	}
+
+	private static String snapshot(QuizStatsService.Counts c) {
+		return c.attempts + "/" + c.passes + "/" + c.scoreSum + "/" + c.percentSum + "/"
+				+ Arrays.toString(c.histogram) + "/" + withoutZeros(c.answered) + "/" + withoutZeros(c.correct);
+	}
+
+	// an undone question may stay in the map with a zero count
+	private static Map<Long, Long> withoutZeros(Map<Long, Long> m) {
+		Map<Long, Long> copy = new TreeMap<>(m);
+		copy.values().removeIf(v -> v == 0);
+		return copy;
+	}
+
+	private static QuizStatsService.Graded graded(int score, int total, boolean passed, Map<Long, String> answers) {
+		return new QuizStatsService.Graded(score, total, passed, answers);
+	}
+
+	private static QuestionPaper.PaperQuestion question(Long id, String type, String correct) {
+		return new QuestionPaper.PaperQuestion(
+				id, "Question " + id, type, List.of("a", "b", "c"), correct, null, null, null);
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.mp.service_attempt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttemptTimingWheelTest {
+
+	private static final long TICK = 10;
+
+	// id -> epoch millis it was handed to the callback
+	private final Map<Long, Long> fired = new ConcurrentHashMap<>();
+	private final AtomicInteger firings = new AtomicInteger();
+
+	private AttemptTimingWheel wheel;
+
+	@AfterEach
+	void stop() {
+		if (wheel != null) wheel.stop();
+	}
+
+	@Test
+	void firesEachDeadlineOnceAndNeverEarly() throws InterruptedException {
+
+		CountDownLatch done = new CountDownLatch(200);
+		wheel = recording(64, done);
+
+		long now = System.currentTimeMillis();
+		Map<Long, Long> due = new ConcurrentHashMap<>();
+		for (long id = 1; id <= 200; id++) {
+			due.put(id, now + 5 + id * 3);
+			wheel.schedule(id, due.get(id));
+		}
+
+		assertTrue(done.await(5, TimeUnit.SECONDS), "only " + fired.size() + " fired");
+
+		assertEquals(200, firings.get());
+		for (Map.Entry<Long, Long> e : due.entrySet()) {
+			long at = fired.get(e.getKey());
+			assertTrue(at >= e.getValue(), "attempt " + e.getKey() + " fired " + (e.getValue() - at) + " ms early");
+		}
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cancelledDeadlinesNeverFire() throws InterruptedException {
+
+		CountDownLatch done = new CountDownLatch(50);
+		wheel = recording(16, done);
+
+		long due = System.currentTimeMillis() + 100;
+		for (long id = 1; id <= 100; id++) wheel.schedule(id, due);
+		for (long id = 2; id <= 100; id += 2) wheel.cancel(id);
+
+		assertEquals(50, wheel.size());
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		Thread.sleep(5 * TICK);
+
+		assertEquals(50, firings.get());
+		for (long id = 1; id <= 100; id++) {
+			assertEquals(id % 2 == 1, fired.containsKey(id), "attempt " + id);
+		}
+	}
+
+	@Test
+	void reschedulingReplacesTheEarlierDeadline() throws InterruptedException {
+
+		CountDownLatch done = new CountDownLatch(1);
+		wheel = recording(16, done);
+
+		long now = System.currentTimeMillis();
+		wheel.schedule(7, now + 20);
+		long later = now + 300;
+		wheel.schedule(7, later);
+
+		assertEquals(1, wheel.size());
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		Thread.sleep(5 * TICK);
+
+		assertEquals(1, firings.get());
+		assertTrue(fired.get(7L) >= later);
+	}
+
+	@Test
+	void deadlinesSeveralTurnsAwayWaitForTheirTurn() throws InterruptedException {
+
+		// 4 slots of 10 ms: a 250 ms deadline is more than six turns away
+		CountDownLatch done = new CountDownLatch(1);
+		wheel = recording(4, done);
+
+		long due = System.currentTimeMillis() + 250;
+		wheel.schedule(1, due);
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertTrue(fired.get(1L) >= due);
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextTick() throws InterruptedException {
+
+		CountDownLatch done = new CountDownLatch(1);
+		wheel = recording(16, done);
+
+		wheel.schedule(1, System.currentTimeMillis() - 60_000);
+
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void aFailingCallbackDoesNotStopTheWheel() throws InterruptedException {
+
+		CountDownLatch second = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+
+		wheel = new AttemptTimingWheel("test-wheel", 16, TICK, ids -> {
+			if (calls.incrementAndGet() == 1) throw new IllegalStateException("boom");
+			second.countDown();
+		});
+
+		long now = System.currentTimeMillis();
+		wheel.schedule(1, now + 10);
+		wheel.schedule(2, now + 200);
+
+		assertTrue(second.await(5, TimeUnit.SECONDS));
+		assertEquals(2, calls.get());
+	}
+
+	private AttemptTimingWheel recording(int wheelSize, CountDownLatch done) {
+		return new AttemptTimingWheel("test-wheel", wheelSize, TICK, (List<Long> ids) -> {
+			long now = System.currentTimeMillis();
+			for (Long id : ids) {
+				fired.put(id, now);
+				firings.incrementAndGet();
+				done.countDown();
+			}
+		});
+	}
+
+}
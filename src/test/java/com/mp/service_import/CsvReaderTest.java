@@ -0,0 +1,143 @@
+package com.mp.service_import;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+	// tiny buffers put every quote, CR and LF on a buffer boundary somewhere
+	private static final int[] BUFFER_SIZES = {1, 2, 3, 7, 64 * 1024};
+
+	@Test
+	void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+
+		String csv = "q,a\n"
+				+ "\"Capital, of France?\",\"Say \"\"Paris\"\"\"\n"
+				+ "\"two\nlines\",\"cr\r\nlf\"\n";
+
+		for (int size : BUFFER_SIZES) {
+			assertEquals(List.of(
+					List.of("q", "a"),
+					List.of("Capital, of France?", "Say \"Paris\""),
+					List.of("two\nlines", "cr\r\nlf")
+			), read(csv, size), "buffer " + size);
+		}
+	}
+
+	@Test
+	void crLfAndLoneCrAllEndARecord() throws IOException {
+
+		for (int size : BUFFER_SIZES) {
+			assertEquals(List.of(
+					List.of("a", "1"),
+					List.of("b", "2"),
+					List.of("c", "3"),
+					List.of("d", "4")
+			), read("a,1\r\nb,2\rc,3\nd,4", size), "buffer " + size);
+		}
+	}
+
+	@Test
+	void byteOrderMarkIsSkippedOnlyAtTheStart() throws IOException {
+
+		for (int size : BUFFER_SIZES) {
+			List<List<String>> rows = read("\uFEFFcontent,answer\nx,\uFEFFy\n", size);
+
+			assertEquals("content", rows.get(0).get(0), "buffer " + size);
+			assertEquals("\uFEFFy", rows.get(1).get(1), "buffer " + size);
+		}
+	}
+
+	@Test
+	void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+		assertEquals(List.of(List.of("5\" screen", "ok")), read("5\" screen,ok\n", 8));
+	}
+
+	@Test
+	void quoteAfterLeadingSpacesOpensAQuotedField() throws IOException {
+		assertEquals(List.of(List.of("a, b", "c")), read("  \"a, b\",c", 8));
+	}
+
+	@Test
+	void fieldsAreTrimmedAndMissingFieldsAreEmpty() throws IOException {
+
+		CsvReader reader = new CsvReader(new StringReader("  spaced  ,\t tab\t\n"));
+
+		assertTrue(reader.next());
+		assertEquals(2, reader.fieldCount());
+		assertEquals("spaced", reader.field(0));
+		assertEquals("tab", reader.field(1));
+		assertEquals("", reader.field(5));
+		assertFalse(reader.next());
+	}
+
+	@Test
+	void emptyLinesAreBlankRecordsAndLinesCountQuotedBreaks() throws IOException {
+
+		CsvReader reader = new CsvReader(new StringReader("a\n\n\"x\r\ny\"\r\n  \nlast"), 2);
+
+		assertTrue(reader.next());
+		assertEquals(1, reader.line());
+		assertFalse(reader.isBlankRecord());
+
+		assertTrue(reader.next());
+		assertEquals(2, reader.line());
+		assertTrue(reader.isBlankRecord());
+
+		assertTrue(reader.next());
+		assertEquals(3, reader.line());
+		assertEquals("x\r\ny", reader.field(0));
+
+		assertTrue(reader.next());
+		assertEquals(5, reader.line());
+		assertTrue(reader.isBlankRecord());
+
+		assertTrue(reader.next());
+		assertEquals(6, reader.line());
+		assertEquals("last", reader.field(0));
+
+		assertFalse(reader.next());
+	}
+
+	@Test
+	void emptyInputHasNoRecords() throws IOException {
+		assertFalse(new CsvReader(new StringReader("")).next());
+		assertFalse(new CsvReader(new StringReader("\uFEFF")).next());
+	}
+
+	@Test
+	void unterminatedQuoteIsAnError() {
+
+		CsvReader reader = new CsvReader(new StringReader("ok\n\"never closed,\nstill open"), 4);
+
+		IOException e = assertThrows(IOException.class, () -> {
+			while (reader.next()) {
+				// read to the broken record
+			}
+		});
+		assertEquals("Unterminated quoted field starting on line 2", e.getMessage());
+	}
+
+	private static List<List<String>> read(String csv, int bufferSize) throws IOException {
+
+		CsvReader reader = new CsvReader(new StringReader(csv), bufferSize);
+		List<List<String>> rows = new ArrayList<>();
+
+		while (reader.next()) {
+			List<String> row = new ArrayList<>();
+			for (int i = 0; i < reader.fieldCount(); i++) row.add(reader.field(i));
+			rows.add(row);
+		}
+		return rows;
+	}
+
+}
@@ -0,0 +1,199 @@
+package com.mp.service_import;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XlsxQuestionParserTest {
+
+	private static final String HEADER =
+			"<row r=\"1\">"
+					+ "<c r=\"A1\" t=\"inlineStr\"><is><t>question</t></is></c>"
+					+ "<c r=\"F1\" t=\"inlineStr\"><is><t>correctAnswer</t></is></c>"
+					+ "</row>";
+
+	private final XlsxQuestionParser parser = new XlsxQuestionParser();
+
+	@Test
+	void decodesSharedInlineNumericBooleanAndFormulaCells() throws IOException {
+
+		String sharedStrings = "<sst>"
+				+ "<si><t>Capital of France?</t></si>"
+				+ "<si><r><t>Pa</t></r><r><t>ris</t></r></si>"              // rich text runs
+				+ "<si><t>東京</t><rPh><t>とうきょう</t></rPh></si>"          // phonetic hint dropped
+				+ "</sst>";
+
+		String row = "<row r=\"2\">"
+				+ "<c r=\"A2\" t=\"s\"><v>0</v></c>"
+				+ "<c r=\"B2\" t=\"s\"><v>1</v></c>"
+				+ "<c r=\"C2\"><v>0.10000000000000001</v></c>"
+				+ "<c r=\"D2\" t=\"b\"><v>1</v></c>"
+				+ "<c r=\"E2\" t=\"str\"><f>A1</f><v>  formula  </v></c>"
+				+ "<c r=\"F2\" t=\"s\"><v>2</v></c>"
+				+ "</row>";
+
+		Result r = parse(workbook(sharedStrings, HEADER + row));
+
+		assertTrue(r.errors.isEmpty(), r.errors.toString());
+		assertEquals(List.of(new ImportedQuestion(
+				2, "Capital of France?", List.of("Paris", "0.1", "TRUE", "formula"), "東京"
+		)), r.rows);
+	}
+
+	@Test
+	void numbersKeepExcelPrecisionWithoutTrailingZeros() throws IOException {
+
+		String row = "<row r=\"2\">"
+				+ "<c r=\"A2\"><v>42</v></c>"
+				+ "<c r=\"B2\" t=\"n\"><v>1.5E3</v></c>"
+				+ "<c r=\"C2\"><v>2.0000000000000004</v></c>"
+				+ "<c r=\"D2\"><v>-0.30000000000000004</v></c>"
+				+ "<c r=\"E2\" t=\"b\"><v>0</v></c>"
+				+ "<c r=\"F2\"><v>42</v></c>"
+				+ "</row>";
+
+		Result r = parse(workbook(null, HEADER + row));
+
+		assertEquals(List.of("1500", "2", "-0.3", "FALSE"), r.rows.get(0).options());
+		assertEquals("42", r.rows.get(0).content());
+	}
+
+	@Test
+	void cellsWithoutReferencesFollowThePreviousCell() throws IOException {
+
+		StringBuilder row = new StringBuilder("<row>");
+		for (String v : List.of("q", "a", "b", "c", "d", "a")) {
+			row.append("<c t=\"inlineStr\"><is><t>").append(v).append("</t></is></c>");
+		}
+		row.append("</row>");
+
+		Result r = parse(workbook(null, HEADER + row));
+
+		// header was row 1, so the unnumbered row is row 2
+		assertEquals(List.of(new ImportedQuestion(2, "q", List.of("a", "b", "c", "d"), "a")), r.rows);
+	}
+
+	@Test
+	void shortRowsAreErrorsAndBlankRowsAreSkipped() throws IOException {
+
+		String rows = HEADER
+				+ "<row r=\"2\"><c r=\"A2\" s=\"3\"/><c r=\"B2\" t=\"inlineStr\"><is><t>   </t></is></c></row>"
+				+ "<row r=\"5\"><c r=\"A5\" t=\"inlineStr\"><is><t>only</t></is></c>"
+				+ "<c r=\"C5\" t=\"inlineStr\"><is><t>two</t></is></c></row>";
+
+		Result r = parse(workbook(null, rows));
+
+		assertTrue(r.rows.isEmpty());
+		assertEquals(Map.of(5, "Expected 6 columns, found 3"), r.errors);
+	}
+
+	@Test
+	void cellsPastTheLastColumnAreIgnored() throws IOException {
+
+		StringBuilder row = new StringBuilder("<row r=\"2\">");
+		String[] refs = {"A", "B", "C", "D", "E", "F", "AA"};
+		for (String ref : refs) {
+			row.append("<c r=\"").append(ref).append("2\" t=\"inlineStr\"><is><t>")
+					.append(ref).append("</t></is></c>");
+		}
+		row.append("</row>");
+
+		Result r = parse(workbook(null, HEADER + row));
+
+		assertEquals(List.of(new ImportedQuestion(2, "A", List.of("B", "C", "D", "E"), "F")), r.rows);
+	}
+
+	@Test
+	void columnIndexReadsLettersOfACellReference() {
+		assertEquals(0, XlsxQuestionParser.columnIndex("A1"));
+		assertEquals(5, XlsxQuestionParser.columnIndex("F20"));
+		assertEquals(25, XlsxQuestionParser.columnIndex("Z3"));
+		assertEquals(26, XlsxQuestionParser.columnIndex("AA1"));
+		assertEquals(27, XlsxQuestionParser.columnIndex("AB12"));
+	}
+
+	@Test
+	void rejectsZipWithoutWorkbook() throws IOException {
+
+		byte[] zip = zip(Map.of("hello.txt", "not a workbook"));
+
+		IOException e = assertThrows(IOException.class, () -> parse(zip));
+		assertEquals("Not an .xlsx workbook", e.getMessage());
+	}
+
+	// =====================================================
+	// helpers
+	// =====================================================
+
+	private record Result(List<ImportedQuestion> rows, Map<Integer, String> errors) {
+	}
+
+	private Result parse(byte[] xlsx) throws IOException {
+
+		List<ImportedQuestion> rows = new ArrayList<>();
+		Map<Integer, String> errors = new LinkedHashMap<>();
+
+		parser.parse(new ByteArrayInputStream(xlsx), new QuestionRowHandler() {
+			@Override
+			public void row(ImportedQuestion question) {
+				rows.add(question);
+			}
+
+			@Override
+			public void error(int line, String message) {
+				errors.put(line, message);
+			}
+		});
+		return new Result(rows, errors);
+	}
+
+	// Minimal workbook: the sheet is not called sheet1.xml, so the rels lookup is exercised
+	private static byte[] workbook(String sharedStrings, String sheetRows) throws IOException {
+
+		Map<String, String> parts = new LinkedHashMap<>();
+
+		// sheet before sharedStrings, as some writers order them
+		parts.put("xl/worksheets/questions.xml",
+				"<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+						+ "<sheetData>" + sheetRows + "</sheetData></worksheet>");
+		if (sharedStrings != null) {
+			parts.put("xl/sharedStrings.xml", sharedStrings);
+		}
+		parts.put("xl/workbook.xml",
+				"<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+						+ "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+						+ "<sheets><sheet name=\"Questions\" sheetId=\"1\" r:id=\"rId7\"/></sheets></workbook>");
+		parts.put("xl/_rels/workbook.xml.rels",
+				"<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+						+ "<Relationship Id=\"rId7\" Target=\"worksheets/questions.xml\"/></Relationships>");
+
+		return zip(parts);
+	}
+
+	private static byte[] zip(Map<String, String> parts) throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+			for (Map.Entry<String, String> part : parts.entrySet()) {
+				zip.putNextEntry(new ZipEntry(part.getKey()));
+				zip.write(part.getValue().getBytes(StandardCharsets.UTF_8));
+				zip.closeEntry();
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+}
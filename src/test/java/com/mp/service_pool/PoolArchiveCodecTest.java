@@ -0,0 +1,115 @@
+package com.mp.service_pool;
+
+import com.mp.dto_pool.PoolArchivedGameDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoolArchiveCodecTest {
+
+	@Test
+	void roundTripKeepsPlayersQuestionsAndAnswers() throws IOException {
+
+		PoolArchiveCodec.Columns c = new PoolArchiveCodec.Columns();
+		c.nicknames.addAll(List.of("ada", "bob", "cy"));
+		c.scores.addAll(List.of(1900, 1900, 0));
+		c.ranks.addAll(List.of(1, 1, 3));
+		c.questionIds.addAll(List.of(11L, 12L));
+
+		long t0 = 1_700_000_000_000L;
+		c.addAnswer(0, 0, "Paris", true, t0, 2, 950);
+		c.addAnswer(1, 0, "Paris", true, t0 + 400, 3, 950);
+		c.addAnswer(2, 0, "Lyon", false, t0 + 900, 5, 0);
+		c.addAnswer(0, 1, "Ünïcødé, \"quoted\"", true, t0 + 30_000, 1, 950);
+
+		PoolArchivedGameDTO game = PoolArchiveCodec.read(new ByteArrayInputStream(encode("123456", 7L, c)));
+
+		assertEquals("123456", game.gamePin());
+		assertEquals(7L, game.quizId());
+		assertEquals(List.of(11L, 12L), game.questionIds());
+		assertEquals(List.of(
+				new PoolArchivedGameDTO.Player("ada", 1900, 1),
+				new PoolArchivedGameDTO.Player("bob", 1900, 1),
+				new PoolArchivedGameDTO.Player("cy", 0, 3)
+		), game.players());
+
+		assertEquals(List.of(
+				new PoolArchivedGameDTO.Answer("ada", 11L, 1, "Paris", true, t0, 2, 950),
+				new PoolArchivedGameDTO.Answer("bob", 11L, 1, "Paris", true, t0 + 400, 3, 950),
+				new PoolArchivedGameDTO.Answer("cy", 11L, 1, "Lyon", false, t0 + 900, 5, 0),
+				new PoolArchivedGameDTO.Answer("ada", 12L, 2, "Ünïcødé, \"quoted\"", true, t0 + 30_000, 1, 950)
+		), game.answers());
+
+		// repeated answers share one dictionary entry
+		assertEquals(List.of("Paris", "Lyon", "Ünïcødé, \"quoted\""), c.dictionary);
+	}
+
+	@Test
+	void correctBitsSurviveBeyondOneByteAndColumnGrowth() throws IOException {
+
+		PoolArchiveCodec.Columns c = new PoolArchiveCodec.Columns();
+		c.nicknames.add("solo");
+		c.scores.add(0);
+		c.ranks.add(1);
+		c.questionIds.add(1L);
+
+		// more than the initial column capacity (16) and not a multiple of 8
+		int n = 37;
+		for (int i = 0; i < n; i++) {
+			c.addAnswer(0, 0, "A" + (i % 3), i % 3 == 0, 1_000L * i, i, i);
+		}
+
+		List<PoolArchivedGameDTO.Answer> answers =
+				PoolArchiveCodec.read(new ByteArrayInputStream(encode("1", 1L, c))).answers();
+
+		assertEquals(n, answers.size());
+		for (int i = 0; i < n; i++) {
+			PoolArchivedGameDTO.Answer a = answers.get(i);
+			assertEquals(i % 3 == 0, a.correct(), "answer " + i);
+			assertEquals("A" + (i % 3), a.selectedAnswer());
+			assertEquals(1_000L * i, a.submittedAt());
+			assertEquals(i, a.responseTime());
+			assertEquals(i, a.awardedPoints());
+		}
+	}
+
+	@Test
+	void emptyGameRoundTrips() throws IOException {
+
+		PoolArchivedGameDTO game = PoolArchiveCodec.read(
+				new ByteArrayInputStream(encode("000000", 3L, new PoolArchiveCodec.Columns())));
+
+		assertEquals("000000", game.gamePin());
+		assertTrue(game.players().isEmpty());
+		assertTrue(game.questionIds().isEmpty());
+		assertTrue(game.answers().isEmpty());
+	}
+
+	@Test
+	void rejectsFileWithoutMagic() throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (var gzip = new GZIPOutputStream(bytes)) {
+			gzip.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+		}
+
+		IOException e = assertThrows(IOException.class,
+				() -> PoolArchiveCodec.read(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals("Not a pool game archive", e.getMessage());
+	}
+
+	private static byte[] encode(String pin, Long quizId, PoolArchiveCodec.Columns c) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PoolArchiveCodec.write(pin, quizId, c, out);
+		return out.toByteArray();
+	}
+
+}